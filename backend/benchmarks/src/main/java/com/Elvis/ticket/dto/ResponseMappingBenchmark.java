@@ -0,0 +1,128 @@
+package com.Elvis.ticket.dto;
+
+import com.Elvis.ticket.model.Customer;
+import com.Elvis.ticket.model.Engineer;
+import com.Elvis.ticket.model.Session;
+import com.Elvis.ticket.model.SessionMessage;
+import com.Elvis.ticket.model.TeslaModel;
+import com.Elvis.ticket.model.Ticket;
+import com.Elvis.ticket.model.TicketMessage;
+import com.Elvis.ticket.model.TicketStatus;
+import com.Elvis.ticket.model.TicketType;
+import com.Elvis.ticket.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps tickets and sessions to their response DTOs, with and without message
+ * history, on detached entities so only the mapping itself is measured.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar ResponseMappingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"0", "50", "500"})
+    public int messages;
+
+    private Ticket ticket;
+    private Session session;
+    private List<TicketMessage> ticketMessages;
+    private List<SessionMessage> sessionMessages;
+
+    @Setup
+    public void createEntities() {
+        LocalDateTime now = LocalDateTime.of(2025, 5, 18, 9, 30);
+
+        User customerUser = user(1L, "Jane Customer", "cus@example.com", "CUSTOMER", now);
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setEmail(customerUser.getEmail());
+        customer.setUser(customerUser);
+
+        User engineerUser = user(2L, "Eddie Engineer", "eng@example.com", "ENGINEER", now);
+        Engineer engineer = new Engineer();
+        engineer.setId(2L);
+        engineer.setEmail(engineerUser.getEmail());
+        engineer.setCategory(TeslaModel.MODEL_3);
+        engineer.setLevel(1);
+        engineer.setUser(engineerUser);
+
+        TicketType type = new TicketType();
+        type.setId(1L);
+        type.setName("Technical Support");
+        type.setDescription("Technical support and troubleshooting tickets");
+
+        session = new Session();
+        session.setId(7L);
+        session.setUser(customerUser);
+        session.setStartTime(now);
+        session.setTitle("Charging stops at 80%");
+
+        ticket = new Ticket();
+        ticket.setId(42L);
+        ticket.setTitle("Charging stops at 80%");
+        ticket.setStatus(TicketStatus.IN_PROGRESS);
+        ticket.setUrgency("HIGH");
+        ticket.setCategory(TeslaModel.MODEL_3);
+        ticket.setType(type);
+        ticket.setCustomer(customer);
+        ticket.setEngineer(engineer);
+        ticket.setSession(session);
+        ticket.setCreatedAt(now);
+        ticket.setUpdatedAt(now);
+
+        ticketMessages = new ArrayList<>(messages);
+        sessionMessages = new ArrayList<>(messages);
+        for (int i = 0; i < messages; i++) {
+            String role = i % 2 == 0 ? "customer" : "engineer";
+            String content = "Message " + i + ": the car stops charging at 80% even though the limit is set to 100%.";
+            ticketMessages.add(new TicketMessage(ticket, i + 1, role, content, now.plusMinutes(i)));
+            sessionMessages.add(new SessionMessage(session, i + 1, role, content, now.plusMinutes(i)));
+        }
+    }
+
+    private static User user(Long id, String name, String email, String role, LocalDateTime createdAt) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(email);
+        user.setRole(role);
+        user.setCreatedAt(createdAt);
+        return user;
+    }
+
+    @Benchmark
+    public TicketResponse ticketResponse() {
+        return TicketResponse.fromTicket(ticket);
+    }
+
+    @Benchmark
+    public TicketResponse ticketResponseWithHistory() {
+        return TicketResponse.fromTicket(ticket, ticketMessages);
+    }
+
+    @Benchmark
+    public SessionHistoryResponse sessionHistory() {
+        return SessionHistoryResponse.fromSession(session, sessionMessages.stream());
+    }
+}
@@ -0,0 +1,90 @@
+package com.Elvis.ticket.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer token handling in {@link JwtTokenProvider}: validating a token that is
+ * already in the claims cache (every request after the first), verifying the
+ * signature and parsing the claims as on a cache miss, rejecting a tampered token
+ * and issuing a token at login.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar JwtValidationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private JwtParser parser;
+    private Authentication authentication;
+    private String token;
+    private String tamperedToken;
+
+    @Setup
+    public void createProvider() {
+        // Same settings as application.properties
+        tokenProvider = new JwtTokenProvider(new SecurityAuditLogger(20));
+        setField("jwtSecret", "your-secret-key-here-must-be-at-least-64-bytes-long-12345678901234567890");
+        setField("jwtExpirationInMs", 604800000);
+        setField("claimsCacheSize", 10000L);
+        tokenProvider.init();
+        parser = Jwts.parserBuilder().setSigningKey(tokenProvider.getKey()).build();
+
+        UserDetails user = User.withUsername("cus@example.com").password("unused").authorities("ROLE_CUSTOMER").build();
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        token = tokenProvider.generateToken(authentication);
+        // Flip one character of the signature
+        char last = token.charAt(token.length() - 1);
+        tamperedToken = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+        tokenProvider.validateToken(token);
+    }
+
+    private void setField(String name, Object value) {
+        var field = ReflectionUtils.findField(JwtTokenProvider.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, tokenProvider, value);
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Claims verifySignature() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public boolean rejectTampered() {
+        return tokenProvider.validateToken(tamperedToken);
+    }
+
+    @Benchmark
+    public String generate() {
+        return tokenProvider.generateToken(authentication);
+    }
+}
@@ -0,0 +1,110 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.TicketApplication;
+import com.Elvis.ticket.model.Customer;
+import com.Elvis.ticket.model.Session;
+import com.Elvis.ticket.model.SessionMessage;
+import com.Elvis.ticket.model.TeslaModel;
+import com.Elvis.ticket.model.Ticket;
+import com.Elvis.ticket.repository.CustomerRepository;
+import com.Elvis.ticket.repository.TicketTypeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends messages to a ticket and to a session through {@link TicketService}
+ * and {@link SessionService}, on the application context booted against an
+ * in-memory H2 database. {@code history} messages are added before measuring, so
+ * the cost of an append can be compared on short and long conversations. Every
+ * invocation adds another message, so conversations keep growing during the run.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar HistoryAppendBenchmark}; add
+ * {@code -t 4} to measure appends from several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryAppendBenchmark {
+
+    private static final String CONTENT = "The car stops charging at 80% even though the limit is set to 100%.";
+
+    @Param({"10", "5000"})
+    public int history;
+
+    private ConfigurableApplicationContext context;
+    private TicketService ticketService;
+    private SessionService sessionService;
+    private Long ticketId;
+    private Long sessionId;
+
+    @Setup
+    public void startApplication() {
+        context = SpringApplication.run(TicketApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.root=WARN",
+                "--logging.level.security.audit=WARN");
+        ticketService = context.getBean(TicketService.class);
+        sessionService = context.getBean(SessionService.class);
+
+        // Seeded by DataInitializer
+        Customer customer = context.getBean(CustomerRepository.class).findByEmail("cus@example.com");
+        Session session = new Session();
+        session.setUser(customer.getUser());
+        session.setTitle("Charging stops at 80%");
+        sessionId = sessionService.createSession(session).getId();
+
+        Ticket ticket = new Ticket();
+        ticket.setTitle("Charging stops at 80%");
+        ticket.setUrgency("HIGH");
+        ticket.setCategory(TeslaModel.MODEL_3);
+        ticket.setCustomer(customer);
+        ticket.setSession(session);
+        ticket.setType(context.getBean(TicketTypeRepository.class).findAll().get(0));
+        Ticket created = ticketService.createTicket(ticket);
+        ticketId = created.getId();
+
+        for (int i = 0; i < history; i++) {
+            ticketService.appendMessageToHistory(ticketId, CONTENT, i % 2 == 0 ? "customer" : "engineer");
+            sessionService.addMessageToHistory(sessionId, i % 2 == 0 ? "user" : "assistant", CONTENT);
+        }
+    }
+
+    @TearDown
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Ticket ticketAppend() {
+        return ticketService.appendMessageToHistory(ticketId, CONTENT, "engineer");
+    }
+
+    @Benchmark
+    public SessionMessage sessionAppend() {
+        return sessionService.addMessageToHistory(sessionId, "user", CONTENT);
+    }
+}
@@ -0,0 +1,179 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.model.LogEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Compares the regular expression path the log viewer used to parse and filter
+ * lines with {@link LogLineParser}, on a synthetic log written in the file
+ * appender's pattern. Both read the same file line by line and apply the same
+ * level and search filters; only kept entries become {@link LogEntry} objects.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar LogParserBenchmark}; pass
+ * {@code -p sizeMb=64} for a quicker run than the default 1 GB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class LogParserBenchmark {
+
+    private static final Pattern LOG_PATTERN = Pattern.compile(
+            "(\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2})\\s+" +
+            "(INFO|DEBUG|WARN|ERROR|TRACE)\\s+" +
+            "([\\w\\.\\$]+)\\s+-\\s+" +
+            "(.*)");
+
+    private static final String[] LOGGERS = {
+            "c.E.ticket.service.TicketService",
+            "c.E.ticket.security.JwtAuthenticationFilter",
+            "o.s.web.servlet.DispatcherServlet",
+            "o.h.engine.jdbc.spi.SqlExceptionHelper",
+    };
+
+    @Param({"1024"})
+    public int sizeMb;
+
+    @Param({"ERROR"})
+    public String level;
+
+    @Param({"ticket 42"})
+    public String search;
+
+    private Path directory;
+    private Path logFile;
+
+    @Setup(Level.Trial)
+    public void writeLog() throws IOException {
+        directory = Files.createTempDirectory("log-benchmark");
+        logFile = directory.resolve("benchmark.log");
+        long target = sizeMb * 1024L * 1024L;
+        long written = 0;
+        Random random = new Random(1);
+        LocalDateTime time = LocalDateTime.of(2025, 5, 18, 0, 0);
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        try (BufferedWriter out = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8)) {
+            for (long i = 0; written < target; i++) {
+                if (i % 10 == 0) {
+                    time = time.plusSeconds(1);
+                }
+                int roll = random.nextInt(100);
+                String lineLevel = roll < 2 ? "ERROR" : roll < 10 ? "WARN " : roll < 30 ? "DEBUG" : "INFO ";
+                String line = time.format(format) + " " + lineLevel + " " + LOGGERS[random.nextInt(LOGGERS.length)]
+                        + " - Updated Ticket " + random.nextInt(1000) + " for session " + random.nextInt(100_000)
+                        + " after " + random.nextInt(500) + " ms";
+                out.write(line);
+                out.newLine();
+                written += line.length() + 1;
+                if (roll < 2) {
+                    for (int frame = 0; frame < 8; frame++) {
+                        String trace = "\tat com.Elvis.ticket.service.TicketService.method" + frame + "(TicketService.java:" + (100 + frame) + ")";
+                        out.write(trace);
+                        out.newLine();
+                        written += trace.length() + 1;
+                    }
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLog() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<LogEntry> regex() throws IOException {
+        // As before: one formatter per call, four group substrings and lower-cased copies per line
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        List<LogEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = LOG_PATTERN.matcher(line);
+                if (!matcher.matches()) {
+                    continue;
+                }
+                LocalDateTime timestamp;
+                try {
+                    timestamp = LocalDateTime.parse(matcher.group(1), formatter);
+                } catch (DateTimeParseException e) {
+                    continue;
+                }
+                LogEntry entry = new LogEntry();
+                entry.setTimestamp(timestamp);
+                entry.setLevel(matcher.group(2));
+                entry.setLogger(matcher.group(3));
+                entry.setThreadName("");
+                entry.setMessage(matcher.group(4));
+                if (!entry.getLevel().equalsIgnoreCase(level)) {
+                    continue;
+                }
+                String searchLower = search.toLowerCase();
+                if (entry.getMessage().toLowerCase().contains(searchLower)
+                        || entry.getLogger().toLowerCase().contains(searchLower)) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    @Benchmark
+    public List<LogEntry> parser() throws IOException {
+        LogFilter filter = LogFilter.of(level, search, null, null);
+        LogLineParser parser = new LogLineParser();
+        List<LogEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (parser.parse(line) && filter.matchesHeader(parser) && filter.matchesText(line, parser, List.of())) {
+                    entries.add(LogService.toLogEntry(parser, line, List.of()));
+                }
+            }
+        }
+        return entries;
+    }
+
+    @Benchmark
+    public LogFileIndex.Snapshot indexScan() throws IOException {
+        // Builds the block index from scratch, parsing header bytes without decoding them
+        Path indexFile = directory.resolve("benchmark.idx");
+        Files.deleteIfExists(indexFile);
+        return new LogFileIndex(logFile, indexFile).refresh();
+    }
+}
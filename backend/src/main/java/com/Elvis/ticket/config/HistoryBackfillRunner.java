@@ -0,0 +1,57 @@
+package com.Elvis.ticket.config;
+
+import com.Elvis.ticket.service.SessionService;
+import com.Elvis.ticket.service.TicketService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Moves conversation history stored in the legacy LONGTEXT columns into the
+ * append-only message tables on startup. Each record is migrated in its own
+ * transaction and its blob cleared afterwards, so the runner is safe to re-run
+ * and becomes a no-op once every row has been converted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.history.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class HistoryBackfillRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryBackfillRunner.class);
+
+    private final TicketService ticketService;
+    private final SessionService sessionService;
+
+    public HistoryBackfillRunner(TicketService ticketService, SessionService sessionService) {
+        this.ticketService = ticketService;
+        this.sessionService = sessionService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill("ticket", ticketService.getTicketIdsWithLegacyHistory(), ticketService::backfillLegacyHistory);
+        backfill("session", sessionService.getSessionIdsWithLegacyHistory(), sessionService::backfillLegacyHistory);
+    }
+
+    private void backfill(String kind, List<Long> ids, Consumer<Long> migrateOne) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        logger.info("Backfilling {} messages for {} records with legacy history", kind, ids.size());
+        int failed = 0;
+        for (Long id : ids) {
+            try {
+                migrateOne.accept(id);
+            } catch (RuntimeException e) {
+                failed++;
+                logger.error("Failed to backfill history for {} {}: {}", kind, id, e.getMessage());
+            }
+        }
+        logger.info("{} history backfill finished: {} migrated, {} failed", kind, ids.size() - failed, failed);
+    }
+}
@@ -0,0 +1,53 @@
+package com.Elvis.ticket.config;
+
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implements {@link RetryOnOptimisticLock}. Ordered ahead of the transaction
+ * interceptor so every attempt runs in a fresh transaction and reloads the
+ * entities it changes.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticLockRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticLockRetryAspect.class);
+
+    private static final long BACKOFF_MILLIS = 20;
+
+    @Around("@annotation(retry)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnOptimisticLock retry) throws Throwable {
+        // Inside an outer transaction the stale state cannot be reloaded here; let the caller handle it
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        int maxAttempts = Math.max(1, retry.maxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    logger.warn("{} still conflicting after {} attempts", joinPoint.getSignature().toShortString(), attempt);
+                    throw e;
+                }
+                logger.debug("Optimistic lock conflict in {}, retrying (attempt {} of {})",
+                        joinPoint.getSignature().toShortString(), attempt + 1, maxAttempts);
+                // Jittered backoff so the competing writers do not collide again immediately
+                Thread.sleep(ThreadLocalRandom.current().nextLong(BACKOFF_MILLIS * attempt, BACKOFF_MILLIS * attempt * 2));
+            }
+        }
+    }
+}
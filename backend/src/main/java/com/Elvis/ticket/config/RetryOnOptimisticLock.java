@@ -0,0 +1,17 @@
+package com.Elvis.ticket.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a transactional service method when it loses an optimistic lock race
+ * on a versioned entity. Only applies when the call starts the transaction;
+ * nested calls fail through to the outermost retrying method.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnOptimisticLock {
+    int maxAttempts() default 3;
+}
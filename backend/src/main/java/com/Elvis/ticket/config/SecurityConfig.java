@@ -1,6 +1,7 @@
 package com.Elvis.ticket.config;
 
 import com.Elvis.ticket.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -34,6 +35,8 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches (SSE completion) belong to a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
@@ -54,6 +57,7 @@ public class SecurityConfig {
                 // Ticket endpoints
                 .requestMatchers(HttpMethod.POST, "/api/tickets").hasAnyAuthority("ROLE_ADMIN", "ROLE_ENGINEER", "ROLE_MANAGER", "ROLE_CUSTOMER")
                 .requestMatchers(HttpMethod.GET, "/api/tickets").hasAnyAuthority("ROLE_ADMIN", "ROLE_ENGINEER", "ROLE_MANAGER", "ROLE_CUSTOMER")
+                .requestMatchers(HttpMethod.GET, "/api/tickets/search").hasAnyAuthority("ROLE_ADMIN", "ROLE_ENGINEER", "ROLE_MANAGER")
                 .requestMatchers("/api/tickets/{id}").hasAnyAuthority("ROLE_ADMIN", "ROLE_ENGINEER", "ROLE_MANAGER", "ROLE_CUSTOMER")
                 .requestMatchers("/api/tickets/customer/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_ENGINEER", "ROLE_MANAGER", "ROLE_CUSTOMER")
                 .requestMatchers("/api/tickets/urgency/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_ENGINEER", "ROLE_MANAGER")
@@ -63,6 +67,8 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST, "/api/tickets/*/attachments").hasAnyAuthority("ROLE_ADMIN", "ROLE_ENGINEER", "ROLE_MANAGER", "ROLE_CUSTOMER")
                 .requestMatchers(HttpMethod.GET, "/api/tickets/*/attachments").hasAnyAuthority("ROLE_ADMIN", "ROLE_ENGINEER", "ROLE_MANAGER", "ROLE_CUSTOMER")
                 .requestMatchers(HttpMethod.GET, "/api/tickets/*/attachments/*").hasAnyAuthority("ROLE_ADMIN", "ROLE_ENGINEER", "ROLE_MANAGER", "ROLE_CUSTOMER")
+                .requestMatchers(HttpMethod.GET, "/api/tickets/*/history").hasAnyAuthority("ROLE_ADMIN", "ROLE_ENGINEER", "ROLE_MANAGER", "ROLE_CUSTOMER")
+                .requestMatchers(HttpMethod.GET, "/api/tickets/*/stream").hasAnyAuthority("ROLE_ADMIN", "ROLE_ENGINEER", "ROLE_MANAGER", "ROLE_CUSTOMER")
                 .requestMatchers(HttpMethod.GET, "/api/tickets/manager/category").hasAnyAuthority("ROLE_ADMIN", "ROLE_MANAGER")
                 
                 // Customer management endpoints
@@ -91,6 +97,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/sessions/{id}/end").hasAnyAuthority("ROLE_ADMIN", "ROLE_MANAGER", "ROLE_CUSTOMER")
                 .requestMatchers("/api/sessions/{id}/activity").hasAnyAuthority("ROLE_ADMIN", "ROLE_MANAGER", "ROLE_ENGINEER", "ROLE_CUSTOMER")
                 .requestMatchers("/api/sessions/*/history").hasAnyAuthority("ROLE_ADMIN", "ROLE_MANAGER", "ROLE_ENGINEER", "ROLE_CUSTOMER")
+                .requestMatchers("/api/sessions/*/stream").hasAnyAuthority("ROLE_ADMIN", "ROLE_MANAGER", "ROLE_ENGINEER", "ROLE_CUSTOMER")
+                .requestMatchers(HttpMethod.POST, "/api/sessions/*/stream/notify").hasAnyAuthority("ROLE_ADMIN", "ROLE_MANAGER", "ROLE_CUSTOMER")
                 .requestMatchers("/api/sessions/list").hasAnyAuthority("ROLE_ADMIN", "ROLE_MANAGER", "ROLE_ENGINEER", "ROLE_CUSTOMER")
                 
                 // Product endpoints
@@ -0,0 +1,70 @@
+package com.Elvis.ticket.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Conditional GET for tickets and sessions. Their version column is incremented by every
+ * change, including each message added to the conversation, so an entity tag built from
+ * the id and version lets a polling client revalidate with a single primary key lookup.
+ * Names of related users and types are not covered by the version.
+ */
+final class ConditionalGet {
+
+    // Clients may keep a copy but must revalidate it before every use
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    static String etag(String resource, Long id, long version) {
+        return "\"" + resource + "-" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Tag of one page of a conversation. The page parameters are part of it, so the tag
+     * of one page never revalidates another.
+     */
+    static String historyEtag(String resource, Long id, long version, Long after, Long before, Integer limit) {
+        StringBuilder tag = new StringBuilder("\"").append(resource).append("-history-").append(id).append('-').append(version);
+        if (after != null) {
+            tag.append("-a").append(after);
+        }
+        if (before != null) {
+            tag.append("-b").append(before);
+        }
+        if (limit != null) {
+            tag.append("-l").append(limit);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Whether the If-None-Match header lists the tag. Uses the weak comparison the
+     * header calls for, so a tag weakened by a compressing proxy still matches.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    static <T> ResponseEntity<T> ok(String etag, T body) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body);
+    }
+}
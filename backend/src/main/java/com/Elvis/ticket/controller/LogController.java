@@ -1,15 +1,28 @@
 package com.Elvis.ticket.controller;
 
+import com.Elvis.ticket.dto.LogAggregationResponse;
+import com.Elvis.ticket.dto.LogPageResponse;
+import com.Elvis.ticket.dto.LogSearchEntry;
 import com.Elvis.ticket.model.LogEntry;
+import com.Elvis.ticket.service.LogSearchService;
 import com.Elvis.ticket.service.LogService;
+import com.Elvis.ticket.service.LogStreamService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,8 +32,19 @@ import java.util.Map;
 public class LogController {
     private static final Logger logger = LoggerFactory.getLogger(LogController.class);
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired
     private LogService logService;
+
+    @Autowired
+    private LogStreamService logStreamService;
+
+    @Autowired
+    private LogSearchService logSearchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
     
     @Value("${logging.file.path:log}")
     private String logDirectory;
@@ -38,16 +62,120 @@ public class LogController {
             @PathVariable String fileName,
             @RequestParam(required = false) String level,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
             @RequestParam(required = false) Integer limit) {
         
         logger.info("Received request to get log content from file: {}", fileName);
-        logger.info("Filters - level: {}, search: {}, limit: {}", level, search, limit);
+        logger.info("Filters - level: {}, search: {}, from: {}, to: {}, limit: {}", level, search, from, to, limit);
+        if (limit != null && limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
         
-        List<LogEntry> logs = logService.getLogContent(fileName, level, search, limit);
+        List<LogEntry> logs = logService.getLogContent(fileName, level, search, from, to, limit);
         logger.info("Returning {} log entries", logs.size());
         return ResponseEntity.ok(logs);
     }
     
+    @GetMapping("/file/{fileName}/page")
+    public ResponseEntity<LogPageResponse> getLogPage(
+            @PathVariable String fileName,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        if (!logService.getLogFiles().contains(fileName)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(logService.getLogPage(fileName, level, search, from, to, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Every matching entry of a file as newline-delimited JSON, newest first. Entries
+     * are written as they are read, so memory use does not grow with the file.
+     */
+    @GetMapping(value = "/file/{fileName}", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamLogContent(
+            @PathVariable String fileName,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        if (limit != null && limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!logService.getLogFiles().contains(fileName)) {
+            return ResponseEntity.notFound().build();
+        }
+        logger.info("Streaming log content of file: {}", fileName);
+        StreamingResponseBody body = out -> {
+            int[] written = {0};
+            try {
+                logService.forEachLogEntry(fileName, level, search, from, to, null, entry -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(entry));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return limit == null || ++written[0] < limit;
+                });
+            } catch (UncheckedIOException e) {
+                // The client went away
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<LogSearchEntry>> searchLogs(
+            @RequestParam(required = false) List<String> files,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("Searching log files {} - level: {}, search: {}, from: {}, to: {}, limit: {}",
+                files, level, search, from, to, limit);
+        if (limit != null && limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<LogSearchEntry> logs = logSearchService.search(files, level, search, from, to, limit);
+        return ResponseEntity.ok(logs);
+    }
+    
+    @GetMapping("/aggregate/{fileName}")
+    public ResponseEntity<LogAggregationResponse> aggregateLogs(
+            @PathVariable String fileName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "minute") String interval,
+            @RequestParam(defaultValue = "20") int topLoggers) {
+        logger.info("Aggregating log file {} per {} - from: {}, to: {}", fileName, interval, from, to);
+        try {
+            return ResponseEntity.ok(logService.aggregate(fileName, from, to, interval, topLoggers));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping(value = "/stream/{fileName}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLogs(
+            @PathVariable String fileName,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String search) {
+        logger.info("Opening log stream for file: {} (level: {}, search: {})", fileName, level, search);
+        return logStreamService.subscribe(fileName, level, search);
+    }
+    
     @GetMapping("/debug")
     public ResponseEntity<Map<String, Object>> getDebugInfo() {
         Map<String, Object> debug = new HashMap<>();
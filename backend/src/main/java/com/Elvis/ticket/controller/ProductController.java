@@ -3,9 +3,12 @@ package com.Elvis.ticket.controller;
 import com.Elvis.ticket.model.Product;
 import com.Elvis.ticket.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -14,14 +17,20 @@ public class ProductController {
 
     private final ProductService productService;
 
+    @Value("${app.catalog.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
     @Autowired
     public ProductController(ProductService productService) {
         this.productService = productService;
     }
 
+    // The catalog rarely changes, so browsers may reuse the list for a while without asking again
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<List<Product>> getAllProducts() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePrivate())
+                .body(productService.getAllProducts());
     }
 
     @GetMapping("/{id}")
@@ -1,66 +1,65 @@
 package com.Elvis.ticket.controller;
 
+import com.Elvis.ticket.dto.SessionAccess;
 import com.Elvis.ticket.dto.SessionResponse;
 import com.Elvis.ticket.dto.SessionHistoryResponse;
 import com.Elvis.ticket.dto.SessionListResponse;
+import com.Elvis.ticket.dto.TicketAccess;
 import com.Elvis.ticket.model.Session;
+import com.Elvis.ticket.model.SessionMessage;
+import com.Elvis.ticket.service.MessageStreamService;
 import com.Elvis.ticket.service.SessionService;
-import com.Elvis.ticket.service.UserService;
 import com.Elvis.ticket.service.TicketService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.springframework.security.core.Authentication;
+import com.Elvis.ticket.security.AuthenticatedUser;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import com.Elvis.ticket.model.User;
-import com.Elvis.ticket.model.Ticket;
 
 import java.util.Map;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/sessions")
 public class SessionController {
     private final SessionService sessionService;
-    private final UserService userService;
     private final TicketService ticketService;
+    private final MessageStreamService messageStreamService;
     private static final Logger logger = LoggerFactory.getLogger(SessionController.class);
 
     @Autowired
-    public SessionController(SessionService sessionService, UserService userService, TicketService ticketService) {
+    public SessionController(SessionService sessionService, TicketService ticketService,
+                             MessageStreamService messageStreamService) {
         this.sessionService = sessionService;
-        this.userService = userService;
         this.ticketService = ticketService;
+        this.messageStreamService = messageStreamService;
     }
 
     @GetMapping("/list")
-    public ResponseEntity<List<SessionListResponse>> getSessionList(Authentication authentication) {
+    public ResponseEntity<List<SessionListResponse>> getSessionList(@AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = authentication.getName();
-            User user = userService.getUserByEmail(email).orElse(null);
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
-            List<Session> sessions;
-            if ("ADMIN".equals(user.getRole()) || "MANAGER".equals(user.getRole())) {
-                sessions = sessionService.getAllSessions();
+            List<SessionListResponse> sessionList;
+            if (user.isAdminOrManager()) {
+                sessionList = sessionService.getSessionListItems();
             } else {
-                sessions = sessionService.getSessionsByUserId(user.getId());
+                sessionList = sessionService.getSessionListItemsByUserId(user.userId());
             }
 
-            // SessionListResponse now includes ticketSession
-            List<SessionListResponse> sessionList = sessions.stream()
-                .map(SessionListResponse::fromSession)
-                .collect(Collectors.toList());
-
             return ResponseEntity.ok(sessionList);
         } catch (Exception e) {
             logger.error("Error getting session list", e);
@@ -76,10 +75,21 @@ public class SessionController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<SessionResponse> getSessionById(@PathVariable Long id) {
+    public ResponseEntity<SessionResponse> getSessionById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Revalidate against the version alone before loading the session
+        Long version = sessionService.getSessionVersion(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = ConditionalGet.etag("session", id, version);
+        if (ConditionalGet.matches(ifNoneMatch, etag)) {
+            return ConditionalGet.notModified(etag);
+        }
         return sessionService.getSessionById(id)
-                .map(SessionResponse::fromSession)
-                .map(ResponseEntity::ok)
+                .map(session -> ConditionalGet.ok(ConditionalGet.etag("session", id, session.getVersion()),
+                        SessionResponse.fromSession(session)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -99,12 +109,13 @@ public class SessionController {
     }
 
     @PostMapping
-    public ResponseEntity<SessionResponse> createSession(Authentication authentication, @RequestBody(required = false) Session sessionRequest) {
-        String email = authentication.getName();
-        User user = userService.getUserByEmail(email).orElse(null);
-        if (user == null || !"CUSTOMER".equals(user.getRole())) {
+    public ResponseEntity<SessionResponse> createSession(@AuthenticationPrincipal AuthenticatedUser principal, @RequestBody(required = false) Session sessionRequest) {
+        if (principal == null || !principal.isCustomer()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
+        // The service loads the user when it creates the session
+        User user = new User();
+        user.setId(principal.userId());
         Session session = new Session();
         session.setUser(user);
         if (sessionRequest != null && sessionRequest.getTitle() != null) {
@@ -122,7 +133,7 @@ public class SessionController {
     @PutMapping("/{id}")
     public ResponseEntity<SessionResponse> updateSession(@PathVariable Long id, @RequestBody Session session) {
         try {
-            Session updatedSession = sessionService.updateSession(session);
+            Session updatedSession = sessionService.updateSession(id, session);
             return ResponseEntity.ok(SessionResponse.fromSession(updatedSession));
         } catch (RuntimeException e) {
             logger.error("Error updating session", e);
@@ -137,10 +148,8 @@ public class SessionController {
     }
 
     @PutMapping("/{id}/end")
-    public ResponseEntity<SessionResponse> endSession(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<SessionResponse> endSession(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = authentication.getName();
-            User user = userService.getUserByEmail(email).orElse(null);
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -149,9 +158,7 @@ public class SessionController {
                 return ResponseEntity.notFound().build();
             }
             // Allow if admin/manager or session owner
-            boolean isAdminOrManager = "ADMIN".equals(user.getRole()) || "MANAGER".equals(user.getRole());
-            boolean isSessionOwner = session.getUser().getId().equals(user.getId());
-            if (!isAdminOrManager && !isSessionOwner) {
+            if (!user.isAdminOrManager() && !isSessionOwner(user, session)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             Session endedSession = sessionService.endSession(id);
@@ -176,57 +183,111 @@ public class SessionController {
     }
 
     @GetMapping("/{id}/history")
-    public ResponseEntity<SessionHistoryResponse> getSessionHistory(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<SessionHistoryResponse> getSessionHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = authentication.getName();
-            User user = userService.getUserByEmail(email).orElse(null);
             if (user == null) {
-                logger.error("User not found for email: {}", email);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
-            Session session = sessionService.getSessionById(id).orElse(null);
+            // Check access and revalidate against the version alone before loading any messages
+            SessionAccess session = sessionService.getSessionAccess(id).orElse(null);
             if (session == null) {
                 logger.error("Session not found for ID: {}", id);
                 return ResponseEntity.notFound().build();
             }
             
-            boolean isAdminOrManager = "ADMIN".equals(user.getRole()) || "MANAGER".equals(user.getRole());
-            boolean isSessionOwner = session.getUser().getId().equals(user.getId());
-            boolean isAssignedEngineer = false;
-            if ("ENGINEER".equals(user.getRole())) {
-                isAssignedEngineer = ticketService.isEngineerAssignedToSession(user.getId(), id);
-            }
-            if (!isAdminOrManager && !isSessionOwner && !isAssignedEngineer) {
-                logger.error("User {} not authorized to access session {}", email, id);
+            if (!canViewConversation(user, session)) {
+                logger.error("User {} not authorized to access session {}", user.email(), id);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
-            try {
-                logger.info("Getting history for session {}: {}", id, session.getHistory());
-                SessionHistoryResponse response = SessionHistoryResponse.fromSession(session);
-                logger.info("Parsed history response: {}", response);
-                return ResponseEntity.ok(response);
-            } catch (Exception e) {
-                logger.error("Error parsing session history for session {}: {}", id, e.getMessage(), e);
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            String etag = ConditionalGet.historyEtag("session", id, session.getVersion(), after, before, limit);
+            if (ConditionalGet.matches(ifNoneMatch, etag)) {
+                return ConditionalGet.notModified(etag);
             }
+            return ConditionalGet.ok(etag, sessionService.getSessionHistory(id, after, before, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             logger.error("Error getting session history for session {}: {}", id, e.getMessage(), e);
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Server-Sent Events stream of the messages added to the session, as "message" events
+     * with the sequence as event id. With {@code after}, the messages following that
+     * sequence (up to one history page) are sent first.
+     */
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSessionMessages(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        SessionAccess session = sessionService.getSessionAccess(id).orElse(null);
+        if (session == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!canViewConversation(user, session)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(messageStreamService.subscribeToSession(id, () -> after == null
+                ? List.of()
+                : sessionService.getSessionHistory(id, after, null, Integer.MAX_VALUE).getMessages()));
+    }
+
+    private boolean canViewConversation(AuthenticatedUser user, SessionAccess session) {
+        if (user.isAdminOrManager() || session.getUserId().equals(user.userId())) {
+            return true;
+        }
+        return user.isEngineer() && user.engineerId() != null
+                && ticketService.isEngineerAssignedToSession(user.engineerId(), session.getId());
+    }
+
+    private static boolean isSessionOwner(AuthenticatedUser user, Session session) {
+        return session.getUser().getId().equals(user.userId());
+    }
+
+    /**
+     * Pushes the messages following sequence {@code after} to the session's streams. Called
+     * by the chat backend once it has committed a question and its answer, which it stores
+     * without going through this service.
+     */
+    @PostMapping("/{id}/stream/notify")
+    public ResponseEntity<Void> notifySessionStream(
+            @PathVariable Long id,
+            @RequestParam long after,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Session session = sessionService.getSessionById(id).orElse(null);
+        if (session == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!user.isAdminOrManager() && !isSessionOwner(user, session)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        sessionService.publishStoredMessages(session, after);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/{id}/message")
     public ResponseEntity<SessionResponse> addMessage(
             @PathVariable Long id,
             @RequestBody Map<String, String> message,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = authentication.getName();
-            User user = userService.getUserByEmail(email).orElse(null);
             if (user == null) {
-                logger.error("User not found for email: {}", email);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
@@ -237,10 +298,8 @@ public class SessionController {
             }
             
             // Allow if admin/manager or session owner
-            boolean isAdminOrManager = "ADMIN".equals(user.getRole()) || "MANAGER".equals(user.getRole());
-            boolean isSessionOwner = session.getUser().getId().equals(user.getId());
-            if (!isAdminOrManager && !isSessionOwner) {
-                logger.error("User {} not authorized to access session {}", email, id);
+            if (!user.isAdminOrManager() && !isSessionOwner(user, session)) {
+                logger.error("User {} not authorized to access session {}", user.email(), id);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
@@ -250,8 +309,9 @@ public class SessionController {
                 return ResponseEntity.badRequest().build();
             }
             
-            Session updatedSession = sessionService.addMessageToHistory(id, role, content);
-            return ResponseEntity.ok(SessionResponse.fromSession(updatedSession));
+            SessionMessage added = sessionService.addMessageToHistory(id, role, content);
+            session.setLastActivity(added.getCreatedAt());
+            return ResponseEntity.ok(SessionResponse.fromSession(session));
         } catch (RuntimeException e) {
             logger.error("Error adding message to session {}: {}", id, e.getMessage(), e);
             return ResponseEntity.notFound().build();
@@ -262,9 +322,7 @@ public class SessionController {
     public ResponseEntity<SessionResponse> updateSessionTitle(
             @PathVariable Long id,
             @RequestBody Map<String, String> body,
-            Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.getUserByEmail(email).orElse(null);
+            @AuthenticationPrincipal AuthenticatedUser user) {
         if (user == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
@@ -273,9 +331,7 @@ public class SessionController {
             return ResponseEntity.notFound().build();
         }
         // Allow if admin/manager or session owner
-        boolean isAdminOrManager = "ADMIN".equals(user.getRole()) || "MANAGER".equals(user.getRole());
-        boolean isSessionOwner = session.getUser().getId().equals(user.getId());
-        if (!isAdminOrManager && !isSessionOwner) {
+        if (!user.isAdminOrManager() && !isSessionOwner(user, session)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         String newTitle = body.get("title");
@@ -290,47 +346,43 @@ public class SessionController {
     public ResponseEntity<SessionHistoryResponse> getSessionHistoryForTicket(
         @PathVariable Long sessionId,
         @PathVariable Long ticketId,
-        Authentication authentication) {
+        @RequestParam(required = false) Long after,
+        @RequestParam(required = false) Long before,
+        @RequestParam(required = false) Integer limit,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = authentication.getName();
-            User user = userService.getUserByEmail(email).orElse(null);
             if (user == null) {
-                logger.error("User not found for email: {}", email);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
-            Session session = sessionService.getSessionById(sessionId).orElse(null);
+            // Check access and revalidate against the version alone before loading any messages
+            SessionAccess session = sessionService.getSessionAccess(sessionId).orElse(null);
             if (session == null) {
                 logger.error("Session not found for ID: {}", sessionId);
                 return ResponseEntity.notFound().build();
             }
 
-            boolean isAdminOrManager = "ADMIN".equals(user.getRole()) || "MANAGER".equals(user.getRole());
-            boolean isSessionOwner = session.getUser().getId().equals(user.getId());
             boolean isAssignedEngineer = false;
-            if ("ENGINEER".equals(user.getRole())) {
-                Optional<Ticket> ticketOpt = ticketService.getTicketById(ticketId);
-                if (ticketOpt.isPresent()) {
-                    Ticket ticket = ticketOpt.get();
-                    isAssignedEngineer = ticket.getEngineer() != null
-                        && ticket.getEngineer().getUser().getId().equals(user.getId())
-                        && ticket.getSession().getId().equals(sessionId);
-                }
+            if (user.isEngineer()) {
+                TicketAccess ticket = ticketService.getTicketAccess(ticketId).orElse(null);
+                isAssignedEngineer = ticket != null
+                    && ticket.getEngineerId() != null
+                    && ticket.getEngineerId().equals(user.engineerId())
+                    && sessionId.equals(ticket.getSessionId());
             }
-            if (!isAdminOrManager && !isSessionOwner && !isAssignedEngineer) {
-                logger.error("User {} not authorized to access session {} for ticket {}", email, sessionId, ticketId);
+            if (!user.isAdminOrManager() && !session.getUserId().equals(user.userId()) && !isAssignedEngineer) {
+                logger.error("User {} not authorized to access session {} for ticket {}", user.email(), sessionId, ticketId);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
-            try {
-                logger.info("Getting history for session {}: {}", sessionId, session.getHistory());
-                SessionHistoryResponse response = SessionHistoryResponse.fromSession(session);
-                logger.info("Parsed history response: {}", response);
-                return ResponseEntity.ok(response);
-            } catch (Exception e) {
-                logger.error("Error parsing session history for session {}: {}", sessionId, e.getMessage(), e);
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            String etag = ConditionalGet.historyEtag("session", sessionId, session.getVersion(), after, before, limit);
+            if (ConditionalGet.matches(ifNoneMatch, etag)) {
+                return ConditionalGet.notModified(etag);
             }
+            return ConditionalGet.ok(etag, sessionService.getSessionHistory(sessionId, after, before, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             logger.error("Error getting session history for session {}: {}", sessionId, e.getMessage(), e);
             return ResponseEntity.notFound().build();
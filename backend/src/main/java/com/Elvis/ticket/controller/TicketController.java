@@ -1,92 +1,104 @@
 package com.Elvis.ticket.controller;
 
+import com.Elvis.ticket.dto.TicketAccess;
+import com.Elvis.ticket.dto.TicketHistoryResponse;
 import com.Elvis.ticket.dto.TicketResponse;
+import com.Elvis.ticket.dto.TicketSearchCriteria;
+import com.Elvis.ticket.dto.TicketSummaryResponse;
 import com.Elvis.ticket.model.*;
+import com.Elvis.ticket.service.MessageStreamService;
 import com.Elvis.ticket.service.TicketService;
-import com.Elvis.ticket.service.UserService;
-import com.Elvis.ticket.repository.CustomerRepository;
 import com.Elvis.ticket.repository.ManagerRepository;
+import com.Elvis.ticket.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/tickets")
 public class TicketController {
 
     private final TicketService ticketService;
-    private final UserService userService;
-    private final CustomerRepository customerRepository;
     private final ManagerRepository managerRepository;
+    private final MessageStreamService messageStreamService;
 
     @Autowired
-    public TicketController(TicketService ticketService, UserService userService, CustomerRepository customerRepository, ManagerRepository managerRepository) {
+    public TicketController(TicketService ticketService, ManagerRepository managerRepository,
+                            MessageStreamService messageStreamService) {
         this.ticketService = ticketService;
-        this.userService = userService;
-        this.customerRepository = customerRepository;
         this.managerRepository = managerRepository;
+        this.messageStreamService = messageStreamService;
     }
 
     @GetMapping
-    public List<TicketResponse> getAllTickets(Authentication authentication) {
-        String role = authentication.getAuthorities().iterator().next().getAuthority();
-        String username = authentication.getName();
-        if (role.equals("ROLE_ADMIN") || role.equals("ROLE_MANAGER")) {
-            return ticketService.getAllTickets().stream()
-                    .map(TicketResponse::fromTicket)
-                    .collect(Collectors.toList());
-        } else if (role.equals("ROLE_CUSTOMER")) {
-            Long customerId = userService.getUserByEmail(username).get().getId();
-            return ticketService.getTicketsByCustomerId(customerId).stream()
-                    .map(TicketResponse::fromTicket)
-                    .collect(Collectors.toList());
-        } else if (role.equals("ROLE_ENGINEER")) {
-            Long engineerId = userService.getUserByEmail(username).get().getId();
-            return ticketService.getTicketsByEngineerId(engineerId).stream()
-                    .map(TicketResponse::fromTicket)
-                    .collect(Collectors.toList());
+    public Page<TicketSummaryResponse> getAllTickets(@AuthenticationPrincipal AuthenticatedUser user, Pageable pageable) {
+        if (user == null) {
+            return Page.empty(pageable);
         }
-        return List.of();
+        if (user.isAdminOrManager()) {
+            return ticketService.getAllTickets(pageable);
+        } else if (user.isCustomer() && user.customerId() != null) {
+            return ticketService.getTicketsByCustomerId(user.customerId(), pageable);
+        } else if (user.isEngineer() && user.engineerId() != null) {
+            return ticketService.getTicketsByEngineerId(user.engineerId(), pageable);
+        }
+        return Page.empty(pageable);
+    }
+
+    @GetMapping("/search")
+    public Page<TicketSummaryResponse> searchTickets(TicketSearchCriteria criteria, Pageable pageable) {
+        return ticketService.searchTickets(criteria, pageable);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TicketResponse> getTicketById(@PathVariable Long id) {
+    public ResponseEntity<TicketResponse> getTicketById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Revalidate against the version alone before loading the ticket and its conversation
+        Long version = ticketService.getTicketVersion(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = ConditionalGet.etag("ticket", id, version);
+        if (ConditionalGet.matches(ifNoneMatch, etag)) {
+            return ConditionalGet.notModified(etag);
+        }
         return ticketService.getTicketById(id)
-                .map(TicketResponse::fromTicket)
-                .map(ResponseEntity::ok)
+                .map(ticket -> ConditionalGet.ok(ConditionalGet.etag("ticket", id, ticket.getVersion()), toResponse(ticket)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public TicketResponse createTicket(@RequestBody Ticket ticket) {
-        return TicketResponse.fromTicket(ticketService.createTicket(ticket));
+        return toResponse(ticketService.createTicket(ticket));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<TicketResponse> updateTicket(@PathVariable Long id, @RequestBody Ticket ticket) {
         try {
             Ticket updatedTicket = ticketService.updateTicket(id, ticket);
-            return ResponseEntity.ok(TicketResponse.fromTicket(updatedTicket));
+            return ResponseEntity.ok(toResponse(updatedTicket));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTicket(@PathVariable Long id, Authentication authentication) {
-        String role = authentication.getAuthorities().iterator().next().getAuthority();
-        if (role.equals("ROLE_ADMIN") || role.equals("ROLE_MANAGER")) {
+    public ResponseEntity<Void> deleteTicket(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user != null && user.isAdminOrManager()) {
             ticketService.deleteTicket(id);
             return ResponseEntity.ok().build();
         }
@@ -94,45 +106,35 @@ public class TicketController {
     }
 
     @GetMapping("/customer/{customerId}")
-    public List<TicketResponse> getTicketsByCustomerId(@PathVariable Long customerId) {
-        return ticketService.getTicketsByCustomerId(customerId).stream()
-                .map(TicketResponse::fromTicket)
-                .collect(Collectors.toList());
+    public Page<TicketSummaryResponse> getTicketsByCustomerId(@PathVariable Long customerId, Pageable pageable) {
+        return ticketService.getTicketsByCustomerId(customerId, pageable);
     }
 
     @GetMapping("/engineer/{engineerId}")
-    public List<TicketResponse> getTicketsByEngineerId(@PathVariable Long engineerId) {
-        return ticketService.getTicketsByEngineerId(engineerId).stream()
-                .map(TicketResponse::fromTicket)
-                .collect(Collectors.toList());
+    public Page<TicketSummaryResponse> getTicketsByEngineerId(@PathVariable Long engineerId, Pageable pageable) {
+        return ticketService.getTicketsByEngineerId(engineerId, pageable);
     }
 
     @GetMapping("/status/{status}")
-    public List<TicketResponse> getTicketsByStatus(@PathVariable TicketStatus status) {
-        return ticketService.getTicketsByStatus(status).stream()
-                .map(TicketResponse::fromTicket)
-                .collect(Collectors.toList());
+    public Page<TicketSummaryResponse> getTicketsByStatus(@PathVariable TicketStatus status, Pageable pageable) {
+        return ticketService.getTicketsByStatus(status, pageable);
     }
 
     @GetMapping("/urgency/{urgency}")
-    public List<TicketResponse> getTicketsByUrgency(@PathVariable CustomerRole urgency) {
-        return ticketService.getTicketsByUrgency(urgency).stream()
-                .map(TicketResponse::fromTicket)
-                .collect(Collectors.toList());
+    public Page<TicketSummaryResponse> getTicketsByUrgency(@PathVariable CustomerRole urgency, Pageable pageable) {
+        return ticketService.getTicketsByUrgency(urgency, pageable);
     }
 
     @GetMapping("/type/{typeId}")
-    public List<TicketResponse> getTicketsByType(@PathVariable Long typeId) {
-        return ticketService.getTicketsByType(typeId).stream()
-                .map(TicketResponse::fromTicket)
-                .collect(Collectors.toList());
+    public Page<TicketSummaryResponse> getTicketsByType(@PathVariable Long typeId, Pageable pageable) {
+        return ticketService.getTicketsByType(typeId, pageable);
     }
 
     @PutMapping("/{id}/status")
     public ResponseEntity<TicketResponse> updateTicketStatus(@PathVariable Long id, @RequestBody TicketStatus status) {
         try {
             Ticket updatedTicket = ticketService.updateTicketStatus(id, status);
-            return ResponseEntity.ok(TicketResponse.fromTicket(updatedTicket));
+            return ResponseEntity.ok(toResponse(updatedTicket));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -142,7 +144,7 @@ public class TicketController {
     public ResponseEntity<TicketResponse> updateTicketUrgency(@PathVariable Long id, @RequestBody String urgency) {
         try {
             Ticket updatedTicket = ticketService.updateTicketUrgency(id, urgency);
-            return ResponseEntity.ok(TicketResponse.fromTicket(updatedTicket));
+            return ResponseEntity.ok(toResponse(updatedTicket));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -152,7 +154,7 @@ public class TicketController {
     public ResponseEntity<TicketResponse> assignEngineer(@PathVariable Long id, @RequestBody Long engineerId) {
         try {
             Ticket updatedTicket = ticketService.assignTicket(id, engineerId);
-            return ResponseEntity.ok(TicketResponse.fromTicket(updatedTicket));
+            return ResponseEntity.ok(toResponse(updatedTicket));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -162,32 +164,18 @@ public class TicketController {
     public ResponseEntity<TicketResponse> escalateTicket(@PathVariable Long id) {
         try {
             Ticket escalatedTicket = ticketService.escalateTicket(id);
-            return ResponseEntity.ok(TicketResponse.fromTicket(escalatedTicket));
+            return ResponseEntity.ok(toResponse(escalatedTicket));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/own")
-    public List<TicketResponse> getOwnTickets(Authentication authentication) {
-        String role = authentication.getAuthorities().iterator().next().getAuthority();
-        String username;
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof UserDetails) {
-            username = ((UserDetails) principal).getUsername();
-        } else {
-            username = principal.toString();
-        }
-        if (role.equals("ROLE_CUSTOMER")) {
-            Long customerId = customerRepository.findByEmail(username).getId();
-            return ticketService.getTicketsByCustomerId(customerId).stream()
-                    .map(TicketResponse::fromTicket)
-                    .collect(Collectors.toList());
-        } else if (role.equals("ROLE_ENGINEER")) {
-            Long engineerId = userService.getUserByEmail(username).get().getId();
-            return ticketService.getTicketsByEngineerId(engineerId).stream()
-                    .map(TicketResponse::fromTicket)
-                    .collect(Collectors.toList());
+    public Page<TicketSummaryResponse> getOwnTickets(@AuthenticationPrincipal AuthenticatedUser user, Pageable pageable) {
+        if (user != null && user.isCustomer() && user.customerId() != null) {
+            return ticketService.getTicketsByCustomerId(user.customerId(), pageable);
+        } else if (user != null && user.isEngineer() && user.engineerId() != null) {
+            return ticketService.getTicketsByEngineerId(user.engineerId(), pageable);
         }
         throw new org.springframework.web.server.ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
     }
@@ -196,10 +184,8 @@ public class TicketController {
     public ResponseEntity<TicketResponse> addMessageToTicketHistory(
             @PathVariable Long id,
             @RequestBody(required = true) java.util.Map<String, String> message,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = authentication.getName();
-            User user = userService.getUserByEmail(email).orElse(null);
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -207,10 +193,9 @@ public class TicketController {
             if (ticket == null) {
                 return ResponseEntity.notFound().build();
             }
-            boolean isAdminOrManager = "ADMIN".equals(user.getRole()) || "MANAGER".equals(user.getRole());
-            boolean isTicketOwner = ticket.getCustomer() != null && ticket.getCustomer().getUser().getId().equals(user.getId());
-            boolean isAssignedEngineer = ticket.getEngineer() != null && ticket.getEngineer().getUser().getId().equals(user.getId());
-            if (!isAdminOrManager && !isTicketOwner && !isAssignedEngineer) {
+            boolean isAdminOrManager = user.isAdminOrManager();
+            boolean isAssignedEngineer = isAssignedEngineer(user, ticket);
+            if (!isAdminOrManager && !isTicketOwner(user, ticket) && !isAssignedEngineer) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             String content = message.get("content");
@@ -218,14 +203,79 @@ public class TicketController {
                 return ResponseEntity.badRequest().build();
             }
             // Determine message role
-            String msgRole = isAdminOrManager ? user.getRole().toLowerCase() : (isAssignedEngineer ? "engineer" : "customer");
-            Ticket updatedTicket = ticketService.appendMessageToHistory(id, user, content, msgRole);
-            return ResponseEntity.ok(TicketResponse.fromTicket(updatedTicket));
+            String msgRole = isAdminOrManager ? user.role().toLowerCase() : (isAssignedEngineer ? "engineer" : "customer");
+            Ticket updatedTicket = ticketService.appendMessageToHistory(id, content, msgRole);
+            return ResponseEntity.ok(toResponse(updatedTicket));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<TicketHistoryResponse> getTicketHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        // Check access and revalidate against the version alone before loading any messages
+        TicketAccess ticket = ticketService.getTicketAccess(id).orElse(null);
+        if (ticket == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!canViewConversation(user, ticket)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        String etag = ConditionalGet.historyEtag("ticket", id, ticket.getVersion(), after, before, limit);
+        if (ConditionalGet.matches(ifNoneMatch, etag)) {
+            return ConditionalGet.notModified(etag);
+        }
+        return ConditionalGet.ok(etag, ticketService.getTicketHistory(id, after, before, limit));
+    }
+
+    /**
+     * Server-Sent Events stream of the messages added to the ticket, as "message" events
+     * with the sequence as event id. With {@code after}, the messages following that
+     * sequence (up to one history page) are sent first.
+     */
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTicketMessages(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        TicketAccess ticket = ticketService.getTicketAccess(id).orElse(null);
+        if (ticket == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!canViewConversation(user, ticket)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(messageStreamService.subscribeToTicket(id, () -> after == null
+                ? List.of()
+                : ticketService.getTicketHistory(id, after, null, Integer.MAX_VALUE).getMessages()));
+    }
+
+    private static boolean canViewConversation(AuthenticatedUser user, TicketAccess ticket) {
+        return user.isAdminOrManager() || ticket.getCustomerId().equals(user.customerId())
+                || (ticket.getEngineerId() != null && ticket.getEngineerId().equals(user.engineerId()));
+    }
+
+    // Compared by profile id, which the ticket holds without loading the customer or engineer
+    private static boolean isTicketOwner(AuthenticatedUser user, Ticket ticket) {
+        return ticket.getCustomer() != null && ticket.getCustomer().getId().equals(user.customerId());
+    }
+
+    private static boolean isAssignedEngineer(AuthenticatedUser user, Ticket ticket) {
+        return ticket.getEngineer() != null && ticket.getEngineer().getId().equals(user.engineerId());
+    }
+
     // --- Attachment endpoints ---
     @PostMapping("/{ticketId}/attachments")
     public ResponseEntity<TicketAttachment> uploadAttachment(@PathVariable Long ticketId, @RequestParam("file") MultipartFile file) {
@@ -261,10 +311,11 @@ public class TicketController {
     }
 
     @GetMapping("/manager/category")
-    public List<TicketResponse> getTicketsByManagerCategory(Authentication authentication) {
+    public Page<TicketSummaryResponse> getTicketsByManagerCategory(@AuthenticationPrincipal AuthenticatedUser user,
+                                                                   TicketSearchCriteria criteria, Pageable pageable) {
         try {
-            String email = authentication.getName();
-            com.Elvis.ticket.model.Manager manager = managerRepository.findByEmail(email);
+            com.Elvis.ticket.model.Manager manager = user != null && user.managerId() != null
+                    ? managerRepository.findById(user.managerId()).orElse(null) : null;
             if (manager == null) {
                 throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.FORBIDDEN, 
@@ -278,10 +329,10 @@ public class TicketController {
                     "Manager has no assigned category"
                 );
             }
-            return ticketService.getTicketsByCategory(category).stream()
-                    .map(TicketResponse::fromTicket)
-                    .collect(java.util.stream.Collectors.toList());
-        } catch (org.springframework.web.server.ResponseStatusException e) {
+            // The other search filters narrow the list, the category is always the manager's
+            criteria.setCategory(category);
+            return ticketService.searchTickets(criteria, pageable);
+        } catch (org.springframework.web.server.ResponseStatusException | IllegalArgumentException e) {
             throw e;
         } catch (Exception e) {
             throw new org.springframework.web.server.ResponseStatusException(
@@ -292,11 +343,18 @@ public class TicketController {
     }
 
     @GetMapping("/category/{category}")
-    public List<TicketResponse> getTicketsByCategory(@PathVariable String category) {
+    public Page<TicketSummaryResponse> getTicketsByCategory(@PathVariable String category, Pageable pageable) {
         TeslaModel model = TeslaModel.valueOf(category);
-        return ticketService.getTicketsByCategory(model).stream()
-                .map(TicketResponse::fromTicket)
-                .collect(Collectors.toList());
+        return ticketService.getTicketsByCategory(model, pageable);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private TicketResponse toResponse(Ticket ticket) {
+        return TicketResponse.fromTicket(ticket, ticketService.getTicketMessages(ticket.getId()));
     }
 
     @PutMapping("/{id}/servility")
@@ -304,7 +362,7 @@ public class TicketController {
         try {
             com.Elvis.ticket.model.ServilityLevel servLevel = com.Elvis.ticket.model.ServilityLevel.valueOf(level.trim().toUpperCase());
             Ticket updatedTicket = ticketService.updateTicketServility(id, servLevel);
-            return ResponseEntity.ok(TicketResponse.fromTicket(updatedTicket));
+            return ResponseEntity.ok(toResponse(updatedTicket));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
@@ -3,9 +3,12 @@ package com.Elvis.ticket.controller;
 import com.Elvis.ticket.model.TicketType;
 import com.Elvis.ticket.service.TicketTypeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -14,14 +17,20 @@ public class TicketTypeController {
 
     private final TicketTypeService ticketTypeService;
 
+    @Value("${app.catalog.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
     @Autowired
     public TicketTypeController(TicketTypeService ticketTypeService) {
         this.ticketTypeService = ticketTypeService;
     }
 
+    // The catalog rarely changes, so browsers may reuse the list for a while without asking again
     @GetMapping
-    public List<TicketType> getAllTicketTypes() {
-        return ticketTypeService.getAllTicketTypes();
+    public ResponseEntity<List<TicketType>> getAllTicketTypes() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePrivate())
+                .body(ticketTypeService.getAllTicketTypes());
     }
 
     @GetMapping("/{id}")
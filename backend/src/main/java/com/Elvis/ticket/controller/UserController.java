@@ -3,12 +3,13 @@ package com.Elvis.ticket.controller;
 import com.Elvis.ticket.dto.UserResponse;
 import com.Elvis.ticket.dto.PasswordChangeRequest;
 import com.Elvis.ticket.model.User;
+import com.Elvis.ticket.security.AuthenticatedUser;
 import com.Elvis.ticket.service.UserService;
-import com.Elvis.ticket.repository.CustomerRepository;
 import com.Elvis.ticket.repository.EngineerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,9 +23,6 @@ public class UserController {
     @Autowired
     private UserService userService;
 
-    @Autowired
-    private CustomerRepository customerRepository;
-
     @Autowired
     private EngineerRepository engineerRepository;
 
@@ -43,24 +41,19 @@ public class UserController {
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<UserResponse> getCurrentUserProfile() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userService.getUserByEmail(email)
+    public ResponseEntity<UserResponse> getCurrentUserProfile(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return userService.getUserById(principal.userId())
                 .map(user -> {
                     UserResponse response = UserResponse.fromUser(user);
-                    if ("CUSTOMER".equals(user.getRole())) {
-                        com.Elvis.ticket.model.Customer customer = customerRepository.findByEmail(email);
-                        if (customer != null) {
-                            response.setCustomerId(customer.getId());
-                        }
-                    }
-                    if ("ENGINEER".equals(user.getRole())) {
-                        com.Elvis.ticket.model.Engineer engineer = engineerRepository.findByEmail(email);
-                        if (engineer != null) {
+                    response.setCustomerId(principal.customerId());
+                    if (principal.engineerId() != null) {
+                        engineerRepository.findById(principal.engineerId()).ifPresent(engineer -> {
                             response.setEngineerId(engineer.getId());
                             response.setEngineerLevel(engineer.getLevel());
-                        }
+                        });
                     }
                     return ResponseEntity.ok(response);
                 })
@@ -0,0 +1,14 @@
+package com.Elvis.ticket.dto;
+
+import com.Elvis.ticket.model.TeslaModel;
+
+/**
+ * Projection of the engineer columns that drive ticket assignment.
+ */
+public interface EngineerCapacity {
+    Long getId();
+    TeslaModel getCategory();
+    int getLevel();
+    int getCurrentTickets();
+    int getMaxTickets();
+}
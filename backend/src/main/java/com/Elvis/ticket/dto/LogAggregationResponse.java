@@ -0,0 +1,38 @@
+package com.Elvis.ticket.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry counts of one log file over a time window. Counts are keyed by level
+ * name and always list every level, including those that did not occur.
+ */
+@Data
+public class LogAggregationResponse {
+    private String file;
+    private String interval;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long total;
+    private Map<String, Long> counts;
+    // Only intervals that contain entries, oldest first
+    private List<Bucket> buckets;
+    // Loggers with the most entries first
+    private List<LoggerCounts> loggers;
+
+    @Data
+    public static class Bucket {
+        private LocalDateTime start;
+        private Map<String, Long> counts;
+    }
+
+    @Data
+    public static class LoggerCounts {
+        private String logger;
+        private long total;
+        private Map<String, Long> counts;
+    }
+}
@@ -0,0 +1,13 @@
+package com.Elvis.ticket.dto;
+
+import com.Elvis.ticket.model.LogEntry;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LogPageResponse {
+    private List<LogEntry> entries;
+    // Pass back as ?cursor= for the next, older page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,26 @@
+package com.Elvis.ticket.dto;
+
+import com.Elvis.ticket.model.LogEntry;
+
+/**
+ * A log entry found by a search over several files, with the file it came from.
+ */
+public class LogSearchEntry extends LogEntry {
+    private String file;
+
+    public LogSearchEntry() {
+    }
+
+    public LogSearchEntry(String file, LogEntry entry) {
+        super(entry.getTimestamp(), entry.getLevel(), entry.getLogger(), entry.getThreadName(), entry.getMessage());
+        this.file = file;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+}
@@ -0,0 +1,11 @@
+package com.Elvis.ticket.dto;
+
+/**
+ * Projection of the session columns needed to check who may read its conversation and
+ * whether a cached copy is still current.
+ */
+public interface SessionAccess {
+    Long getId();
+    Long getVersion();
+    Long getUserId();
+}
@@ -1,51 +1,49 @@
 package com.Elvis.ticket.dto;
 
+import com.Elvis.ticket.model.SessionMessage;
 import lombok.Data;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.core.type.TypeReference;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Data
 public class SessionHistoryResponse {
     private Long sessionId;
     private List<Message> messages;
+    // True when more messages exist beyond this page in the requested direction
+    private boolean hasMore;
 
     @Data
     public static class Message {
+        private long sequence;
         private String role;
         private String content;
         private String timestamp;
-    }
 
-    public static SessionHistoryResponse fromSession(com.Elvis.ticket.model.Session session) {
-        try {
-            SessionHistoryResponse response = new SessionHistoryResponse();
-            response.setSessionId(session.getId());
-            
-            if (session.getHistory() != null && !session.getHistory().isEmpty()) {
-                try {
-                    ObjectMapper mapper = new ObjectMapper();
-                    System.out.println("Raw history: " + session.getHistory());
-                    List<Message> messages = mapper.readValue(session.getHistory(), new TypeReference<List<Message>>() {});
-                    System.out.println("Parsed messages: " + messages);
-                    response.setMessages(messages);
-                } catch (Exception e) {
-                    System.err.println("Error parsing history: " + e.getMessage());
-                    e.printStackTrace();
-                    // If there's an error parsing the history, return an empty list
-                    response.setMessages(List.of());
-                }
-            } else {
-                System.out.println("History is null or empty");
-                response.setMessages(List.of());
-            }
-            
-            return response;
-        } catch (Exception e) {
-            System.err.println("Error in fromSession: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to parse session history", e);
+        public static Message fromSessionMessage(SessionMessage sessionMessage) {
+            Message message = new Message();
+            message.setSequence(sessionMessage.getSequence());
+            message.setRole(sessionMessage.getRole());
+            message.setContent(sessionMessage.getContent());
+            message.setTimestamp(sessionMessage.getCreatedAt().toString());
+            return message;
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Build the response from the session's message rows. The stream must be consumed
+     * inside the transaction that opened it.
+     */
+    public static SessionHistoryResponse fromMessages(Long sessionId, Stream<SessionMessage> messages) {
+        SessionHistoryResponse response = new SessionHistoryResponse();
+        response.setSessionId(sessionId);
+        response.setMessages(messages.map(Message::fromSessionMessage).collect(Collectors.toList()));
+        return response;
+    }
+
+    public static SessionHistoryResponse fromMessages(Long sessionId, List<SessionMessage> messages, boolean hasMore) {
+        SessionHistoryResponse response = fromMessages(sessionId, messages.stream());
+        response.setHasMore(hasMore);
+        return response;
+    }
+}
@@ -1,9 +1,12 @@
 package com.Elvis.ticket.dto;
 
+import com.Elvis.ticket.model.SessionStatus;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class SessionListResponse {
     private Long id;
     private String title;
@@ -11,6 +14,16 @@ public class SessionListResponse {
     private String status;
     private boolean ticketSession;
 
+    // Used by the JPQL constructor expressions in SessionRepository so listing
+    // sessions never loads the user or the legacy history column.
+    public SessionListResponse(Long id, String title, LocalDateTime lastActivity, SessionStatus status, boolean ticketSession) {
+        this.id = id;
+        this.title = title;
+        this.lastActivity = lastActivity;
+        this.status = status != null ? status.name() : null;
+        this.ticketSession = ticketSession;
+    }
+
     public static SessionListResponse fromSession(com.Elvis.ticket.model.Session session) {
         SessionListResponse response = new SessionListResponse();
         response.setId(session.getId());
@@ -0,0 +1,13 @@
+package com.Elvis.ticket.dto;
+
+/**
+ * Projection of the ticket columns needed to check who may read its conversation and
+ * whether a cached copy is still current.
+ */
+public interface TicketAccess {
+    Long getId();
+    Long getVersion();
+    Long getCustomerId();
+    Long getEngineerId();
+    Long getSessionId();
+}
@@ -0,0 +1,39 @@
+package com.Elvis.ticket.dto;
+
+import com.Elvis.ticket.model.TicketMessage;
+import lombok.Data;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Data
+public class TicketHistoryResponse {
+    private Long ticketId;
+    private List<Message> messages;
+    // True when more messages exist beyond this page in the requested direction
+    private boolean hasMore;
+
+    @Data
+    public static class Message {
+        private long sequence;
+        private String role;
+        private String content;
+        private String timestamp;
+
+        public static Message fromTicketMessage(TicketMessage ticketMessage) {
+            Message message = new Message();
+            message.setSequence(ticketMessage.getSequence());
+            message.setRole(ticketMessage.getRole());
+            message.setContent(ticketMessage.getContent());
+            message.setTimestamp(ticketMessage.getCreatedAt().toString());
+            return message;
+        }
+    }
+
+    public static TicketHistoryResponse fromMessages(Long ticketId, List<TicketMessage> messages, boolean hasMore) {
+        TicketHistoryResponse response = new TicketHistoryResponse();
+        response.setTicketId(ticketId);
+        response.setMessages(messages.stream().map(Message::fromTicketMessage).collect(Collectors.toList()));
+        response.setHasMore(hasMore);
+        return response;
+    }
+}
@@ -2,10 +2,18 @@ package com.Elvis.ticket.dto;
 
 import com.Elvis.ticket.model.*;
 import lombok.Data;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Data
 public class TicketResponse {
+    private static final ObjectMapper HISTORY_MAPPER = new ObjectMapper();
+
     private Long id;
     private String title;
     private TicketStatus status;
@@ -57,9 +65,31 @@ public class TicketResponse {
         if (ticket.getSession() != null) {
             response.setSession_id(ticket.getSession().getId());
         }
-        response.setHistory(ticket.getHistory());
         response.setCategory(ticket.getCategory());
         response.setServilityLevel(ticket.getServilityLevel());
         return response;
     }
-} 
\ No newline at end of file
+
+    public static TicketResponse fromTicket(Ticket ticket, List<TicketMessage> messages) {
+        TicketResponse response = fromTicket(ticket);
+        response.setHistory(toHistoryJson(messages));
+        return response;
+    }
+
+    // History is still exposed as a JSON array string so existing clients keep working.
+    private static String toHistoryJson(List<TicketMessage> messages) {
+        List<Map<String, Object>> history = new ArrayList<>(messages.size());
+        for (TicketMessage message : messages) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("role", message.getRole());
+            entry.put("content", message.getContent());
+            entry.put("timestamp", message.getCreatedAt().toString());
+            history.add(entry);
+        }
+        try {
+            return HISTORY_MAPPER.writeValueAsString(history);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize ticket history", e);
+        }
+    }
+}
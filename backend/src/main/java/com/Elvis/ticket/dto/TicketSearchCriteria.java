@@ -0,0 +1,31 @@
+package com.Elvis.ticket.dto;
+
+import com.Elvis.ticket.model.ServilityLevel;
+import com.Elvis.ticket.model.TeslaModel;
+import com.Elvis.ticket.model.TicketStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filters accepted by the ticket search endpoint. Every field is optional and
+ * the ones that are set are combined with AND; {@code status} matches any of
+ * the given values.
+ */
+@Data
+public class TicketSearchCriteria {
+    private List<TicketStatus> status;
+    private TeslaModel category;
+    private ServilityLevel servilityLevel;
+    private String urgency;
+    private Long typeId;
+    private Long customerId;
+    private Long engineerId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+}
@@ -0,0 +1,68 @@
+package com.Elvis.ticket.dto;
+
+import com.Elvis.ticket.model.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * List view of a ticket. Same shape as {@link TicketResponse} without the
+ * conversation, which is only served by the detail and history endpoints.
+ */
+@Data
+@NoArgsConstructor
+public class TicketSummaryResponse {
+    private Long id;
+    private String title;
+    private TicketStatus status;
+    private String urgency;
+    private TeslaModel category;
+    private TicketType type;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime resolvedAt;
+    private LocalDateTime lastResponseTime;
+    private LocalDateTime firstCustomerMessageAt;
+    private LocalDateTime firstResponseAt;
+    private TicketResponse.UserInfo customer;
+    private TicketResponse.UserInfo engineer;
+    private Long session_id;
+    private ServilityLevel servilityLevel;
+
+    // Used by the JPQL constructor expressions in TicketRepository, which join
+    // the customer and engineer users in the same query instead of loading entities.
+    public TicketSummaryResponse(Long id, String title, TicketStatus status, String urgency, TeslaModel category,
+                                 TicketType type, LocalDateTime createdAt, LocalDateTime updatedAt,
+                                 LocalDateTime resolvedAt, LocalDateTime lastResponseTime,
+                                 LocalDateTime firstCustomerMessageAt, LocalDateTime firstResponseAt,
+                                 Long customerUserId, String customerName, String customerEmail, String customerRole,
+                                 Long engineerUserId, String engineerName, String engineerEmail, String engineerRole,
+                                 Long sessionId, ServilityLevel servilityLevel) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.urgency = urgency;
+        this.category = category;
+        this.type = type;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.resolvedAt = resolvedAt;
+        this.lastResponseTime = lastResponseTime;
+        this.firstCustomerMessageAt = firstCustomerMessageAt;
+        this.firstResponseAt = firstResponseAt;
+        this.customer = userInfo(customerUserId, customerName, customerEmail, customerRole);
+        this.engineer = userInfo(engineerUserId, engineerName, engineerEmail, engineerRole);
+        this.session_id = sessionId;
+        this.servilityLevel = servilityLevel;
+    }
+
+    private static TicketResponse.UserInfo userInfo(Long id, String name, String email, String role) {
+        if (id == null) return null;
+        TicketResponse.UserInfo userInfo = new TicketResponse.UserInfo();
+        userInfo.setId(id);
+        userInfo.setName(name);
+        userInfo.setEmail(email);
+        userInfo.setRole(role);
+        return userInfo;
+    }
+}
@@ -22,13 +22,18 @@ public class Engineer {
     @Column(name = "max_tickets", nullable = false)
     private int maxTickets;
 
-    @Column(name = "current_tickets", nullable = false)
+    // Written only on insert; afterwards EngineerRepository updates it atomically
+    @Column(name = "current_tickets", nullable = false, updatable = false)
     private int currentTickets;
 
     @OneToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -85,4 +90,12 @@ public class Engineer {
     public void setUser(User user) {
         this.user = user;
     }
-} 
\ No newline at end of file
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -30,6 +30,8 @@ public class Session {
     @Column(name = "last_activity", nullable = false)
     private LocalDateTime lastActivity;
 
+    // Legacy JSON conversation blob. Messages now live in session_messages; this
+    // column is only read to backfill sessions created before the migration.
     @Column(name = "history", columnDefinition = "LONGTEXT")
     private String history;
 
@@ -46,6 +48,10 @@ public class Session {
     @Column(name = "ticket_session", nullable = false)
     private boolean ticketSession = false;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -126,4 +132,12 @@ public class Session {
     public void setTicketSession(boolean ticketSession) {
         this.ticketSession = ticketSession;
     }
-} 
\ No newline at end of file
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,65 @@
+package com.Elvis.ticket.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * A single chat turn in a session. Rows are append-only; {@code sequence}
+ * increases monotonically within a session and defines message order.
+ */
+@Entity
+@Table(name = "session_messages",
+       uniqueConstraints = @UniqueConstraint(name = "uk_session_messages_session_seq", columnNames = {"session_id", "seq"}))
+public class SessionMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "session_id", nullable = false)
+    @JsonIgnore
+    private Session session;
+
+    @Column(name = "seq", nullable = false)
+    private long sequence;
+
+    @Column(nullable = false)
+    private String role;
+
+    @Column(name = "content", columnDefinition = "LONGTEXT")
+    private String content;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public SessionMessage() {
+    }
+
+    public SessionMessage(Session session, long sequence, String role, String content, LocalDateTime createdAt) {
+        this.session = session;
+        this.sequence = sequence;
+        this.role = role;
+        this.content = content;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Session getSession() { return session; }
+    public void setSession(Session session) { this.session = session; }
+
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -32,22 +32,32 @@ public class Ticket {
     @Column(name = "last_response_time")
     private LocalDateTime lastResponseTime;
 
-    @ManyToOne
+    // Kept alongside the messages so list views can report response times
+    // without loading the conversation.
+    @Column(name = "first_customer_message_at")
+    private LocalDateTime firstCustomerMessageAt;
+
+    @Column(name = "first_response_at")
+    private LocalDateTime firstResponseAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "engineer_id")
     private Engineer engineer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "type_id", nullable = false)
     private TicketType type;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "session_id", nullable = false)
     private Session session;
 
+    // Legacy JSON conversation blob. Messages now live in ticket_messages; this
+    // column is only read to backfill tickets created before the migration.
     @Column(name = "history", columnDefinition = "LONGTEXT")
     private String history;
 
@@ -59,6 +69,10 @@ public class Ticket {
     @Column(name = "servility_level", nullable = false)
     private ServilityLevel servilityLevel = ServilityLevel.LOW;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -124,6 +138,22 @@ public class Ticket {
         this.lastResponseTime = lastResponseTime;
     }
 
+    public LocalDateTime getFirstCustomerMessageAt() {
+        return firstCustomerMessageAt;
+    }
+
+    public void setFirstCustomerMessageAt(LocalDateTime firstCustomerMessageAt) {
+        this.firstCustomerMessageAt = firstCustomerMessageAt;
+    }
+
+    public LocalDateTime getFirstResponseAt() {
+        return firstResponseAt;
+    }
+
+    public void setFirstResponseAt(LocalDateTime firstResponseAt) {
+        this.firstResponseAt = firstResponseAt;
+    }
+
     public Customer getCustomer() {
         return customer;
     }
@@ -179,4 +209,12 @@ public class Ticket {
     public void setServilityLevel(ServilityLevel servilityLevel) {
         this.servilityLevel = servilityLevel;
     }
-} 
\ No newline at end of file
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,66 @@
+package com.Elvis.ticket.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * A single message in a ticket conversation. Messages are append-only and
+ * ordered per ticket by {@code sequence}, which replaces the JSON array that
+ * used to be rewritten into {@code tickets.history} on every reply.
+ */
+@Entity
+@Table(name = "ticket_messages",
+       uniqueConstraints = @UniqueConstraint(name = "uk_ticket_messages_ticket_seq", columnNames = {"ticket_id", "seq"}))
+public class TicketMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ticket_id", nullable = false)
+    @JsonIgnore
+    private Ticket ticket;
+
+    @Column(name = "seq", nullable = false)
+    private long sequence;
+
+    @Column(nullable = false)
+    private String role;
+
+    @Column(name = "content", columnDefinition = "LONGTEXT")
+    private String content;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public TicketMessage() {
+    }
+
+    public TicketMessage(Ticket ticket, long sequence, String role, String content, LocalDateTime createdAt) {
+        this.ticket = ticket;
+        this.sequence = sequence;
+        this.role = role;
+        this.content = content;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Ticket getTicket() { return ticket; }
+    public void setTicket(Ticket ticket) { this.ticket = ticket; }
+
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
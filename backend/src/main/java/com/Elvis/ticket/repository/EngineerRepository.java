@@ -1,9 +1,12 @@
 package com.Elvis.ticket.repository;
 
+import com.Elvis.ticket.dto.EngineerCapacity;
 import com.Elvis.ticket.model.Engineer;
 import com.Elvis.ticket.model.TeslaModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -27,4 +30,20 @@ public interface EngineerRepository extends JpaRepository<Engineer, Long> {
     boolean existsByEmail(String email);
     
     List<Engineer> findByCategoryAndLevel(TeslaModel category, int level);
+
+    // current_tickets is only changed through the conditional updates below, never by
+    // rewriting the entity, so concurrent assignments cannot overbook or lose a decrement.
+    @Modifying
+    @Query("UPDATE Engineer e SET e.currentTickets = e.currentTickets + 1 WHERE e.id = :id AND e.currentTickets < e.maxTickets")
+    int incrementCurrentTicketsIfBelowMax(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Engineer e SET e.currentTickets = e.currentTickets - 1 WHERE e.id = :id AND e.currentTickets > 0")
+    int decrementCurrentTicketsIfPositive(@Param("id") Long id);
+
+    @Query("SELECT e.currentTickets FROM Engineer e WHERE e.id = :id")
+    int findCurrentTicketsById(@Param("id") Long id);
+
+    @Query("SELECT e.id AS id, e.category AS category, e.level AS level, e.currentTickets AS currentTickets, e.maxTickets AS maxTickets FROM Engineer e")
+    List<EngineerCapacity> findAllCapacities();
 } 
\ No newline at end of file
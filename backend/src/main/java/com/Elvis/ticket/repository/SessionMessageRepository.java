@@ -0,0 +1,34 @@
+package com.Elvis.ticket.repository;
+
+import com.Elvis.ticket.model.SessionMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface SessionMessageRepository extends JpaRepository<SessionMessage, Long> {
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "200"))
+    @Query("SELECT m FROM SessionMessage m WHERE m.session.id = :sessionId ORDER BY m.sequence ASC")
+    Stream<SessionMessage> streamBySessionId(@Param("sessionId") Long sessionId);
+
+    @Query("SELECT m FROM SessionMessage m WHERE m.session.id = :sessionId AND m.sequence > :after ORDER BY m.sequence ASC")
+    List<SessionMessage> findPageAfter(@Param("sessionId") Long sessionId, @Param("after") long after, Pageable pageable);
+
+    @Query("SELECT m FROM SessionMessage m WHERE m.session.id = :sessionId AND m.sequence < :before ORDER BY m.sequence DESC")
+    List<SessionMessage> findPageBefore(@Param("sessionId") Long sessionId, @Param("before") long before, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(m.sequence), 0) FROM SessionMessage m WHERE m.session.id = :sessionId")
+    long findMaxSequenceBySessionId(@Param("sessionId") Long sessionId);
+
+    @Modifying
+    @Query("DELETE FROM SessionMessage m WHERE m.session.id = :sessionId")
+    void deleteBySessionId(@Param("sessionId") Long sessionId);
+}
@@ -1,15 +1,41 @@
 package com.Elvis.ticket.repository;
 
+import com.Elvis.ticket.dto.SessionAccess;
+import com.Elvis.ticket.dto.SessionListResponse;
 import com.Elvis.ticket.model.Session;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, Long> {
     List<Session> findByUserId(Long userId);
     List<Session> findByEndTimeIsNull();
     List<Session> findByLastActivityBefore(LocalDateTime threshold);
-} 
\ No newline at end of file
+
+    @Query("SELECT new com.Elvis.ticket.dto.SessionListResponse(s.id, s.title, s.lastActivity, s.status, s.ticketSession) FROM Session s")
+    List<SessionListResponse> findAllListItems();
+
+    @Query("SELECT new com.Elvis.ticket.dto.SessionListResponse(s.id, s.title, s.lastActivity, s.status, s.ticketSession) FROM Session s WHERE s.user.id = :userId")
+    List<SessionListResponse> findListItemsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT s.version FROM Session s WHERE s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT s.id AS id, s.version AS version, s.user.id AS userId FROM Session s WHERE s.id = :id")
+    Optional<SessionAccess> findAccessById(@Param("id") Long id);
+
+    // Increments the version as well, so that it changes with every message added to the session
+    @Modifying
+    @Query("UPDATE Session s SET s.lastActivity = :lastActivity, s.version = s.version + 1 WHERE s.id = :id")
+    int updateLastActivity(@Param("id") Long id, @Param("lastActivity") LocalDateTime lastActivity);
+
+    @Query("SELECT s.id FROM Session s WHERE s.history IS NOT NULL")
+    List<Long> findIdsWithLegacyHistory();
+} 
@@ -0,0 +1,29 @@
+package com.Elvis.ticket.repository;
+
+import com.Elvis.ticket.model.TicketMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TicketMessageRepository extends JpaRepository<TicketMessage, Long> {
+    List<TicketMessage> findByTicketIdOrderBySequenceAsc(Long ticketId);
+
+    @Query("SELECT m FROM TicketMessage m WHERE m.ticket.id = :ticketId AND m.sequence > :after ORDER BY m.sequence ASC")
+    List<TicketMessage> findPageAfter(@Param("ticketId") Long ticketId, @Param("after") long after, Pageable pageable);
+
+    @Query("SELECT m FROM TicketMessage m WHERE m.ticket.id = :ticketId AND m.sequence < :before ORDER BY m.sequence DESC")
+    List<TicketMessage> findPageBefore(@Param("ticketId") Long ticketId, @Param("before") long before, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(m.sequence), 0) FROM TicketMessage m WHERE m.ticket.id = :ticketId")
+    long findMaxSequenceByTicketId(@Param("ticketId") Long ticketId);
+
+    @Modifying
+    @Query("DELETE FROM TicketMessage m WHERE m.ticket.id = :ticketId")
+    void deleteByTicketId(@Param("ticketId") Long ticketId);
+}
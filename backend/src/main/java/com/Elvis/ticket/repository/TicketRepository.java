@@ -1,15 +1,25 @@
 package com.Elvis.ticket.repository;
 
+import com.Elvis.ticket.dto.TicketAccess;
 import com.Elvis.ticket.model.Ticket;
 import com.Elvis.ticket.model.TicketStatus;
 import com.Elvis.ticket.model.CustomerRole;
 import com.Elvis.ticket.model.TeslaModel;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketSearchRepository {
+    // Detail and update paths render the customer, engineer and type, so load them with the ticket.
+    @Override
+    @EntityGraph(attributePaths = {"customer", "customer.user", "engineer", "engineer.user", "type"})
+    Optional<Ticket> findById(Long id);
+
     List<Ticket> findByCustomerId(Long customerId);
     List<Ticket> findByEngineerId(Long engineerId);
     List<Ticket> findByStatus(TicketStatus status);
@@ -20,4 +30,14 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     List<Ticket> findByTypeId(Long typeId);
     List<Ticket> findBySessionId(Long sessionId);
     boolean existsByEngineerIdAndSessionId(Long engineerId, Long sessionId);
-} 
\ No newline at end of file
+
+    @Query("SELECT t.version FROM Ticket t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT t.id AS id, t.version AS version, t.customer.id AS customerId, t.engineer.id AS engineerId, "
+            + "t.session.id AS sessionId FROM Ticket t WHERE t.id = :id")
+    Optional<TicketAccess> findAccessById(@Param("id") Long id);
+
+    @Query("SELECT t.id FROM Ticket t WHERE t.history IS NOT NULL")
+    List<Long> findIdsWithLegacyHistory();
+}
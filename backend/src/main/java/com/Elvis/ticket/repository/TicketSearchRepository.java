@@ -0,0 +1,11 @@
+package com.Elvis.ticket.repository;
+
+import com.Elvis.ticket.dto.TicketSummaryResponse;
+import com.Elvis.ticket.model.Ticket;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface TicketSearchRepository {
+    Page<TicketSummaryResponse> searchSummaries(Specification<Ticket> specification, Pageable pageable);
+}
@@ -0,0 +1,78 @@
+package com.Elvis.ticket.repository;
+
+import com.Elvis.ticket.dto.TicketSummaryResponse;
+import com.Elvis.ticket.model.Customer;
+import com.Elvis.ticket.model.Engineer;
+import com.Elvis.ticket.model.Ticket;
+import com.Elvis.ticket.model.TicketType;
+import com.Elvis.ticket.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+/**
+ * Runs a ticket specification as a summary projection: only the list columns,
+ * the ticket type and the customer/engineer users are selected, and the page
+ * is bounded in the database.
+ */
+class TicketSearchRepositoryImpl implements TicketSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TicketSummaryResponse> searchSummaries(Specification<Ticket> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketSummaryResponse> query = cb.createQuery(TicketSummaryResponse.class);
+        Root<Ticket> ticket = query.from(Ticket.class);
+        Join<Ticket, TicketType> type = ticket.join("type");
+        Join<Customer, User> customerUser = ticket.join("customer").join("user");
+        Join<Engineer, User> engineerUser = ticket.join("engineer", JoinType.LEFT).join("user", JoinType.LEFT);
+        query.select(cb.construct(TicketSummaryResponse.class,
+                ticket.get("id"), ticket.get("title"), ticket.get("status"), ticket.get("urgency"),
+                ticket.get("category"), type, ticket.get("createdAt"), ticket.get("updatedAt"),
+                ticket.get("resolvedAt"), ticket.get("lastResponseTime"),
+                ticket.get("firstCustomerMessageAt"), ticket.get("firstResponseAt"),
+                customerUser.get("id"), customerUser.get("name"), customerUser.get("email"), customerUser.get("role"),
+                engineerUser.get("id"), engineerUser.get("name"), engineerUser.get("email"), engineerUser.get("role"),
+                ticket.get("session").get("id"), ticket.get("servilityLevel")));
+        Predicate predicate = specification.toPredicate(ticket, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), ticket, cb));
+
+        TypedQuery<TicketSummaryResponse> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<TicketSummaryResponse> content = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Ticket> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Ticket> ticket = query.from(Ticket.class);
+        query.select(cb.count(ticket));
+        Predicate predicate = specification.toPredicate(ticket, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,54 @@
+package com.Elvis.ticket.repository;
+
+import com.Elvis.ticket.dto.TicketSearchCriteria;
+import com.Elvis.ticket.model.Ticket;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the ticket search filter. Predicates only use columns of the tickets
+ * table (foreign keys included), so the same specification serves both the
+ * page query and its count query without extra joins.
+ */
+public final class TicketSpecifications {
+
+    private TicketSpecifications() {
+    }
+
+    public static Specification<Ticket> matching(TicketSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.getStatus() != null && !criteria.getStatus().isEmpty()) {
+                predicates.add(root.get("status").in(criteria.getStatus()));
+            }
+            if (criteria.getCategory() != null) {
+                predicates.add(cb.equal(root.get("category"), criteria.getCategory()));
+            }
+            if (criteria.getServilityLevel() != null) {
+                predicates.add(cb.equal(root.get("servilityLevel"), criteria.getServilityLevel()));
+            }
+            if (criteria.getUrgency() != null) {
+                predicates.add(cb.equal(root.get("urgency"), criteria.getUrgency()));
+            }
+            if (criteria.getTypeId() != null) {
+                predicates.add(cb.equal(root.get("type").get("id"), criteria.getTypeId()));
+            }
+            if (criteria.getCustomerId() != null) {
+                predicates.add(cb.equal(root.get("customer").get("id"), criteria.getCustomerId()));
+            }
+            if (criteria.getEngineerId() != null) {
+                predicates.add(cb.equal(root.get("engineer").get("id"), criteria.getEngineerId()));
+            }
+            if (criteria.getCreatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), criteria.getCreatedFrom()));
+            }
+            if (criteria.getCreatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), criteria.getCreatedTo()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
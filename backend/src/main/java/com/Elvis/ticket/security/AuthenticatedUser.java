@@ -0,0 +1,70 @@
+package com.Elvis.ticket.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The caller of the current request, set as the principal by {@link JwtAuthenticationFilter}
+ * from the claims of the verified token. Controllers take it with
+ * {@code @AuthenticationPrincipal} instead of loading the user, customer, engineer or manager
+ * by email. The ids are fixed when the token is issued; the profile ids that do not match
+ * the role are null.
+ */
+public record AuthenticatedUser(Long userId, String email, String role,
+                                Long customerId, Long engineerId, Long managerId) implements AuthenticatedPrincipal {
+
+    private static final String USER_ID = "uid";
+    private static final String ROLE = "role";
+    private static final String CUSTOMER_ID = "cid";
+    private static final String ENGINEER_ID = "eid";
+    private static final String MANAGER_ID = "mid";
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean isAdminOrManager() {
+        return "ADMIN".equals(role) || "MANAGER".equals(role);
+    }
+
+    public boolean isCustomer() {
+        return "CUSTOMER".equals(role);
+    }
+
+    public boolean isEngineer() {
+        return "ENGINEER".equals(role);
+    }
+
+    Map<String, Object> toClaims() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID, userId);
+        claims.put(ROLE, role);
+        if (customerId != null) {
+            claims.put(CUSTOMER_ID, customerId);
+        }
+        if (engineerId != null) {
+            claims.put(ENGINEER_ID, engineerId);
+        }
+        if (managerId != null) {
+            claims.put(MANAGER_ID, managerId);
+        }
+        return claims;
+    }
+
+    /**
+     * The caller described by the token, or null for tokens issued before these claims
+     * were added.
+     */
+    static AuthenticatedUser fromClaims(Claims claims) {
+        Long userId = claims.get(USER_ID, Long.class);
+        if (userId == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId, claims.getSubject(), claims.get(ROLE, String.class),
+                claims.get(CUSTOMER_ID, Long.class), claims.get(ENGINEER_ID, Long.class), claims.get(MANAGER_ID, Long.class));
+    }
+}
@@ -0,0 +1,72 @@
+package com.Elvis.ticket.security;
+
+import com.Elvis.ticket.model.Customer;
+import com.Elvis.ticket.model.Engineer;
+import com.Elvis.ticket.model.Manager;
+import com.Elvis.ticket.model.User;
+import com.Elvis.ticket.repository.CustomerRepository;
+import com.Elvis.ticket.repository.EngineerRepository;
+import com.Elvis.ticket.repository.ManagerRepository;
+import com.Elvis.ticket.service.UserCache;
+import io.jsonwebtoken.Claims;
+import org.springframework.stereotype.Component;
+
+/**
+ * Looks up the user and the customer, engineer or manager profile of their role, once at
+ * login so that the ids can be carried in the token.
+ */
+@Component
+public class AuthenticatedUserResolver {
+
+    private final UserCache userCache;
+    private final CustomerRepository customerRepository;
+    private final EngineerRepository engineerRepository;
+    private final ManagerRepository managerRepository;
+
+    public AuthenticatedUserResolver(UserCache userCache, CustomerRepository customerRepository,
+                                     EngineerRepository engineerRepository, ManagerRepository managerRepository) {
+        this.userCache = userCache;
+        this.customerRepository = customerRepository;
+        this.engineerRepository = engineerRepository;
+        this.managerRepository = managerRepository;
+    }
+
+    /**
+     * The user with this email, or null if there is none.
+     */
+    public AuthenticatedUser resolve(String email) {
+        User user = userCache.findByEmail(email).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        Long customerId = null;
+        Long engineerId = null;
+        Long managerId = null;
+        switch (user.getRole()) {
+            case "CUSTOMER" -> {
+                Customer customer = customerRepository.findByEmail(email);
+                customerId = customer != null ? customer.getId() : null;
+            }
+            case "ENGINEER" -> {
+                Engineer engineer = engineerRepository.findByEmail(email);
+                engineerId = engineer != null ? engineer.getId() : null;
+            }
+            case "MANAGER" -> {
+                Manager manager = managerRepository.findByEmail(email);
+                managerId = manager != null ? manager.getId() : null;
+            }
+            default -> {
+            }
+        }
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), customerId, engineerId, managerId);
+    }
+
+    /**
+     * The caller described by verified token claims. Tokens issued before the ids were added
+     * to them are resolved from the database until they expire.
+     */
+    public AuthenticatedUser fromClaims(Claims claims) {
+        AuthenticatedUser user = AuthenticatedUser.fromClaims(claims);
+        return user != null ? user : resolve(claims.getSubject());
+    }
+}
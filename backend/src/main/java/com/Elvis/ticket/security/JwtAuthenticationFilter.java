@@ -17,10 +17,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 @Component
@@ -32,20 +32,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private SecurityAuditLogger auditLogger;
+
+    @Autowired
+    private AuthenticatedUserResolver authenticatedUserResolver;
+
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (jwt != null && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                
-                Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(tokenProvider.getKey())
-                    .build()
-                    .parseClaimsJws(jwt)
-                    .getBody();
+            Optional<Claims> verified = jwt != null ? tokenProvider.getVerifiedClaims(jwt) : Optional.empty();
+            if (verified.isPresent()) {
+                Claims claims = verified.get();
+                String username = claims.getSubject();
 
                 @SuppressWarnings("unchecked")
                 List<String> authorities = claims.get("authorities", List.class);
@@ -53,12 +57,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     .map(SimpleGrantedAuthority::new)
                     .collect(Collectors.toList()) : List.of();
 
-                logger.debug("Setting authentication for user: " + username + " with authorities: " + grantedAuthorities);
-                UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(username, null, grantedAuthorities);
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // Controllers identify the caller from the principal; fall back to the bare
+                // email if the user no longer exists
+                AuthenticatedUser user = authenticatedUserResolver.fromClaims(claims);
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    user != null ? user : username, null, grantedAuthorities);
+                authentication.setDetails(detailsSource.buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                auditLogger.authenticated();
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -1,5 +1,6 @@
 package com.Elvis.ticket.security;
 
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -34,12 +35,16 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         String username = null;
         String jwt = null;
 
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+        // JwtAuthenticationFilter normally authenticates the request first; only verify again if it did not
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             jwt = authorizationHeader.substring(7);
-            username = tokenProvider.getUsernameFromToken(jwt);
+            username = tokenProvider.getVerifiedClaims(jwt)
+                    .map(Claims::getSubject)
+                    .orElse(null);
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (username != null) {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
 
             if (tokenProvider.validateToken(jwt, userDetails)) {
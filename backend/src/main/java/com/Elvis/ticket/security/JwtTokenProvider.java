@@ -1,5 +1,8 @@
 package com.Elvis.ticket.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -10,10 +13,16 @@ import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -27,23 +36,73 @@ public class JwtTokenProvider {
     @Value("${app.jwt.expirationInMs}")
     private int jwtExpirationInMs;
 
+    @Value("${app.jwt.claims-cache-size:10000}")
+    private long claimsCacheSize;
+
     private Key key;
 
+    private JwtParser parser;
+
+    // Verified claims keyed by a SHA-256 digest of the token, so repeat requests with the
+    // same bearer token skip signature verification and JSON parsing until it expires.
+    private Cache<String, Claims> claimsCache;
+
+    private final SecurityAuditLogger auditLogger;
+
+    public JwtTokenProvider(SecurityAuditLogger auditLogger) {
+        this.auditLogger = auditLogger;
+    }
+
     @PostConstruct
     public void init() {
         logger.info("Initializing JWT token provider with secret key length: {}", jwtSecret.length());
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
         logger.info("Generated HMAC-SHA key with algorithm: {}", key.getAlgorithm());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        if (expiration == null) {
+                            return Long.MAX_VALUE;
+                        }
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
+        return generateToken(authentication, null);
+    }
+
+    /**
+     * Issues a token that also carries the caller's user and profile ids, so requests
+     * authenticated with it need no lookups to identify the caller.
+     */
+    public String generateToken(Authentication authentication, AuthenticatedUser user) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         Map<String, Object> claims = new HashMap<>();
         claims.put("authorities", userDetails.getAuthorities().stream()
             .map(auth -> auth.getAuthority())
             .collect(Collectors.toList()));
+        if (user != null) {
+            claims.putAll(user.toClaims());
+        }
         String token = createToken(claims, userDetails.getUsername());
-        logger.info("Generated token for user: {} with authorities: {}", userDetails.getUsername(), claims.get("authorities"));
+        auditLogger.tokenIssued(userDetails.getUsername());
         return token;
     }
 
@@ -76,12 +135,37 @@ public class JwtTokenProvider {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the token once and returns its claims, or empty if the signature is
+     * invalid or the token has expired.
+     */
+    public Optional<Claims> getVerifiedClaims(String token) {
+        try {
+            return Optional.of(extractAllClaims(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            auditLogger.tokenRejected(e);
+            return Optional.empty();
+        }
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String tokenHash = hash(token);
+        Claims claims = claimsCache.getIfPresent(tokenHash);
+        if (claims == null) {
+            // The parser rejects expired tokens itself, so no separate expiry check is needed
+            claims = parser.parseClaimsJws(token).getBody();
+            claimsCache.put(tokenHash, claims);
+        }
+        return claims;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     private Boolean isTokenExpired(String token) {
@@ -89,16 +173,7 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
-        try {
-            logger.debug("Validating token: {}", token);
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            boolean isValid = !isTokenExpired(token);
-            logger.info("Token validation result: {}", isValid);
-            return isValid;
-        } catch (JwtException | IllegalArgumentException e) {
-            logger.error("Token validation failed: {}", e.getMessage());
-            return false;
-        }
+        return getVerifiedClaims(token).isPresent();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
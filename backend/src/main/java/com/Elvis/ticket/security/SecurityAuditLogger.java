@@ -0,0 +1,68 @@
+package com.Elvis.ticket.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Security audit events for the request path. Successful authentications are only
+ * counted; rejections are counted by reason and logged individually up to a fixed
+ * budget per interval. Totals are written as one summary line per interval.
+ * Output goes to the "security.audit" logger in key=value form.
+ */
+@Component
+public class SecurityAuditLogger {
+
+    private static final Logger audit = LoggerFactory.getLogger("security.audit");
+
+    private final int maxDetailsPerInterval;
+    private final LongAdder authenticated = new LongAdder();
+    private final Map<String, LongAdder> rejected = new ConcurrentHashMap<>();
+    private final AtomicInteger detailsLogged = new AtomicInteger();
+
+    public SecurityAuditLogger(@Value("${app.security.audit.max-details-per-interval:20}") int maxDetailsPerInterval) {
+        this.maxDetailsPerInterval = maxDetailsPerInterval;
+    }
+
+    public void authenticated() {
+        authenticated.increment();
+    }
+
+    public void tokenRejected(Exception cause) {
+        String reason = cause.getClass().getSimpleName();
+        rejected.computeIfAbsent(reason, k -> new LongAdder()).increment();
+        if (audit.isWarnEnabled() && detailsLogged.incrementAndGet() <= maxDetailsPerInterval) {
+            audit.warn("event=token_rejected reason={} message=\"{}\"", reason, cause.getMessage());
+        }
+    }
+
+    public void tokenIssued(String username) {
+        audit.info("event=token_issued user={}", username);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.audit.summary-interval-ms:60000}")
+    public void logSummary() {
+        long authenticatedCount = authenticated.sumThenReset();
+        Map<String, Long> rejectedCounts = new TreeMap<>();
+        rejected.forEach((reason, count) -> {
+            long value = count.sumThenReset();
+            if (value > 0) {
+                rejectedCounts.put(reason, value);
+            }
+        });
+        int suppressed = Math.max(0, detailsLogged.getAndSet(0) - maxDetailsPerInterval);
+        if (authenticatedCount == 0 && rejectedCounts.isEmpty()) {
+            return;
+        }
+        audit.info("event=auth_summary authenticated={} rejected={} suppressed_details={}",
+                authenticatedCount, rejectedCounts, suppressed);
+    }
+}
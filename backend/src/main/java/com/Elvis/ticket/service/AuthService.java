@@ -2,6 +2,7 @@ package com.Elvis.ticket.service;
 
 import com.Elvis.ticket.model.*;
 import com.Elvis.ticket.repository.*;
+import com.Elvis.ticket.security.AuthenticatedUserResolver;
 import com.Elvis.ticket.security.JwtTokenProvider;
 import com.Elvis.ticket.dto.UserResponseDTO;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +28,8 @@ public class AuthService {
     private final CustomerRepository customerRepository;
     private final ManagerRepository managerRepository;
     private final EngineerRepository engineerRepository;
+    private final EngineerCapacityIndex engineerCapacityIndex;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     public String authenticate(String email, String password) {
         log.debug("Attempting to authenticate user with email: {}", email);
@@ -35,7 +38,7 @@ public class AuthService {
                 new UsernamePasswordAuthenticationToken(email, password)
             );
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            return jwtTokenProvider.generateToken(authentication);
+            return jwtTokenProvider.generateToken(authentication, authenticatedUserResolver.resolve(email));
         } catch (Exception e) {
             log.error("Authentication failed for user: {}", email, e);
             throw new RuntimeException("Invalid credentials", e);
@@ -90,6 +93,7 @@ public class AuthService {
                 engineer.setMaxTickets(5); // Default max tickets
                 engineer.setCurrentTickets(0);
                 engineerRepository.save(engineer);
+                engineerCapacityIndex.update(engineer);
                 log.debug("Created engineer entry for user: {}", savedUser.getEmail());
                 break;
 
@@ -0,0 +1,80 @@
+package com.Elvis.ticket.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of a reference table that changes a few times a year, such as the
+ * ticket types or products. The whole table is loaded on first use into an immutable
+ * snapshot that readers share without locking. A change discards the snapshot once its
+ * transaction completes and the next read loads a new one, so readers always see either
+ * the old or the new table, never a mix. Entities in the snapshot must not be modified.
+ */
+final class CatalogSnapshot<T> {
+
+    private final Supplier<List<T>> loader;
+    private final Function<T, Long> idOf;
+
+    private volatile Snapshot<T> current;
+
+    CatalogSnapshot(Supplier<List<T>> loader, Function<T, Long> idOf) {
+        this.loader = loader;
+        this.idOf = idOf;
+    }
+
+    List<T> all() {
+        return snapshot().all();
+    }
+
+    Optional<T> byId(Long id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    /**
+     * Discards the snapshot after the current transaction completes, or right away
+     * outside of one, so that the next read sees the change.
+     */
+    void changed() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    discard();
+                }
+            });
+        } else {
+            discard();
+        }
+    }
+
+    // Waits for a load in progress, which may have read the table before the change
+    private synchronized void discard() {
+        current = null;
+    }
+
+    private Snapshot<T> snapshot() {
+        Snapshot<T> snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = current;
+                if (snapshot == null) {
+                    List<T> all = List.copyOf(loader.get());
+                    snapshot = new Snapshot<>(all, all.stream()
+                            .collect(Collectors.toUnmodifiableMap(idOf, Function.identity())));
+                    current = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private record Snapshot<T>(List<T> all, Map<Long, T> byId) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.dto.EngineerCapacity;
+import com.Elvis.ticket.model.Engineer;
+import com.Elvis.ticket.model.TeslaModel;
+import com.Elvis.ticket.repository.EngineerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory engineer load index used to pick an engineer for new and escalated
+ * tickets without querying and scanning the engineers table. For every category
+ * and level it keeps the engineers that still have capacity, ordered so the least
+ * loaded one comes first.
+ * <p>
+ * Changes are applied once the surrounding transaction commits, and the index is
+ * rebuilt from the database on a schedule to correct any drift. A picked engineer
+ * must still be checked against the database before a ticket is assigned.
+ */
+@Service
+public class EngineerCapacityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EngineerCapacityIndex.class);
+
+    // Fewest open tickets first; ties go to the lowest id, as the old table scan did
+    private static final Comparator<Load> LEAST_LOADED =
+            Comparator.comparingInt(Load::currentTickets).thenComparingLong(Load::id);
+
+    private final EngineerRepository engineerRepository;
+
+    private final Map<Long, Load> loads = new HashMap<>();
+    private final Map<TeslaModel, Map<Integer, TreeSet<Load>>> available = new EnumMap<>(TeslaModel.class);
+    private volatile boolean loaded;
+
+    public EngineerCapacityIndex(EngineerRepository engineerRepository) {
+        this.engineerRepository = engineerRepository;
+    }
+
+    /**
+     * Least loaded engineer of the given level with capacity left, ignoring {@code excluded}.
+     * A null category searches every category.
+     */
+    public Optional<Long> findLeastLoaded(TeslaModel category, int level, Set<Long> excluded) {
+        ensureLoaded();
+        synchronized (this) {
+            return Optional.ofNullable(leastLoaded(category, level, excluded)).map(Load::id);
+        }
+    }
+
+    private Load leastLoaded(TeslaModel category, int level, Set<Long> excluded) {
+        Load best = null;
+        for (Map.Entry<TeslaModel, Map<Integer, TreeSet<Load>>> entry : available.entrySet()) {
+            if (category != null && entry.getKey() != category) {
+                continue;
+            }
+            TreeSet<Load> candidates = entry.getValue().get(level);
+            if (candidates == null) {
+                continue;
+            }
+            for (Load candidate : candidates) {
+                if (!excluded.contains(candidate.id())) {
+                    if (best == null || LEAST_LOADED.compare(candidate, best) < 0) {
+                        best = candidate;
+                    }
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Record the current state of an engineer, after commit when a transaction is active.
+     */
+    public void update(Engineer engineer) {
+        Load load = Load.of(engineer);
+        afterCommit(() -> apply(load));
+    }
+
+    public void remove(Long engineerId) {
+        afterCommit(() -> evict(engineerId));
+    }
+
+    /**
+     * Rebuild the index from the database and return how many engineers it had out of date.
+     */
+    @Scheduled(fixedDelayString = "${app.engineer-index.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.engineer-index.reconcile-interval-ms:300000}")
+    public int reconcile() {
+        List<Load> snapshot = engineerRepository.findAllCapacities().stream().map(Load::of).toList();
+        int drifted;
+        synchronized (this) {
+            drifted = rebuild(snapshot);
+        }
+        if (drifted > 0) {
+            logger.info("Engineer capacity index reconciled: {} of {} engineers were out of date", drifted, snapshot.size());
+        }
+        return drifted;
+    }
+
+    // The query runs outside the monitor so a blocked (virtual) thread does not hold it
+    private void ensureLoaded() {
+        if (!loaded) {
+            List<Load> snapshot = engineerRepository.findAllCapacities().stream().map(Load::of).toList();
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild(snapshot);
+                }
+            }
+        }
+    }
+
+    private int rebuild(List<Load> snapshot) {
+        int drifted = 0;
+        Map<Long, Load> previous = new HashMap<>(loads);
+        loads.clear();
+        available.clear();
+        for (Load load : snapshot) {
+            if (loaded && !load.equals(previous.remove(load.id()))) {
+                drifted++;
+            }
+            put(load);
+        }
+        if (loaded) {
+            drifted += previous.size();
+        }
+        loaded = true;
+        return drifted;
+    }
+
+    private synchronized void apply(Load load) {
+        if (!loaded) {
+            return;
+        }
+        evict(load.id());
+        put(load);
+    }
+
+    private synchronized void evict(Long engineerId) {
+        Load existing = loads.remove(engineerId);
+        if (existing != null && existing.hasCapacity()) {
+            TreeSet<Load> bucket = available.get(existing.category()).get(existing.level());
+            bucket.remove(existing);
+        }
+    }
+
+    private void put(Load load) {
+        loads.put(load.id(), load);
+        if (load.hasCapacity()) {
+            available.computeIfAbsent(load.category(), c -> new HashMap<>())
+                    .computeIfAbsent(load.level(), l -> new TreeSet<>(LEAST_LOADED))
+                    .add(load);
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private record Load(long id, TeslaModel category, int level, int currentTickets, int maxTickets) {
+        static Load of(Engineer engineer) {
+            return new Load(engineer.getId(), engineer.getCategory(), engineer.getLevel(),
+                    engineer.getCurrentTickets(), engineer.getMaxTickets());
+        }
+
+        static Load of(EngineerCapacity capacity) {
+            return new Load(capacity.getId(), capacity.getCategory(), capacity.getLevel(),
+                    capacity.getCurrentTickets(), capacity.getMaxTickets());
+        }
+
+        boolean hasCapacity() {
+            return category != null && currentTickets < maxTickets;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.Elvis.ticket.service;
 
+import com.Elvis.ticket.config.RetryOnOptimisticLock;
 import com.Elvis.ticket.model.Engineer;
 import com.Elvis.ticket.model.User;
 import com.Elvis.ticket.model.TeslaModel;
@@ -21,11 +22,14 @@ public class EngineerService {
     private final EngineerRepository engineerRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final EngineerCapacityIndex engineerCapacityIndex;
 
-    public EngineerService(EngineerRepository engineerRepository, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public EngineerService(EngineerRepository engineerRepository, UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           EngineerCapacityIndex engineerCapacityIndex) {
         this.engineerRepository = engineerRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.engineerCapacityIndex = engineerCapacityIndex;
     }
 
     @Transactional
@@ -35,7 +39,9 @@ public class EngineerService {
             throw new RuntimeException("User not found with email: " + engineer.getEmail());
         }
         engineer.setUser(user);
-        return engineerRepository.save(engineer);
+        Engineer saved = engineerRepository.save(engineer);
+        engineerCapacityIndex.update(saved);
+        return saved;
     }
 
     @Transactional
@@ -57,7 +63,9 @@ public class EngineerService {
         engineer.setLevel(req.getLevel());
         engineer.setMaxTickets(req.getMaxTickets());
         engineer.setCurrentTickets(0);
-        return engineerRepository.save(engineer);
+        Engineer saved = engineerRepository.save(engineer);
+        engineerCapacityIndex.update(saved);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -95,6 +103,7 @@ public class EngineerService {
         return engineerRepository.findByCategoryAndCurrentTicketsLessThanMaxTickets(category);
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public Engineer updateEngineer(Long id, Engineer engineerDetails) {
         return engineerRepository.findById(id)
@@ -102,8 +111,10 @@ public class EngineerService {
                     existingEngineer.setCategory(engineerDetails.getCategory());
                     existingEngineer.setLevel(engineerDetails.getLevel());
                     existingEngineer.setMaxTickets(engineerDetails.getMaxTickets());
-                    existingEngineer.setCurrentTickets(engineerDetails.getCurrentTickets());
-                    return engineerRepository.save(existingEngineer);
+                    Engineer saved = engineerRepository.save(existingEngineer);
+                    // currentTickets is only changed by reserving or releasing a slot
+                    refreshCurrentTickets(saved);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Engineer not found"));
     }
@@ -111,15 +122,13 @@ public class EngineerService {
     @Transactional
     public void deleteEngineer(Long id) {
         engineerRepository.deleteById(id);
+        engineerCapacityIndex.remove(id);
     }
 
     @Transactional
     public void incrementCurrentTickets(Long id) {
         engineerRepository.findById(id).ifPresent(engineer -> {
-            if (engineer.getCurrentTickets() < engineer.getMaxTickets()) {
-                engineer.setCurrentTickets(engineer.getCurrentTickets() + 1);
-                engineerRepository.save(engineer);
-            } else {
+            if (!tryReserveTicket(engineer)) {
                 throw new RuntimeException("Engineer has reached maximum ticket limit");
             }
         });
@@ -127,11 +136,32 @@ public class EngineerService {
 
     @Transactional
     public void decrementCurrentTickets(Long id) {
-        engineerRepository.findById(id).ifPresent(engineer -> {
-            if (engineer.getCurrentTickets() > 0) {
-                engineer.setCurrentTickets(engineer.getCurrentTickets() - 1);
-                engineerRepository.save(engineer);
-            }
-        });
+        engineerRepository.findById(id).ifPresent(this::releaseTicket);
+    }
+
+    /**
+     * Atomically take one ticket slot of the engineer. Returns false, without changing
+     * anything, when the engineer is already at maxTickets.
+     */
+    @Transactional
+    public boolean tryReserveTicket(Engineer engineer) {
+        boolean reserved = engineerRepository.incrementCurrentTicketsIfBelowMax(engineer.getId()) == 1;
+        refreshCurrentTickets(engineer);
+        return reserved;
+    }
+
+    /**
+     * Atomically give back one ticket slot of the engineer; never goes below zero.
+     */
+    @Transactional
+    public void releaseTicket(Engineer engineer) {
+        engineerRepository.decrementCurrentTicketsIfPositive(engineer.getId());
+        refreshCurrentTickets(engineer);
+    }
+
+    // The update above holds the row lock until commit, so this read is the value that will be committed
+    private void refreshCurrentTickets(Engineer engineer) {
+        engineer.setCurrentTickets(engineerRepository.findCurrentTicketsById(engineer.getId()));
+        engineerCapacityIndex.update(engineer);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.dto.LogAggregationResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts log entries by level per time interval and by logger in one forward
+ * pass over the raw bytes of a file. Header lines are parsed in place and no
+ * strings are built except one per distinct logger, so the cost is a scan of the
+ * file regardless of how many entries it holds.
+ */
+class LogAggregator {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    // The header (timestamp, level, logger) always sits within the first bytes of a line
+    private static final int HEADER_BYTES = 256;
+
+    private final LogFilter window;
+    private final long intervalSeconds;
+    private final LogLineParser parser = new LogLineParser();
+
+    private final TreeMap<Long, long[]> buckets = new TreeMap<>();
+    private final Map<LoggerName, long[]> loggers = new HashMap<>();
+    private final LoggerName probe = new LoggerName();
+    private final long[] totals = new long[LogLineParser.LEVELS.length];
+    // Entries mostly arrive in time order, so the current bucket is looked up only when it changes
+    private long currentBucket = Long.MIN_VALUE;
+    private long[] currentCounts;
+
+    LogAggregator(LogFilter window, long intervalSeconds) {
+        this.window = window;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * Counts the entries in the bytes {@code [start, end)} of a file; {@code start}
+     * must be the beginning of a line.
+     */
+    void scan(Path file, long start, long end) throws IOException {
+        byte[] line = new byte[HEADER_BYTES];
+        int lineLength = 0;
+        byte[] chunk = new byte[CHUNK_SIZE];
+        long remaining = end - start;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream in = Channels.newInputStream(channel.position(start))) {
+            int read;
+            while (remaining > 0 && (read = in.read(chunk, 0, (int) Math.min(chunk.length, remaining))) > 0) {
+                remaining -= read;
+                for (int i = 0; i < read; i++) {
+                    byte b = chunk[i];
+                    if (b != '\n') {
+                        if (lineLength < line.length) {
+                            line[lineLength++] = b;
+                        }
+                        continue;
+                    }
+                    int lineEnd = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+                    if (parser.parse(line, 0, lineEnd) && window.matchesHeader(parser)) {
+                        count(line);
+                    }
+                    lineLength = 0;
+                }
+            }
+        }
+    }
+
+    private void count(byte[] line) {
+        int level = parser.level();
+        totals[level]++;
+
+        long bucket = Math.floorDiv(parser.epochSecond(), intervalSeconds) * intervalSeconds;
+        if (bucket != currentBucket) {
+            currentBucket = bucket;
+            currentCounts = buckets.computeIfAbsent(bucket, key -> new long[LogLineParser.LEVELS.length]);
+        }
+        currentCounts[level]++;
+
+        probe.set(line, parser.loggerStart(), parser.loggerEnd());
+        long[] counts = loggers.get(probe);
+        if (counts == null) {
+            counts = new long[LogLineParser.LEVELS.length];
+            loggers.put(probe.copy(), counts);
+        }
+        counts[level]++;
+    }
+
+    LogAggregationResponse toResponse(int topLoggers) {
+        LogAggregationResponse response = new LogAggregationResponse();
+        response.setTotal(Arrays.stream(totals).sum());
+        response.setCounts(byLevel(totals));
+
+        List<LogAggregationResponse.Bucket> bucketList = new ArrayList<>(buckets.size());
+        for (Map.Entry<Long, long[]> entry : buckets.entrySet()) {
+            LogAggregationResponse.Bucket bucket = new LogAggregationResponse.Bucket();
+            bucket.setStart(LocalDateTime.ofEpochSecond(entry.getKey(), 0, ZoneOffset.UTC));
+            bucket.setCounts(byLevel(entry.getValue()));
+            bucketList.add(bucket);
+        }
+        response.setBuckets(bucketList);
+
+        List<LogAggregationResponse.LoggerCounts> loggerList = new ArrayList<>(loggers.size());
+        for (Map.Entry<LoggerName, long[]> entry : loggers.entrySet()) {
+            LogAggregationResponse.LoggerCounts counts = new LogAggregationResponse.LoggerCounts();
+            counts.setLogger(entry.getKey().toString());
+            counts.setTotal(Arrays.stream(entry.getValue()).sum());
+            counts.setCounts(byLevel(entry.getValue()));
+            loggerList.add(counts);
+        }
+        loggerList.sort((a, b) -> a.getTotal() != b.getTotal()
+                ? Long.compare(b.getTotal(), a.getTotal())
+                : a.getLogger().compareTo(b.getLogger()));
+        response.setLoggers(loggerList.subList(0, Math.min(topLoggers, loggerList.size())));
+        return response;
+    }
+
+    private static Map<String, Long> byLevel(long[] counts) {
+        Map<String, Long> byLevel = new LinkedHashMap<>();
+        for (int level = 0; level < counts.length; level++) {
+            byLevel.put(LogLineParser.LEVELS[level], counts[level]);
+        }
+        return byLevel;
+    }
+
+    /**
+     * Logger name as a byte range. The aggregator looks names up with one reused
+     * instance and only copies the bytes the first time a logger is seen.
+     */
+    private static final class LoggerName {
+        private byte[] bytes;
+        private int from;
+        private int to;
+        private int hash;
+
+        void set(byte[] bytes, int from, int to) {
+            this.bytes = bytes;
+            this.from = from;
+            this.to = to;
+            int h = 1;
+            for (int i = from; i < to; i++) {
+                h = 31 * h + bytes[i];
+            }
+            this.hash = h;
+        }
+
+        LoggerName copy() {
+            LoggerName copy = new LoggerName();
+            copy.set(Arrays.copyOfRange(bytes, from, to), 0, to - from);
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LoggerName other)) {
+                return false;
+            }
+            return hash == other.hash && Arrays.equals(bytes, from, to, other.bytes, other.from, other.to);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            // Logger names are ASCII
+            return new String(bytes, from, to - from, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.Elvis.ticket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Sidecar index of one log file. The file is cut into blocks of roughly
+ * {@link #BLOCK_SIZE} bytes that always start at an entry header, so an entry and
+ * its continuation lines never span two blocks. Each block records its start
+ * offset, the time range of its entries and a bitmap of the levels it contains,
+ * which lets queries skip blocks that cannot match without reading them.
+ * <p>
+ * The index is extended from the last block whenever the file has grown, and is
+ * rebuilt from scratch when the file was rotated or truncated, detected by a
+ * shorter length or a different checksum of the first bytes. It is persisted
+ * next to the logs so a restart does not rescan large files.
+ */
+class LogFileIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogFileIndex.class);
+
+    static final int FORMAT_VERSION = 1;
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    private static final int MAGIC = 0x4C494458; // "LIDX"
+    private static final int FINGERPRINT_BYTES = 256;
+    // The header (timestamp, level, logger) always sits within the first bytes of a line
+    private static final int HEADER_BYTES = 256;
+
+    record Block(long offset, long firstSecond, long lastSecond, int levels) {
+
+        boolean mayContain(int levelMask, long fromSecond, long toSecond) {
+            if (levelMask != 0 && (levels & levelMask) == 0) {
+                return false;
+            }
+            return lastSecond >= fromSecond && firstSecond < toSecond;
+        }
+    }
+
+    /**
+     * Immutable view of the index; {@code length} is the number of bytes covered,
+     * which always ends after a complete line.
+     */
+    record Snapshot(List<Block> blocks, long length) {
+
+        long blockEnd(int i) {
+            return i + 1 < blocks.size() ? blocks.get(i + 1).offset() : length;
+        }
+    }
+
+    private final Path logFile;
+    private final Path indexFile;
+    private List<Block> blocks = new ArrayList<>();
+    private long indexedLength;
+    private int fingerprintLength;
+    private long fingerprint;
+    private boolean loaded;
+
+    LogFileIndex(Path logFile, Path indexFile) {
+        this.logFile = logFile;
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Brings the index up to date with the file and returns it.
+     */
+    synchronized Snapshot refresh() throws IOException {
+        if (!loaded) {
+            loaded = true;
+            load();
+        }
+        long size = Files.size(logFile);
+        if (size < indexedLength || fingerprint != checksum(fingerprintLength)) {
+            logger.info("Log file {} was rotated or truncated, rebuilding its index", logFile.getFileName());
+            blocks = new ArrayList<>();
+            indexedLength = 0;
+        }
+        if (size > indexedLength) {
+            scan();
+            fingerprintLength = (int) Math.min(FINGERPRINT_BYTES, indexedLength);
+            fingerprint = checksum(fingerprintLength);
+            save();
+        }
+        return new Snapshot(List.copyOf(blocks), indexedLength);
+    }
+
+    private void scan() throws IOException {
+        // The last block may have been cut off at the previous end of file; index it again
+        long start = 0;
+        if (!blocks.isEmpty()) {
+            start = blocks.remove(blocks.size() - 1).offset();
+        }
+        BlockBuilder current = null;
+        LogLineParser parser = new LogLineParser();
+        byte[] line = new byte[HEADER_BYTES];
+        int lineLength = 0;
+        long lineStart = start;
+        long position = start;
+        byte[] chunk = new byte[BLOCK_SIZE];
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ);
+             InputStream in = Channels.newInputStream(channel.position(start))) {
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    byte b = chunk[i];
+                    position++;
+                    if (b != '\n') {
+                        if (lineLength < line.length) {
+                            line[lineLength++] = b;
+                        }
+                        continue;
+                    }
+                    int end = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+                    boolean header = parser.parse(line, 0, end);
+                    if (header && current != null && lineStart - current.offset >= BLOCK_SIZE) {
+                        blocks.add(current.build());
+                        current = null;
+                    }
+                    if (current == null) {
+                        current = new BlockBuilder(lineStart);
+                    }
+                    if (header) {
+                        current.add(parser.epochSecond(), 1 << parser.level());
+                    }
+                    lineLength = 0;
+                    lineStart = position;
+                }
+            }
+        }
+        if (current != null) {
+            blocks.add(current.build());
+        }
+        indexedLength = lineStart;
+    }
+
+    private long checksum(int length) throws IOException {
+        CRC32 crc = new CRC32();
+        if (length > 0) {
+            ByteBuffer head = ByteBuffer.allocate(length);
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+                while (head.hasRemaining() && channel.read(head, head.position()) >= 0) {
+                    // keep reading until the buffer is full or the file ends
+                }
+            }
+            head.flip();
+            crc.update(head);
+        }
+        return crc.getValue();
+    }
+
+    private void load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                logger.info("Ignoring index {} written in an older format", indexFile);
+                return;
+            }
+            long length = in.readLong();
+            int headLength = in.readInt();
+            long head = in.readLong();
+            int count = in.readInt();
+            List<Block> stored = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                stored.add(new Block(in.readLong(), in.readLong(), in.readLong(), in.readInt()));
+            }
+            blocks = stored;
+            indexedLength = length;
+            fingerprintLength = headLength;
+            fingerprint = head;
+        } catch (NoSuchFileException e) {
+            // not indexed yet
+        } catch (IOException e) {
+            logger.warn("Could not read log index {}, rebuilding it: {}", indexFile, e.getMessage());
+        }
+    }
+
+    private void save() {
+        try {
+            Files.createDirectories(indexFile.getParent());
+            Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(indexedLength);
+                out.writeInt(fingerprintLength);
+                out.writeLong(fingerprint);
+                out.writeInt(blocks.size());
+                for (Block block : blocks) {
+                    out.writeLong(block.offset());
+                    out.writeLong(block.firstSecond());
+                    out.writeLong(block.lastSecond());
+                    out.writeInt(block.levels());
+                }
+            }
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The in-memory index still works; it is just rebuilt after a restart
+            logger.warn("Could not write log index {}: {}", indexFile, e.getMessage());
+        }
+    }
+
+    private static final class BlockBuilder {
+        private final long offset;
+        private long firstSecond = Long.MAX_VALUE;
+        private long lastSecond = Long.MIN_VALUE;
+        private int levels;
+
+        BlockBuilder(long offset) {
+            this.offset = offset;
+        }
+
+        void add(long second, int level) {
+            firstSecond = Math.min(firstSecond, second);
+            lastSecond = Math.max(lastSecond, second);
+            levels |= level;
+        }
+
+        Block build() {
+            return new Block(offset, firstSecond, lastSecond, levels);
+        }
+    }
+}
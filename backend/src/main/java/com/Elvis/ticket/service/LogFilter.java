@@ -0,0 +1,117 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.model.LogEntry;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Level, search text and time window filters of the log endpoints. The level and
+ * time are checked on a parsed header before any text is looked at, and the
+ * search is a case-insensitive match against the logger and message.
+ */
+final class LogFilter {
+
+    private static final int ANY_LEVEL = -1;
+    private static final int UNKNOWN_LEVEL = -2;
+
+    private final int level;
+    private final String search;
+    private final long fromSecond;
+    private final long toSecond;
+
+    private LogFilter(int level, String search, long fromSecond, long toSecond) {
+        this.level = level;
+        this.search = search;
+        this.fromSecond = fromSecond;
+        this.toSecond = toSecond;
+    }
+
+    /**
+     * @param level level name, or null, empty or "all" for any level
+     * @param from  inclusive start of the time window, or null
+     * @param to    exclusive end of the time window, or null
+     */
+    static LogFilter of(String level, String search, LocalDateTime from, LocalDateTime to) {
+        return new LogFilter(
+                levelIndex(level),
+                search == null || search.isEmpty() ? null : search,
+                from != null ? toSecond(from) : Long.MIN_VALUE,
+                to != null ? toSecond(to) : Long.MAX_VALUE);
+    }
+
+    static long toSecond(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static int levelIndex(String level) {
+        if (level == null || level.isEmpty() || level.equalsIgnoreCase("all")) {
+            return ANY_LEVEL;
+        }
+        for (int i = 0; i < LogLineParser.LEVELS.length; i++) {
+            if (LogLineParser.LEVELS[i].equalsIgnoreCase(level)) {
+                return i;
+            }
+        }
+        return UNKNOWN_LEVEL;
+    }
+
+    boolean matchesNothing() {
+        return level == UNKNOWN_LEVEL;
+    }
+
+    /**
+     * Level bitmap as stored in {@link LogFileIndex} blocks; 0 means any level.
+     */
+    int levelMask() {
+        return level >= 0 ? 1 << level : 0;
+    }
+
+    long fromSecond() {
+        return fromSecond;
+    }
+
+    long toSecond() {
+        return toSecond;
+    }
+
+    boolean matchesHeader(LogLineParser header) {
+        if (level != ANY_LEVEL && header.level() != level) {
+            return false;
+        }
+        return header.epochSecond() >= fromSecond && header.epochSecond() < toSecond;
+    }
+
+    /**
+     * @param continuation the lines following the header, in any order
+     */
+    boolean matchesText(CharSequence headerLine, LogLineParser header, List<String> continuation) {
+        if (search == null) {
+            return true;
+        }
+        if (LogLineParser.containsIgnoreCase(headerLine, header.messageStart(), headerLine.length(), search)
+                || LogLineParser.containsIgnoreCase(headerLine, header.loggerStart(), header.loggerEnd(), search)) {
+            return true;
+        }
+        for (String line : continuation) {
+            if (LogLineParser.containsIgnoreCase(line, 0, line.length(), search)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean matches(LogEntry entry) {
+        if (level == UNKNOWN_LEVEL || (level != ANY_LEVEL && !LogLineParser.LEVELS[level].equalsIgnoreCase(entry.getLevel()))) {
+            return false;
+        }
+        long second = toSecond(entry.getTimestamp());
+        if (second < fromSecond || second >= toSecond) {
+            return false;
+        }
+        return search == null
+                || LogLineParser.containsIgnoreCase(entry.getMessage(), 0, entry.getMessage().length(), search)
+                || LogLineParser.containsIgnoreCase(entry.getLogger(), 0, entry.getLogger().length(), search);
+    }
+}
@@ -0,0 +1,291 @@
+package com.Elvis.ticket.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Parses header lines of the file appender pattern
+ * {@code %d{yyyy-MM-dd HH:mm:ss} %-5level %logger{36} - %msg} without regular
+ * expressions, date formatters or substrings. A successful {@link #parse} leaves
+ * the fields of the line in this object as numbers and offsets, so callers can
+ * filter on them and only build strings for the entries they keep.
+ * <p>
+ * The accepted grammar matches the regular expression the log viewer used before:
+ * {@code \d{4}-\d{2}-\d{2} \d{2}:\d{2}:\d{2}\s+(INFO|DEBUG|WARN|ERROR|TRACE)\s+[\w.$]+\s+-\s+(.*)},
+ * except that impossible dates such as February 30 are not taken as headers.
+ * Lines are given as a {@link CharSequence}; {@link #parse(byte[], int, int)} reads
+ * raw bytes directly, which is exact because every header field is ASCII.
+ * <p>
+ * Instances are reusable and not thread-safe.
+ */
+final class LogLineParser {
+
+    static final String[] LEVELS = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR"};
+
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private final ByteChars byteChars = new ByteChars();
+
+    private long epochSecond;
+    private int level;
+    private int loggerStart;
+    private int loggerEnd;
+    private int messageStart;
+
+    /**
+     * Parses the bytes {@code [from, to)} of a line without decoding them. Offsets
+     * reported afterwards are byte offsets relative to {@code from}.
+     */
+    boolean parse(byte[] bytes, int from, int to) {
+        byteChars.set(bytes, from, to);
+        return parse(byteChars);
+    }
+
+    boolean parse(CharSequence line) {
+        int length = line.length();
+        if (length < TIMESTAMP_LENGTH + 1) {
+            return false;
+        }
+        int year = digits(line, 0, 4);
+        int month = digits(line, 5, 2);
+        int day = digits(line, 8, 2);
+        int hour = digits(line, 11, 2);
+        int minute = digits(line, 14, 2);
+        int second = digits(line, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59
+                || line.charAt(4) != '-' || line.charAt(7) != '-' || line.charAt(10) != ' '
+                || line.charAt(13) != ':' || line.charAt(16) != ':') {
+            return false;
+        }
+
+        int i = skipWhitespace(line, TIMESTAMP_LENGTH, length);
+        if (i == TIMESTAMP_LENGTH) {
+            return false;
+        }
+        int levelIndex = matchLevel(line, i, length);
+        if (levelIndex < 0) {
+            return false;
+        }
+        i += LEVELS[levelIndex].length();
+        int afterLevel = i;
+        i = skipWhitespace(line, i, length);
+        if (i == afterLevel) {
+            return false;
+        }
+
+        int start = i;
+        while (i < length && isLoggerChar(line.charAt(i))) {
+            i++;
+        }
+        if (i == start) {
+            return false;
+        }
+        int end = i;
+        i = skipWhitespace(line, i, length);
+        if (i == end || i >= length || line.charAt(i) != '-') {
+            return false;
+        }
+        int afterDash = ++i;
+        i = skipWhitespace(line, i, length);
+        if (i == afterDash) {
+            return false;
+        }
+
+        this.epochSecond = epochDay(year, month, day) * 86400L + hour * 3600L + minute * 60L + second;
+        this.level = levelIndex;
+        this.loggerStart = start;
+        this.loggerEnd = end;
+        this.messageStart = i;
+        return true;
+    }
+
+    /**
+     * Seconds since the epoch, reading the logged local time as UTC, as in {@link LogFileIndex}.
+     */
+    long epochSecond() {
+        return epochSecond;
+    }
+
+    LocalDateTime timestamp() {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Index into {@link #LEVELS}; the level bit used by {@link LogFileIndex} is {@code 1 << level()}.
+     */
+    int level() {
+        return level;
+    }
+
+    String levelName() {
+        return LEVELS[level];
+    }
+
+    int loggerStart() {
+        return loggerStart;
+    }
+
+    int loggerEnd() {
+        return loggerEnd;
+    }
+
+    int messageStart() {
+        return messageStart;
+    }
+
+    /**
+     * Case-insensitive substring search in {@code text[from, to)} that compares
+     * characters in place instead of lower-casing copies of the text.
+     */
+    static boolean containsIgnoreCase(CharSequence text, int from, int to, String needle) {
+        int n = needle.length();
+        if (n == 0) {
+            return true;
+        }
+        char firstLower = Character.toLowerCase(needle.charAt(0));
+        char firstUpper = Character.toUpperCase(needle.charAt(0));
+        for (int i = from, last = to - n; i <= last; i++) {
+            char c = text.charAt(i);
+            if ((c == firstLower || c == firstUpper || equalsIgnoreCase(c, firstLower)) && regionMatches(text, i + 1, needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset, String needle) {
+        for (int j = 1; j < needle.length(); j++) {
+            if (!equalsIgnoreCase(text.charAt(offset + j - 1), needle.charAt(j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same rule as String.regionMatches(true, ...)
+    private static boolean equalsIgnoreCase(char a, char b) {
+        if (a == b) {
+            return true;
+        }
+        char upperA = Character.toUpperCase(a);
+        char upperB = Character.toUpperCase(b);
+        return upperA == upperB || Character.toLowerCase(upperA) == Character.toLowerCase(upperB);
+    }
+
+    private static int matchLevel(CharSequence line, int at, int length) {
+        for (int l = 0; l < LEVELS.length; l++) {
+            String name = LEVELS[l];
+            if (at + name.length() <= length && startsWith(line, at, name)) {
+                return l;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(CharSequence line, int at, String prefix) {
+        for (int j = 0; j < prefix.length(); j++) {
+            if (line.charAt(at + j) != prefix.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digits(CharSequence line, int at, int count) {
+        int value = 0;
+        for (int j = at; j < at + count; j++) {
+            char c = line.charAt(j);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int skipWhitespace(CharSequence line, int i, int length) {
+        while (i < length && isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // The regex \s: space, tab, newline, vertical tab, form feed, carriage return
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private static boolean isLoggerChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '.' || c == '$';
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2: return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4: case 6: case 9: case 11: return 30;
+            default: return 31;
+        }
+    }
+
+    // Days since 1970-01-01 for a proleptic Gregorian date
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Read-only view of a byte range as Latin-1 characters.
+     */
+    private static final class ByteChars implements CharSequence {
+        private byte[] bytes;
+        private int from;
+        private int length;
+
+        ByteChars() {
+        }
+
+        private ByteChars(byte[] bytes, int from, int to) {
+            set(bytes, from, to);
+        }
+
+        void set(byte[] bytes, int from, int to) {
+            this.bytes = bytes;
+            this.from = from;
+            this.length = to - from;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+            }
+            return (char) (bytes[from + index] & 0xFF);
+        }
+
+        // A view over the same bytes; it changes with them, like this sequence does
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+            }
+            return new ByteChars(bytes, from + start, from + end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, from, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
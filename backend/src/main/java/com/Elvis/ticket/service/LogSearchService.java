@@ -0,0 +1,224 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.dto.LogSearchEntry;
+import com.Elvis.ticket.model.LogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Searches all log files, including gzip-rotated ones, in one request. Files are
+ * read in parallel on a small shared pool, newest file first, and their matches
+ * are merged by timestamp. Once {@code limit} entries have been found, files and
+ * index blocks that only hold older entries are skipped.
+ */
+@Service
+public class LogSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogSearchService.class);
+
+    private static final String LOG_SUFFIX = ".log";
+    private static final String GZIP_SUFFIX = ".log.gz";
+    // Start time in the names the file appender writes: log-2025-05-18_15-22-25.log
+    private static final DateTimeFormatter FILE_NAME_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private static final Comparator<LogSearchEntry> NEWEST_FIRST = Comparator
+            .comparing(LogSearchEntry::getTimestamp)
+            .thenComparing(LogSearchEntry::getFile)
+            .reversed();
+
+    private final LogService logService;
+    private final ExecutorService executor;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    @Value("${logging.file.path:log}")
+    private String logDirectory;
+
+    public LogSearchService(LogService logService,
+                            @Value("${app.logs.search.parallelism:4}") int parallelism,
+                            @Value("${app.logs.search.default-limit:500}") int defaultLimit,
+                            @Value("${app.logs.search.max-limit:5000}") int maxLimit) {
+        this.logService = logService;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "log-search-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Matching entries across log files, newest first.
+     *
+     * @param files file names to search, or null or empty for all files
+     * @param from  inclusive start of the time window, or null; also skips files that ended before it
+     * @param to    exclusive end of the time window, or null; also skips files that started after it
+     */
+    public List<LogSearchEntry> search(List<String> files, String level, String search,
+                                       LocalDateTime from, LocalDateTime to, Integer limit) {
+        LogFilter filter = LogFilter.of(level, search, from, to);
+        int max = Math.min(limit != null ? limit : defaultLimit, maxLimit);
+        if (filter.matchesNothing() || max <= 0) {
+            return List.of();
+        }
+
+        List<File> candidates = listLogFiles(files);
+        // Files written last are most likely to hold the newest matches, so they go first
+        candidates.sort(Comparator.comparingLong(File::lastModified).reversed());
+
+        NewestEntries newest = new NewestEntries(max);
+        List<Future<?>> tasks = new ArrayList<>(candidates.size());
+        for (File file : candidates) {
+            tasks.add(executor.submit(() -> {
+                searchFile(file, filter, newest);
+                return null;
+            }));
+        }
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                try {
+                    tasks.get(i).get();
+                } catch (ExecutionException e) {
+                    logger.error("Error searching log file: {}", candidates.get(i).getName(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            tasks.forEach(task -> task.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Log search was interrupted");
+        }
+
+        List<LogSearchEntry> entries = newest.toList();
+        logger.info("Log search over {} files returned {} entries", candidates.size(), entries.size());
+        return entries;
+    }
+
+    private List<File> listLogFiles(List<String> names) {
+        File[] files = new File(logDirectory).listFiles();
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        List<File> logFiles = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isFile() && (name.endsWith(LOG_SUFFIX) || name.endsWith(GZIP_SUFFIX))
+                    && (names == null || names.isEmpty() || names.contains(name))) {
+                logFiles.add(file);
+            }
+        }
+        return logFiles;
+    }
+
+    private void searchFile(File file, LogFilter filter, NewestEntries newest) throws IOException {
+        boolean gzip = file.getName().endsWith(GZIP_SUFFIX);
+        long oldestSecond;
+        long newestSecond;
+        if (gzip) {
+            oldestSecond = startSecond(file.getName());
+            newestSecond = LogFilter.toSecond(LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(file.lastModified()), ZoneId.systemDefault()));
+            if (newestSecond < oldestSecond) {
+                // Copied or touched archive; its modification time says nothing about its entries
+                newestSecond = Long.MAX_VALUE;
+            }
+        } else {
+            oldestSecond = Long.MAX_VALUE;
+            newestSecond = Long.MIN_VALUE;
+            for (LogFileIndex.Block block : logService.index(file).blocks()) {
+                oldestSecond = Math.min(oldestSecond, block.firstSecond());
+                newestSecond = Math.max(newestSecond, block.lastSecond());
+            }
+        }
+        if (newestSecond < Math.max(filter.fromSecond(), newest.cutoff()) || oldestSecond >= filter.toSecond()) {
+            return;
+        }
+
+        List<LogEntry> entries = gzip
+                ? logService.readGzipNewestFirst(file, filter, newest.capacity())
+                : logService.readNewestFirst(file, filter, newest.capacity(), newest::cutoff);
+        newest.addAll(file.getName(), entries);
+    }
+
+    private static long startSecond(String fileName) {
+        int start = fileName.indexOf('-') + 1;
+        int end = fileName.length() - GZIP_SUFFIX.length();
+        if (start > 0 && start < end) {
+            try {
+                return LogFilter.toSecond(LocalDateTime.parse(fileName.substring(start, end), FILE_NAME_TIME));
+            } catch (DateTimeParseException e) {
+                // not named by the file appender
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The newest {@code capacity} entries found so far, shared by the file tasks
+     * of one search.
+     */
+    private static final class NewestEntries {
+        private final int capacity;
+        // Oldest kept entry at the head, so it is the one replaced by a newer match
+        private final PriorityQueue<LogSearchEntry> entries = new PriorityQueue<>(NEWEST_FIRST.reversed());
+
+        NewestEntries(int capacity) {
+            this.capacity = capacity;
+        }
+
+        int capacity() {
+            return capacity;
+        }
+
+        /**
+         * Entries older than this second can no longer make it into the result.
+         */
+        synchronized long cutoff() {
+            return entries.size() < capacity ? Long.MIN_VALUE : LogFilter.toSecond(entries.peek().getTimestamp());
+        }
+
+        synchronized void addAll(String file, List<LogEntry> newestFirst) {
+            for (LogEntry entry : newestFirst) {
+                LogSearchEntry candidate = new LogSearchEntry(file, entry);
+                if (entries.size() < capacity) {
+                    entries.add(candidate);
+                } else if (NEWEST_FIRST.compare(candidate, entries.peek()) < 0) {
+                    entries.poll();
+                    entries.add(candidate);
+                }
+            }
+        }
+
+        synchronized List<LogSearchEntry> toList() {
+            List<LogSearchEntry> sorted = new ArrayList<>(entries);
+            sorted.sort(NEWEST_FIRST);
+            return sorted;
+        }
+    }
+}
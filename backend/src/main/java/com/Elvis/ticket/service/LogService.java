@@ -1,5 +1,7 @@
 package com.Elvis.ticket.service;
 
+import com.Elvis.ticket.dto.LogAggregationResponse;
+import com.Elvis.ticket.dto.LogPageResponse;
 import com.Elvis.ticket.model.LogEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,35 +11,44 @@ import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 @Service
 public class LogService {
     private static final Logger logger = LoggerFactory.getLogger(LogService.class);
     
-    // Pattern to match log entries in the format from your log file:
-    // 2025-05-18 15:22:25 INFO  o.h.validator.internal.util.Version - HV000001: Hibernate Validator 8.0.1.Final
-    private static final Pattern LOG_PATTERN = Pattern.compile(
-            "(\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2})\\s+" + // timestamp
-            "(INFO|DEBUG|WARN|ERROR|TRACE)\\s+" +              // log level
-            "([\\w\\.\\$]+)\\s+-\\s+" +                        // logger name
-            "(.*)");                                           // message
-
     // Change this to match your actual log directory
     @Value("${logging.file.path:log}")
     private String logDirectory;
 
+    @Value("${app.logs.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.logs.page.max-size:1000}")
+    private int maxPageSize;
+
+    // Sidecar indexes kept under <log directory>/.index, one per log file
+    private static final String INDEX_DIRECTORY = ".index";
+
+    private final Map<String, LogFileIndex> indexes = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void init() {
         logger.info("LogService initialized");
@@ -108,9 +119,11 @@ public class LogService {
     }
 
     /**
-     * Get log entries from a specific file with optional filtering
+     * Get log entries from a specific file with optional filtering, newest first.
+     * {@code from} is inclusive and {@code to} exclusive; either may be null.
      */
-    public List<LogEntry> getLogContent(String fileName, String level, String search, Integer limit) {
+    public List<LogEntry> getLogContent(String fileName, String level, String search,
+                                        LocalDateTime from, LocalDateTime to, Integer limit) {
         File logFile = new File(logDirectory, fileName);
         logger.info("Attempting to read log file: {}", logFile.getAbsolutePath());
         logger.info("File exists: {}, size: {} bytes", logFile.exists(), logFile.length());
@@ -127,82 +140,274 @@ public class LogService {
             return Collections.emptyList();
         }
         
-        List<LogEntry> entries = new ArrayList<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        // The whole result is held in memory; larger reads go through pages or the NDJSON stream
+        int max = limit != null ? Math.min(limit, maxEntries) : maxEntries;
+        LogFilter filter = LogFilter.of(level, search, from, to);
+        if (filter.matchesNothing() || max <= 0) {
+            return Collections.emptyList();
+        }
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
-            String line;
-            int count = 0;
+        try {
+            List<LogEntry> entries = readNewestFirst(logFile, filter, max, () -> Long.MIN_VALUE);
+            logger.info("Parsed {} log entries from file {}", entries.size(), fileName);
+            return entries;
             
-            while ((line = reader.readLine()) != null) {
-                Matcher matcher = LOG_PATTERN.matcher(line);
+        } catch (IOException e) {
+            logger.error("Error reading log file: {}", fileName, e);
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * One page of matching entries, newest first. Pages are chained by an opaque
+     * cursor holding the byte offset where the previous page stopped, so each page
+     * costs the same however deep into the file it is.
+     *
+     * @param cursor the {@code nextCursor} of the previous page, or null for the first page
+     */
+    public LogPageResponse getLogPage(String fileName, String level, String search,
+                                      LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        List<LogEntry> entries = new ArrayList<>(pageSize);
+        String nextCursor = forEachLogEntry(fileName, level, search, from, to, cursor, entry -> {
+            entries.add(entry);
+            return entries.size() < pageSize;
+        });
+        
+        LogPageResponse page = new LogPageResponse();
+        page.setEntries(entries);
+        page.setNextCursor(nextCursor);
+        return page;
+    }
+    
+    /**
+     * Passes matching entries of a log file to {@code sink}, newest first, until it
+     * returns false or the file has been read, without keeping them.
+     *
+     * @param cursor where to continue a previous read, or null to start at the end
+     * @return the cursor to continue after the last entry passed, or null when no
+     *         older entries are left
+     */
+    public String forEachLogEntry(String fileName, String level, String search, LocalDateTime from,
+                                  LocalDateTime to, String cursor, Predicate<LogEntry> sink) {
+        File logFile = new File(logDirectory, fileName);
+        if (!logFile.isFile()) {
+            throw new RuntimeException("Log file not found");
+        }
+        long endOffset = cursor != null ? decodeCursor(cursor) : Long.MAX_VALUE;
+        LogFilter filter = LogFilter.of(level, search, from, to);
+        if (filter.matchesNothing()) {
+            return null;
+        }
+        
+        try {
+            long next = visitNewestFirst(logFile, filter, endOffset, () -> Long.MIN_VALUE, sink);
+            return next >= 0 ? encodeCursor(next) : null;
+        } catch (IOException e) {
+            logger.error("Error reading log file: {}", fileName, e);
+            return null;
+        }
+    }
+    
+    private static String encodeCursor(long offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(offset).getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    private static long decodeCursor(String cursor) {
+        try {
+            long offset = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+            if (offset >= 0) {
+                return offset;
+            }
+        } catch (IllegalArgumentException e) {
+            // not a cursor this service handed out
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+    
+    /**
+     * Entry counts of a log file by level per minute or hour and by logger, for the
+     * dashboard's error-rate charts. Only the index blocks overlapping the window
+     * are read, in a single pass that does not build log entries.
+     *
+     * @param interval "minute" or "hour"
+     */
+    public LogAggregationResponse aggregate(String fileName, LocalDateTime from, LocalDateTime to,
+                                            String interval, int topLoggers) {
+        long intervalSeconds;
+        switch (interval.toLowerCase()) {
+            case "minute": intervalSeconds = 60; break;
+            case "hour": intervalSeconds = 3600; break;
+            default: throw new IllegalArgumentException("Unknown interval: " + interval);
+        }
+        
+        LogFilter window = LogFilter.of(null, null, from, to);
+        LogAggregator aggregator = new LogAggregator(window, intervalSeconds);
+        File logFile = new File(logDirectory, fileName);
+        if (!logFile.isFile()) {
+            logger.error("Log file does not exist: {}", logFile.getAbsolutePath());
+        } else {
+            try {
+                LogFileIndex.Snapshot index = index(logFile);
+                List<LogFileIndex.Block> blocks = index.blocks();
+                long start = -1;
+                long end = -1;
+                for (int i = 0; i < blocks.size(); i++) {
+                    if (blocks.get(i).mayContain(0, window.fromSecond(), window.toSecond())) {
+                        start = start < 0 ? blocks.get(i).offset() : start;
+                        end = index.blockEnd(i);
+                    }
+                }
+                if (start >= 0) {
+                    aggregator.scan(logFile.toPath(), start, end);
+                }
+            } catch (IOException e) {
+                logger.error("Error reading log file: {}", fileName, e);
+            }
+        }
+        
+        LogAggregationResponse response = aggregator.toResponse(topLoggers);
+        response.setFile(fileName);
+        response.setInterval(interval.toLowerCase());
+        response.setFrom(from);
+        response.setTo(to);
+        return response;
+    }
+    
+    /**
+     * Matching entries of a plain log file, newest first. Blocks whose entries are
+     * all older than {@code cutoff} are skipped; the cutoff is read again before
+     * each block, so a caller can raise it while the file is being read.
+     */
+    List<LogEntry> readNewestFirst(File logFile, LogFilter filter, Integer limit, LongSupplier cutoff) throws IOException {
+        List<LogEntry> entries = new ArrayList<>();
+        if (limit != null && limit <= 0) {
+            return entries;
+        }
+        visitNewestFirst(logFile, filter, Long.MAX_VALUE, cutoff, entry -> {
+            entries.add(entry);
+            return limit == null || entries.size() < limit;
+        });
+        return entries;
+    }
+    
+    /**
+     * Passes the matching entries before byte {@code endOffset} of a plain log file
+     * to {@code sink}, newest first, until it returns false.
+     *
+     * @return the offset of the last entry passed when {@code sink} stopped the
+     *         read, where a following read can continue, or -1 when the start of
+     *         the file was reached
+     */
+    long visitNewestFirst(File logFile, LogFilter filter, long endOffset, LongSupplier cutoff,
+                          Predicate<LogEntry> sink) throws IOException {
+        // Continuation lines (stack traces) precede their header when reading backwards
+        List<String> continuation = new ArrayList<>();
+        LogLineParser parser = new LogLineParser();
+        
+        LogFileIndex.Snapshot index = index(logFile);
+        List<LogFileIndex.Block> blocks = index.blocks();
+        
+        try (ReverseLogReader reader = new ReverseLogReader(logFile.toPath(), Math.min(endOffset, index.length()))) {
+            // Walk the blocks newest first, reading only those that can contain a match
+            for (int i = blocks.size() - 1; i >= 0; i--) {
+                LogFileIndex.Block block = blocks.get(i);
+                long fromSecond = Math.max(filter.fromSecond(), cutoff.getAsLong());
+                if (block.offset() >= endOffset || !block.mayContain(filter.levelMask(), fromSecond, filter.toSecond())) {
+                    continue;
+                }
+                reader.reset(Math.min(index.blockEnd(i), endOffset));
+                continuation.clear();
+                String line;
                 
-                if (matcher.matches()) {
-                    try {
-                        // Parse the log entry
-                        String timestampStr = matcher.group(1);
-                        String logLevel = matcher.group(2);
-                        String loggerName = matcher.group(3);
-                        String message = matcher.group(4);
-                        
-                        LocalDateTime timestamp = LocalDateTime.parse(timestampStr, formatter);
-                        
-                        LogEntry entry = new LogEntry();
-                        entry.setTimestamp(timestamp);
-                        entry.setLevel(logLevel);
-                        entry.setLogger(loggerName);
-                        entry.setThreadName(""); // Thread name not available in this log format
-                        entry.setMessage(message);
-                        
-                        // Apply filters
-                        if (shouldIncludeEntry(entry, level, search)) {
-                            entries.add(entry);
-                            count++;
-                            
-                            // Check if we've reached the limit
-                            if (limit != null && count >= limit) {
-                                break;
-                            }
+                while ((line = reader.readLine()) != null) {
+                    if (!parser.parse(line)) {
+                        continuation.add(line);
+                    } else {
+                        // Filter on the parsed header and build strings only for kept entries
+                        if (filter.matchesHeader(parser) && filter.matchesText(line, parser, continuation)
+                                && !sink.test(toLogEntry(parser, line, continuation))) {
+                            return reader.lineOffset() > 0 ? reader.lineOffset() : -1;
                         }
-                    } catch (DateTimeParseException e) {
-                        logger.warn("Failed to parse timestamp: {}", matcher.group(1), e);
+                        continuation.clear();
                     }
-                } else {
-                    // Line doesn't match our pattern, try to append to the previous entry if possible
-                    if (!entries.isEmpty()) {
-                        LogEntry lastEntry = entries.get(entries.size() - 1);
-                        lastEntry.setMessage(lastEntry.getMessage() + "\n" + line);
+                    if (reader.lineOffset() <= block.offset()) {
+                        break;
                     }
                 }
             }
-            
-            logger.info("Parsed {} log entries from file {}", entries.size(), fileName);
-            return entries;
-            
-        } catch (IOException e) {
-            logger.error("Error reading log file: {}", fileName, e);
-            return Collections.emptyList();
         }
+        return -1;
     }
     
     /**
-     * Check if a log entry should be included based on filters
+     * Matching entries of a gzip-compressed log file, newest first. Compressed
+     * files can only be read forwards, so only the newest {@code limit} matches
+     * are kept while reading.
      */
-    private boolean shouldIncludeEntry(LogEntry entry, String level, String search) {
-        // Filter by level if specified
-        if (level != null && !level.isEmpty() && !level.equalsIgnoreCase("all")) {
-            if (!entry.getLevel().equalsIgnoreCase(level)) {
-                return false;
+    List<LogEntry> readGzipNewestFirst(File logFile, LogFilter filter, int limit) throws IOException {
+        ArrayDeque<LogEntry> newest = new ArrayDeque<>(limit);
+        LogLineParser parser = new LogLineParser();
+        LogEntry pending = null;
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(logFile), 64 * 1024), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!parser.parse(line)) {
+                    if (pending != null) {
+                        pending.setMessage(pending.getMessage() + "\n" + line);
+                    }
+                    continue;
+                }
+                keepNewest(newest, pending, filter, limit);
+                pending = filter.matchesHeader(parser) ? toLogEntry(parser, line, List.of()) : null;
             }
         }
+        keepNewest(newest, pending, filter, limit);
         
-        // Filter by search term if specified
-        if (search != null && !search.isEmpty()) {
-            String searchLower = search.toLowerCase();
-            return entry.getMessage().toLowerCase().contains(searchLower) ||
-                   entry.getLogger().toLowerCase().contains(searchLower);
+        List<LogEntry> entries = new ArrayList<>(newest);
+        Collections.reverse(entries);
+        return entries;
+    }
+    
+    private static void keepNewest(ArrayDeque<LogEntry> newest, LogEntry entry, LogFilter filter, int limit) {
+        if (entry == null || !filter.matches(entry)) {
+            return;
+        }
+        newest.addLast(entry);
+        if (newest.size() > limit) {
+            newest.removeFirst();
+        }
+    }
+    
+    /**
+     * Build an entry from a parsed header line and the continuation lines that
+     * followed it in the file, given in reverse order.
+     */
+    static LogEntry toLogEntry(LogLineParser header, String line, List<String> continuation) {
+        StringBuilder message = new StringBuilder(line.length() - header.messageStart());
+        message.append(line, header.messageStart(), line.length());
+        for (int i = continuation.size() - 1; i >= 0; i--) {
+            message.append('\n').append(continuation.get(i));
         }
         
-        return true;
+        LogEntry entry = new LogEntry();
+        entry.setTimestamp(header.timestamp());
+        entry.setLevel(header.levelName());
+        entry.setLogger(line.substring(header.loggerStart(), header.loggerEnd()));
+        entry.setThreadName(""); // Thread name not available in this log format
+        entry.setMessage(message.toString());
+        return entry;
+    }
+    
+    /**
+     * The up-to-date index of a plain log file.
+     */
+    LogFileIndex.Snapshot index(File logFile) throws IOException {
+        return indexes.computeIfAbsent(logFile.getName(), name ->
+                new LogFileIndex(logFile.toPath(), Paths.get(logDirectory, INDEX_DIRECTORY, name + ".idx")))
+                .refresh();
     }
 }
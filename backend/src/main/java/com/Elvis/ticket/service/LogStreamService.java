@@ -0,0 +1,136 @@
+package com.Elvis.ticket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+/**
+ * Pushes new log entries to admin viewers over Server-Sent Events. All viewers of
+ * a file share one {@link LogTailer}, which is created with the first subscriber
+ * and dropped with the last, so the number of viewers does not change how often
+ * a file is read. Files are read on the scheduler thread; the entries are written
+ * to each viewer from its own bounded queue on a sender thread, and a viewer that
+ * falls behind or whose write stalls past the send timeout is dropped.
+ */
+@Service
+public class LogStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogStreamService.class);
+
+    @Value("${logging.file.path:log}")
+    private String logDirectory;
+
+    @Value("${app.logs.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Value("${app.logs.stream.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${app.logs.stream.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.logs.stream.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    private final Map<String, LogTailer> tailers = new HashMap<>();
+    private long lastHeartbeat = System.currentTimeMillis();
+    private final AtomicInteger senderThreads = new AtomicInteger();
+    private final ExecutorService sender = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "log-stream-" + senderThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Creates the emitter of each stream from its timeout; replaced in tests
+    LongFunction<SseEmitter> emitterFactory = SseEmitter::new;
+
+    public SseEmitter subscribe(String fileName, String level, String search) {
+        File logFile = new File(logDirectory, fileName);
+        if (!logFile.isFile()) {
+            throw new RuntimeException("Log file not found");
+        }
+
+        SseEmitter emitter = emitterFactory.apply(streamTimeoutMs);
+        LogTailer.Subscriber subscriber = new LogTailer.Subscriber(emitter, LogFilter.of(level, search, null, null),
+                queueCapacity, sender);
+        synchronized (tailers) {
+            LogTailer tailer = tailers.get(fileName);
+            if (tailer == null) {
+                try {
+                    tailer = new LogTailer(logFile.toPath());
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not open log file", e);
+                }
+                tailers.put(fileName, tailer);
+                logger.info("Started tailing log file {}", fileName);
+            }
+            tailer.add(subscriber);
+        }
+        emitter.onCompletion(() -> unsubscribe(fileName, subscriber));
+        emitter.onTimeout(() -> unsubscribe(fileName, subscriber));
+        emitter.onError(e -> unsubscribe(fileName, subscriber));
+        return emitter;
+    }
+
+    private void unsubscribe(String fileName, LogTailer.Subscriber subscriber) {
+        subscriber.close();
+        synchronized (tailers) {
+            LogTailer tailer = tailers.get(fileName);
+            if (tailer == null) {
+                return;
+            }
+            tailer.remove(subscriber);
+            if (!tailer.hasSubscribers()) {
+                tailers.remove(fileName);
+                logger.info("Stopped tailing log file {}", fileName);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.logs.stream.poll-interval-ms:500}")
+    public void poll() {
+        LogTailer[] active;
+        synchronized (tailers) {
+            // Viewers dropped as too slow or after a failed send may not have reported completion yet
+            tailers.values().removeIf(tailer -> !tailer.hasSubscribers());
+            if (tailers.isEmpty()) {
+                return;
+            }
+            active = tailers.values().toArray(new LogTailer[0]);
+        }
+        boolean heartbeat = System.currentTimeMillis() - lastHeartbeat >= heartbeatIntervalMs;
+        if (heartbeat) {
+            lastHeartbeat = System.currentTimeMillis();
+        }
+        for (LogTailer tailer : active) {
+            tailer.poll();
+            // Idle connections are otherwise only noticed as closed when the next entry is sent
+            if (heartbeat) {
+                tailer.heartbeat(TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        synchronized (tailers) {
+            tailers.values().forEach(LogTailer::completeAll);
+            tailers.clear();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.model.LogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Follows one log file for all of its viewers. Each poll reads only the bytes
+ * appended since the previous one, parses them once and sends every complete
+ * entry to the subscribers whose filters it matches. An entry is held back until
+ * the next header line or a poll without new data, so continuation lines written
+ * shortly after it are still attached. Entries are only queued here; each
+ * subscriber writes its own queue on a sender thread, so a slow viewer holds up
+ * neither the poll nor the other viewers.
+ */
+class LogTailer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogTailer.class);
+
+    // Upper bound on bytes read per poll; anything beyond is picked up by the next poll
+    private static final int MAX_READ_BYTES = 1024 * 1024;
+
+    private final Path file;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final LogLineParser parser = new LogLineParser();
+    private long position;
+    private LogEntry pending;
+
+    LogTailer(Path file) throws IOException {
+        this.file = file;
+        // New viewers only see what is written from now on
+        this.position = Files.size(file);
+    }
+
+    void add(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    boolean hasSubscribers() {
+        // Viewers whose write failed close themselves and are only removed here
+        subscribers.removeIf(Subscriber::isClosed);
+        return !subscribers.isEmpty();
+    }
+
+    void completeAll() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter().complete();
+        }
+        subscribers.clear();
+    }
+
+    synchronized void poll() {
+        try {
+            long size = Files.size(file);
+            if (size < position) {
+                logger.info("Log file {} was truncated or rotated, following it from the start", file.getFileName());
+                position = 0;
+                pending = null;
+            }
+            if (size == position) {
+                flush();
+                return;
+            }
+            readAppended(size);
+        } catch (IOException e) {
+            logger.warn("Could not tail log file {}: {}", file.getFileName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a keepalive for every subscriber, dropping the ones whose current write has
+     * been stuck for longer than {@code sendTimeoutNanos}.
+     */
+    void heartbeat(long sendTimeoutNanos) {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sendingFor(now) > sendTimeoutNanos) {
+                drop(subscriber);
+            } else {
+                subscriber.enqueue(SseEmitter.event().comment("keepalive"));
+            }
+        }
+    }
+
+    private void readAppended(long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(MAX_READ_BYTES, size - position));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+                // keep reading until the buffer is full or the file ends
+            }
+        }
+        byte[] bytes = buffer.array();
+        int length = buffer.position();
+        int lineStart = 0;
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == '\n') {
+                int end = i > lineStart && bytes[i - 1] == '\r' ? i - 1 : i;
+                accept(new String(bytes, lineStart, end - lineStart, StandardCharsets.UTF_8));
+                lineStart = i + 1;
+            }
+        }
+        // A partial last line is read again once it is complete, unless it fills the whole buffer
+        if (lineStart == 0 && length == MAX_READ_BYTES) {
+            accept(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            lineStart = length;
+        }
+        position += lineStart;
+    }
+
+    private void accept(String line) {
+        if (parser.parse(line)) {
+            flush();
+            pending = LogService.toLogEntry(parser, line, List.of());
+        } else if (pending != null) {
+            pending.setMessage(pending.getMessage() + "\n" + line);
+        }
+    }
+
+    private void flush() {
+        if (pending == null) {
+            return;
+        }
+        LogEntry entry = pending;
+        pending = null;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.filter().matches(entry)) {
+                subscriber.enqueue(SseEmitter.event().name("log").data(entry));
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.drop();
+    }
+
+    /**
+     * One viewer of the file. Events are queued by the polling thread and written by at
+     * most one sender thread at a time, in the order they were queued. A viewer whose
+     * queue fills up is dropped and completed once its write in progress returns.
+     */
+    static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final LogFilter filter;
+        private final Executor sender;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // System.nanoTime() when the current write started, or 0 between writes
+        private volatile long sendingSince;
+        private volatile boolean closed;
+        private volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter, LogFilter filter, int queueCapacity, Executor sender) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.sender = sender;
+            this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        LogFilter filter() {
+            return filter;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!pending.offer(event)) {
+                drop();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        long sendingFor(long now) {
+            long since = sendingSince;
+            return since == 0 ? 0 : now - since;
+        }
+
+        void close() {
+            closed = true;
+            pending.clear();
+        }
+
+        // Completed by the sender thread, as completing waits for a write in progress
+        void drop() {
+            dropped = true;
+            close();
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = pending.poll()) != null) {
+                    sendingSince = System.nanoTime();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // The viewer went away; completion may not be reported until the next write
+                        close();
+                    } finally {
+                        sendingSince = 0;
+                    }
+                }
+                if (dropped) {
+                    emitter.complete();
+                }
+            } finally {
+                draining.set(false);
+            }
+            // An event queued after the last poll but before the flag was cleared
+            if (!closed && !pending.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+    }
+}
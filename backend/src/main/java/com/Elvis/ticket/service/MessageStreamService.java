@@ -0,0 +1,263 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.dto.SessionHistoryResponse;
+import com.Elvis.ticket.dto.TicketHistoryResponse;
+import com.Elvis.ticket.model.SessionMessage;
+import com.Elvis.ticket.model.TicketMessage;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Pushes messages appended to tickets and sessions to open conversation views
+ * over Server-Sent Events, one channel per ticket and per session. Messages are
+ * published once their transaction commits. Each client has its own bounded
+ * queue, drained in order on a background thread, so a slow client holds up
+ * neither the request that appended the message nor the other clients. A client
+ * whose queue fills up, or whose write does not complete within the send
+ * timeout, is dropped and reloads the conversation when it reconnects. Every
+ * event carries the message sequence as its id.
+ */
+@Service
+public class MessageStreamService {
+
+    @Value("${app.messages.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Value("${app.messages.stream.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.messages.stream.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    private final Map<String, Set<Subscriber>> channels = new ConcurrentHashMap<>();
+    // Threads are only held by clients with queued events; a stalled write blocks its own client alone
+    private final AtomicInteger senderThreads = new AtomicInteger();
+    private final ExecutorService sender = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "message-stream-" + senderThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Creates the emitter of each stream from its timeout; replaced in tests
+    LongFunction<SseEmitter> emitterFactory = SseEmitter::new;
+
+    /**
+     * Opens a stream of the messages added to a ticket. {@code missed} loads the messages
+     * the client has not seen yet; it is called once the stream is registered, so nothing
+     * committed in between is lost, and the client skips sequences it already has.
+     */
+    public SseEmitter subscribeToTicket(Long ticketId, Supplier<List<TicketHistoryResponse.Message>> missed) {
+        return subscribe(ticketChannel(ticketId), () -> missed.get().stream()
+                .map(message -> new Message(message.getSequence(), message)).toList());
+    }
+
+    public SseEmitter subscribeToSession(Long sessionId, Supplier<List<SessionHistoryResponse.Message>> missed) {
+        return subscribe(sessionChannel(sessionId), () -> missed.get().stream()
+                .map(message -> new Message(message.getSequence(), message)).toList());
+    }
+
+    public void ticketMessageAdded(Long ticketId, TicketMessage message) {
+        TicketHistoryResponse.Message payload = TicketHistoryResponse.Message.fromTicketMessage(message);
+        publishAfterCommit(ticketChannel(ticketId), new Message(payload.getSequence(), payload));
+    }
+
+    public void sessionMessageAdded(Long sessionId, SessionMessage message) {
+        SessionHistoryResponse.Message payload = SessionHistoryResponse.Message.fromSessionMessage(message);
+        publishAfterCommit(sessionChannel(sessionId), new Message(payload.getSequence(), payload));
+    }
+
+    /**
+     * Publishes messages that were stored without going through {@link #sessionMessageAdded},
+     * by the chat backend.
+     */
+    public void sessionMessagesStored(Long sessionId, List<SessionHistoryResponse.Message> messages) {
+        messages.forEach(message -> publishAfterCommit(sessionChannel(sessionId), new Message(message.getSequence(), message)));
+    }
+
+    private SseEmitter subscribe(String channel, Supplier<List<Message>> missed) {
+        SseEmitter emitter = emitterFactory.apply(streamTimeoutMs);
+        Subscriber subscriber = new Subscriber(channel, emitter);
+        // Added inside compute so a concurrent unsubscribe cannot drop the set in between
+        channels.compute(channel, (key, subscribers) -> {
+            Set<Subscriber> subscribed = subscribers != null ? subscribers : new CopyOnWriteArraySet<>();
+            subscribed.add(subscriber);
+            return subscribed;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        List<Message> catchUp;
+        try {
+            catchUp = missed.get();
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+        catchUp.forEach(message -> subscriber.enqueue(message.toEvent()));
+        return emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        channels.computeIfPresent(subscriber.channel, (key, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private void publishAfterCommit(String channel, Message message) {
+        Runnable publish = () -> publish(channel, message);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    private void publish(String channel, Message message) {
+        Set<Subscriber> subscribers = channels.get(channel);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.enqueue(message.toEvent()));
+        }
+    }
+
+    // Idle connections are otherwise only noticed as closed when the next message is sent
+    @Scheduled(fixedDelayString = "${app.messages.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        channels.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            if (subscriber.sendingFor(now) > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) {
+                subscriber.drop();
+            } else {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        channels.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        channels.clear();
+    }
+
+    private static String ticketChannel(Long ticketId) {
+        return "ticket:" + ticketId;
+    }
+
+    private static String sessionChannel(Long sessionId) {
+        return "session:" + sessionId;
+    }
+
+    /**
+     * One open stream. Events are queued by any thread and written by at most one
+     * sender thread at a time, in the order they were queued.
+     */
+    private final class Subscriber {
+
+        private final String channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // System.nanoTime() when the current write started, or 0 between writes
+        private volatile long sendingSince;
+        private volatile boolean closed;
+        private volatile boolean dropped;
+
+        Subscriber(String channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!pending.offer(event)) {
+                drop();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        long sendingFor(long now) {
+            long since = sendingSince;
+            return since == 0 ? 0 : now - since;
+        }
+
+        void close() {
+            closed = true;
+            pending.clear();
+            unsubscribe(this);
+        }
+
+        // Completed by the sender thread, as completing waits for a write in progress
+        void drop() {
+            dropped = true;
+            close();
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = pending.poll()) != null) {
+                    sendingSince = System.nanoTime();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // The client went away; completion may not be reported until the next write
+                        close();
+                    } finally {
+                        sendingSince = 0;
+                    }
+                }
+                if (dropped) {
+                    emitter.complete();
+                }
+            } finally {
+                draining.set(false);
+            }
+            // An event queued after the last poll but before the flag was cleared
+            if (!closed && !pending.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+    }
+
+    // Event builders accumulate their output when built, so each send builds a fresh one
+    private record Message(long sequence, Object payload) {
+        SseEmitter.SseEventBuilder toEvent() {
+            return SseEmitter.event().id(Long.toString(sequence)).name("message").data(payload);
+        }
+    }
+}
@@ -13,25 +13,27 @@ import java.util.Optional;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final CatalogSnapshot<Product> catalog;
 
     public ProductService(ProductRepository productRepository) {
         this.productRepository = productRepository;
+        this.catalog = new CatalogSnapshot<>(productRepository::findAll, Product::getId);
     }
 
     @Transactional
     public Product createProduct(Product product) {
         product.setCreatedAt(LocalDateTime.now());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        catalog.changed();
+        return saved;
     }
 
-    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return catalog.all();
     }
 
-    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return catalog.byId(id);
     }
 
     @Transactional
@@ -40,6 +42,7 @@ public class ProductService {
                 .map(existingProduct -> {
                     existingProduct.setName(productDetails.getName());
                     existingProduct.setDescription(productDetails.getDescription());
+                    catalog.changed();
                     return productRepository.save(existingProduct);
                 })
                 .orElseThrow(() -> new RuntimeException("Product not found"));
@@ -48,5 +51,6 @@ public class ProductService {
     @Transactional
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        catalog.changed();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.Elvis.ticket.service;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the lines of a file from the end towards the start, loading fixed-size
+ * chunks through a {@link FileChannel}. Only the chunk being split and the part of
+ * a line that straddles a chunk boundary are held in memory, so the cost of
+ * reading the newest lines does not depend on the size of the file.
+ * Lines written after the reader was opened are not returned.
+ */
+class ReverseLogReader implements Closeable {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    // Unread bytes [0, lineEnd) of buffer correspond to file offsets [bufferStart, bufferStart + lineEnd)
+    private byte[] buffer;
+    private long bufferStart;
+    private int lineEnd;
+    private boolean finished;
+    private long lineOffset = -1;
+
+    ReverseLogReader(Path file) throws IOException {
+        this(file, -1);
+    }
+
+    /**
+     * @param endOffset read only the lines that end before this byte offset, or the whole file if negative
+     */
+    ReverseLogReader(Path file, long endOffset) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            reset(endOffset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Discards any buffered data and continues with the lines that end before {@code endOffset}.
+     */
+    void reset(long endOffset) throws IOException {
+        long size = channel.size();
+        buffer = new byte[0];
+        lineEnd = 0;
+        lineOffset = -1;
+        bufferStart = endOffset < 0 ? size : Math.min(endOffset, size);
+        finished = bufferStart == 0;
+        // A newline at the end terminates the last line rather than starting an empty one
+        if (!finished) {
+            fill();
+            if (buffer[lineEnd - 1] == '\n') {
+                lineEnd--;
+            }
+        }
+    }
+
+    /**
+     * Returns the previous line without its terminator, or null once the start of the file is reached.
+     */
+    String readLine() throws IOException {
+        while (true) {
+            for (int i = lineEnd - 1; i >= 0; i--) {
+                if (buffer[i] == '\n') {
+                    String line = decode(i + 1, lineEnd);
+                    lineOffset = bufferStart + i + 1;
+                    lineEnd = i;
+                    return line;
+                }
+            }
+            if (bufferStart > 0) {
+                fill();
+                continue;
+            }
+            if (finished) {
+                return null;
+            }
+            finished = true;
+            lineOffset = 0;
+            String line = decode(0, lineEnd);
+            lineEnd = 0;
+            return line;
+        }
+    }
+
+    /**
+     * Byte offset of the first character of the line last returned by {@link #readLine()}.
+     */
+    long lineOffset() {
+        return lineOffset;
+    }
+
+    private void fill() throws IOException {
+        int length = (int) Math.min(CHUNK_SIZE, bufferStart);
+        byte[] next = new byte[length + lineEnd];
+        ByteBuffer target = ByteBuffer.wrap(next, 0, length);
+        long position = bufferStart - length;
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + target.position());
+            if (read < 0) {
+                throw new EOFException("Log file was truncated while reading");
+            }
+        }
+        System.arraycopy(buffer, 0, next, length, lineEnd);
+        buffer = next;
+        bufferStart = position;
+        lineEnd += length;
+    }
+
+    private String decode(int from, int to) {
+        if (to > from && buffer[to - 1] == '\r') {
+            to--;
+        }
+        return new String(buffer, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
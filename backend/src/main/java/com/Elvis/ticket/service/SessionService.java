@@ -1,12 +1,20 @@
 package com.Elvis.ticket.service;
 
+import com.Elvis.ticket.config.RetryOnOptimisticLock;
+import com.Elvis.ticket.dto.SessionAccess;
+import com.Elvis.ticket.dto.SessionHistoryResponse;
+import com.Elvis.ticket.dto.SessionListResponse;
 import com.Elvis.ticket.model.Session;
+import com.Elvis.ticket.model.SessionMessage;
 import com.Elvis.ticket.model.User;
 import com.Elvis.ticket.model.SessionStatus;
+import com.Elvis.ticket.repository.SessionMessageRepository;
 import com.Elvis.ticket.repository.SessionRepository;
 import com.Elvis.ticket.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -14,24 +22,34 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 public class SessionService {
 
     private static final Logger logger = LoggerFactory.getLogger(SessionService.class);
 
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+
     private final SessionRepository sessionRepository;
     private final UserRepository userRepository;
+    private final SessionMessageRepository sessionMessageRepository;
+    private final MessageStreamService messageStreamService;
     private final ObjectMapper objectMapper;
 
-    public SessionService(SessionRepository sessionRepository, UserRepository userRepository) {
+    public SessionService(SessionRepository sessionRepository, UserRepository userRepository,
+                          SessionMessageRepository sessionMessageRepository, MessageStreamService messageStreamService) {
         this.sessionRepository = sessionRepository;
         this.userRepository = userRepository;
+        this.sessionMessageRepository = sessionMessageRepository;
+        this.messageStreamService = messageStreamService;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -53,23 +71,10 @@ public class SessionService {
             session.setConversationFilePath(generateConversationFilePath(session));
         }
         
-        // Initialize empty history with a default message
-        try {
-            List<Map<String, String>> initialHistory = new ArrayList<>();
-            Map<String, String> welcomeMessage = new HashMap<>();
-            welcomeMessage.put("role", "assistant");
-            welcomeMessage.put("content", "Welcome to TechCare AI Support! How can I help you today?");
-            welcomeMessage.put("timestamp", LocalDateTime.now().toString());
-            initialHistory.add(welcomeMessage);
-            
-            session.setHistory(objectMapper.writeValueAsString(initialHistory));
-            logger.info("Initialized session history: {}", session.getHistory());
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to initialize session history", e);
-            throw new RuntimeException("Failed to initialize session history", e);
-        }
-        
         Session saved = sessionRepository.save(session);
+        // Seed the conversation with a default message
+        sessionMessageRepository.save(new SessionMessage(saved, 1, "assistant",
+                "Welcome to TechCare AI Support! How can I help you today?", saved.getStartTime()));
         logger.info("Session saved with ID: {} for user ID: {}", saved.getId(), saved.getUser().getId());
         return saved;
     }
@@ -84,30 +89,65 @@ public class SessionService {
         return sessionRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<Long> getSessionVersion(Long id) {
+        return sessionRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SessionAccess> getSessionAccess(Long id) {
+        return sessionRepository.findAccessById(id);
+    }
+
     @Transactional(readOnly = true)
     public List<Session> getSessionsByUserId(Long userId) {
         return sessionRepository.findByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
+    public List<SessionListResponse> getSessionListItems() {
+        return sessionRepository.findAllListItems();
+    }
+
+    @Transactional(readOnly = true)
+    public List<SessionListResponse> getSessionListItemsByUserId(Long userId) {
+        return sessionRepository.findListItemsByUserId(userId);
+    }
+
+    /**
+     * Update the editable fields of a session. The conversation is not one of them: the
+     * legacy history column is only written by the migration, and messages are appended
+     * through {@link #addMessageToHistory}.
+     */
+    @RetryOnOptimisticLock
     @Transactional
-    public Session updateSession(Session session) {
-        if (!sessionRepository.existsById(session.getId())) {
-            throw new RuntimeException("Session not found");
-        }
+    public Session updateSession(Long id, Session sessionDetails) {
+        Session existing = sessionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Session not found"));
         
         // Validate user if changed
-        if (session.getUser() != null) {
-            User user = userRepository.findById(session.getUser().getId())
+        if (sessionDetails.getUser() != null) {
+            User user = userRepository.findById(sessionDetails.getUser().getId())
                     .orElseThrow(() -> new RuntimeException("User not found"));
-            session.setUser(user);
+            existing.setUser(user);
+        }
+        if (sessionDetails.getStatus() != null) {
+            existing.setStatus(sessionDetails.getStatus());
+        }
+        existing.setTitle(sessionDetails.getTitle());
+        existing.setEndTime(sessionDetails.getEndTime());
+        if (sessionDetails.getConversationFilePath() != null) {
+            existing.setConversationFilePath(sessionDetails.getConversationFilePath());
         }
+        existing.setTicketSession(sessionDetails.isTicketSession());
         
         // Update last activity
-        session.setLastActivity(LocalDateTime.now());
+        existing.setLastActivity(LocalDateTime.now());
         
-        return sessionRepository.save(session);
+        return sessionRepository.save(existing);
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public Session closeSession(Long id) {
         return sessionRepository.findById(id)
@@ -125,6 +165,7 @@ public class SessionService {
         if (!sessionRepository.existsById(id)) {
             throw new RuntimeException("Session not found");
         }
+        sessionMessageRepository.deleteBySessionId(id);
         sessionRepository.deleteById(id);
     }
 
@@ -149,6 +190,7 @@ public class SessionService {
         return sessionRepository.findByLastActivityBefore(threshold);
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public void updateLastActivity(Long id) {
         Session session = sessionRepository.findById(id)
@@ -157,39 +199,120 @@ public class SessionService {
         sessionRepository.save(session);
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public Session endSession(Long id) {
         return closeSession(id);
     }
 
+    /**
+     * Append a message to a session. The last_activity update runs first so it takes the
+     * session row lock, serialising concurrent appends before the next sequence is read.
+     */
+    @Transactional
+    public SessionMessage addMessageToHistory(Long sessionId, String role, String content) {
+        LocalDateTime now = LocalDateTime.now();
+        if (sessionRepository.updateLastActivity(sessionId, now) == 0) {
+            throw new RuntimeException("Session not found");
+        }
+        long sequence = sessionMessageRepository.findMaxSequenceBySessionId(sessionId) + 1;
+        SessionMessage message = new SessionMessage(sessionRepository.getReferenceById(sessionId), sequence, role, content, now);
+        logger.debug("Adding message {} to session {}", sequence, sessionId);
+        SessionMessage saved = sessionMessageRepository.save(message);
+        messageStreamService.sessionMessageAdded(sessionId, saved);
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public SessionHistoryResponse getSessionHistory(Long sessionId) {
+        try (Stream<SessionMessage> messages = sessionMessageRepository.streamBySessionId(sessionId)) {
+            return SessionHistoryResponse.fromMessages(sessionId, messages);
+        }
+    }
+
+    /**
+     * Publishes to the session's streams the messages after {@code after} that the chat
+     * backend stored in session_messages itself.
+     */
+    @Transactional(readOnly = true)
+    public void publishStoredMessages(Session session, long after) {
+        messageStreamService.sessionMessagesStored(session.getId(),
+                getSessionHistory(session.getId(), after, null, MAX_HISTORY_PAGE_SIZE).getMessages());
+    }
+
+    /**
+     * Cursor-paginated history. {@code after} returns the messages following that sequence in
+     * ascending order; {@code before} returns the newest messages preceding it; {@code limit}
+     * alone returns the latest messages. {@code after} and {@code before} cannot be combined.
+     * Without any parameter the full conversation is returned.
+     */
+    @Transactional(readOnly = true)
+    public SessionHistoryResponse getSessionHistory(Long sessionId, Long after, Long before, Integer limit) {
+        if (after == null && before == null && limit == null) {
+            return getSessionHistory(sessionId);
+        }
+        if (after != null && before != null) {
+            throw new IllegalArgumentException("after and before cannot be combined");
+        }
+        int pageSize = limit == null ? DEFAULT_HISTORY_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<SessionMessage> messages = after != null
+                ? sessionMessageRepository.findPageAfter(sessionId, after, page)
+                : sessionMessageRepository.findPageBefore(sessionId, before != null ? before : Long.MAX_VALUE, page);
+        boolean hasMore = messages.size() > pageSize;
+        messages = new ArrayList<>(hasMore ? messages.subList(0, pageSize) : messages);
+        if (after == null) {
+            Collections.reverse(messages);
+        }
+        return SessionHistoryResponse.fromMessages(sessionId, messages, hasMore);
+    }
+
+    /**
+     * Move the legacy JSON history blob of a session into session_messages and clear the column.
+     */
     @Transactional
-    public Session addMessageToHistory(Long sessionId, String role, String content) {
+    public void backfillLegacyHistory(Long sessionId) {
         Session session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new RuntimeException("Session not found"));
-        
-        try {
-            List<Map<String, String>> history;
-            if (session.getHistory() != null && !session.getHistory().isEmpty()) {
-                history = objectMapper.readValue(session.getHistory(), new TypeReference<List<Map<String, String>>>() {});
-            } else {
-                history = new ArrayList<>();
+        if (session.getHistory() == null) {
+            return;
+        }
+        if (!session.getHistory().isEmpty()) {
+            List<Map<String, Object>> entries;
+            try {
+                entries = objectMapper.readValue(session.getHistory(), new TypeReference<List<Map<String, Object>>>() {});
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Failed to parse history of session " + sessionId, e);
+            }
+            long sequence = sessionMessageRepository.findMaxSequenceBySessionId(sessionId);
+            List<SessionMessage> messages = new ArrayList<>();
+            for (Map<String, Object> entry : entries) {
+                String role = entry.get("role") != null ? entry.get("role").toString() : "user";
+                String content = entry.get("content") != null ? entry.get("content").toString() : "";
+                messages.add(new SessionMessage(session, ++sequence, role, content,
+                        parseLegacyTimestamp(entry.get("timestamp"), session.getStartTime())));
+            }
+            sessionMessageRepository.saveAll(messages);
+        }
+        session.setHistory(null);
+        sessionRepository.save(session);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> getSessionIdsWithLegacyHistory() {
+        return sessionRepository.findIdsWithLegacyHistory();
+    }
+
+    private static LocalDateTime parseLegacyTimestamp(Object value, LocalDateTime fallback) {
+        if (value != null) {
+            try {
+                return LocalDateTime.parse(value.toString());
+            } catch (DateTimeParseException e) {
+                // fall through to the fallback below
             }
-            
-            Map<String, String> newMessage = new HashMap<>();
-            newMessage.put("role", role);
-            newMessage.put("content", content);
-            newMessage.put("timestamp", LocalDateTime.now().toString());
-            history.add(newMessage);
-            
-            session.setHistory(objectMapper.writeValueAsString(history));
-            session.setLastActivity(LocalDateTime.now());
-            
-            logger.info("Added message to session {} history: {}", sessionId, content);
-            return sessionRepository.save(session);
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to update session history", e);
-            throw new RuntimeException("Failed to update session history", e);
         }
+        return fallback != null ? fallback : LocalDateTime.now();
     }
 
     private String generateConversationFilePath(Session session) {
@@ -198,6 +321,7 @@ public class SessionService {
             LocalDateTime.now().toString().replace(":", "-"));
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public Session updateSessionTitleOnly(Long id, String newTitle) {
         Session session = sessionRepository.findById(id)
@@ -1,5 +1,6 @@
 package com.Elvis.ticket.service;
 
+import com.Elvis.ticket.config.RetryOnOptimisticLock;
 import com.Elvis.ticket.model.Ticket;
 import com.Elvis.ticket.model.TicketStatus;
 import com.Elvis.ticket.model.CustomerRole;
@@ -9,12 +10,10 @@ import com.Elvis.ticket.model.Customer;
 import com.Elvis.ticket.model.Product;
 import com.Elvis.ticket.model.TicketType;
 import com.Elvis.ticket.model.TeslaModel;
-import com.Elvis.ticket.model.User;
 import com.Elvis.ticket.repository.TicketRepository;
 import com.Elvis.ticket.repository.EngineerRepository;
 import com.Elvis.ticket.repository.CustomerRepository;
 import com.Elvis.ticket.repository.ProductRepository;
-import com.Elvis.ticket.repository.TicketTypeRepository;
 import com.Elvis.ticket.repository.SessionRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +21,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 import com.Elvis.ticket.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import java.util.*;
 
@@ -35,6 +35,18 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import com.Elvis.ticket.model.ServilityLevel;
+import com.Elvis.ticket.model.TicketMessage;
+import com.Elvis.ticket.repository.TicketMessageRepository;
+import com.Elvis.ticket.dto.TicketAccess;
+import com.Elvis.ticket.dto.TicketHistoryResponse;
+import com.Elvis.ticket.dto.TicketSearchCriteria;
+import com.Elvis.ticket.dto.TicketSummaryResponse;
+import com.Elvis.ticket.repository.TicketSpecifications;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import java.time.format.DateTimeParseException;
 
 @Service
 public class TicketService {
@@ -42,27 +54,46 @@ public class TicketService {
     private final EngineerRepository engineerRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
-    private final TicketTypeRepository ticketTypeRepository;
+    private final TicketTypeService ticketTypeService;
     private final SessionRepository sessionRepository;
     private final UserService userService;
     private final TicketAttachmentRepository ticketAttachmentRepository;
+    private final TicketMessageRepository ticketMessageRepository;
+    private final EngineerCapacityIndex engineerCapacityIndex;
+    private final EngineerService engineerService;
+    private final MessageStreamService messageStreamService;
+
+    private static final ObjectMapper HISTORY_MAPPER = new ObjectMapper();
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "title", "status", "urgency", "category",
+            "servilityLevel", "createdAt", "updatedAt", "resolvedAt", "lastResponseTime");
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
 
     public TicketService(TicketRepository ticketRepository, 
                         EngineerRepository engineerRepository,
                         CustomerRepository customerRepository,
                         ProductRepository productRepository,
-                        TicketTypeRepository ticketTypeRepository,
+                        TicketTypeService ticketTypeService,
                         SessionRepository sessionRepository,
                         UserService userService,
-                        TicketAttachmentRepository ticketAttachmentRepository) {
+                        TicketAttachmentRepository ticketAttachmentRepository,
+                        TicketMessageRepository ticketMessageRepository,
+                        EngineerCapacityIndex engineerCapacityIndex,
+                        EngineerService engineerService,
+                        MessageStreamService messageStreamService) {
         this.ticketRepository = ticketRepository;
         this.engineerRepository = engineerRepository;
         this.customerRepository = customerRepository;
         this.productRepository = productRepository;
-        this.ticketTypeRepository = ticketTypeRepository;
+        this.ticketTypeService = ticketTypeService;
         this.sessionRepository = sessionRepository;
         this.userService = userService;
         this.ticketAttachmentRepository = ticketAttachmentRepository;
+        this.ticketMessageRepository = ticketMessageRepository;
+        this.engineerCapacityIndex = engineerCapacityIndex;
+        this.engineerService = engineerService;
+        this.messageStreamService = messageStreamService;
     }
 
     @Transactional
@@ -80,7 +111,7 @@ public class TicketService {
         // Validate all foreign key references exist
         Customer customer = customerRepository.findById(ticket.getCustomer().getId())
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
-        TicketType type = ticketTypeRepository.findById(ticket.getType().getId())
+        TicketType type = ticketTypeService.getTicketTypeById(ticket.getType().getId())
                 .orElseThrow(() -> new RuntimeException("Ticket type not found"));
         Session session = sessionRepository.findById(ticket.getSession().getId())
                 .orElseThrow(() -> new RuntimeException("Session not found"));
@@ -88,42 +119,25 @@ public class TicketService {
         ticket.setCustomer(customer);
         ticket.setType(type);
         ticket.setSession(session);
+        // Reject malformed history supplied with the request before taking an engineer slot
+        List<Map<String, Object>> legacyHistory = ticket.getHistory() != null && !ticket.getHistory().isEmpty()
+                ? parseLegacyHistory(ticket.getHistory())
+                : List.of();
         // --- Engineer assignment logic ---
         if (ticket.getEngineer() == null || ticket.getEngineer().getId() == null) {
             TeslaModel category = ticket.getCategory();
             Engineer assignedEngineer = null;
-            List<Engineer> availableEngineers = null;
             if (category != null) {
-                // Use only available engineers (currentTickets < maxTickets) and level 1
-                availableEngineers = engineerRepository.findByCategoryAndCurrentTicketsLessThanMaxTickets(category)
-                    .stream().filter(e -> e.getLevel() == 1).toList();
+                // Least loaded level 1 engineer of the ticket's category
+                assignedEngineer = reserveAvailableEngineer(category, 1);
             }
-            if (availableEngineers != null && !availableEngineers.isEmpty()) {
-                // Find the engineer with the least currentTickets
-                assignedEngineer = availableEngineers.get(0);
-                for (Engineer eng : availableEngineers) {
-                    if (eng.getCurrentTickets() < assignedEngineer.getCurrentTickets()) {
-                        assignedEngineer = eng;
-                    }
-                }
-            } else {
-                // Fallback: get all available level 1 engineers and pick the one with the least tickets
-                List<Engineer> allLevel1 = engineerRepository.findByLevel(1)
-                    .stream().filter(e -> e.getCurrentTickets() < e.getMaxTickets()).toList();
-                if (allLevel1 != null && !allLevel1.isEmpty()) {
-                    assignedEngineer = allLevel1.get(0);
-                    for (Engineer eng : allLevel1) {
-                        if (eng.getCurrentTickets() < assignedEngineer.getCurrentTickets()) {
-                            assignedEngineer = eng;
-                        }
-                    }
-                }
+            if (assignedEngineer == null) {
+                // Fallback: least loaded level 1 engineer of any category
+                assignedEngineer = reserveAvailableEngineer(null, 1);
             }
             if (assignedEngineer != null) {
                 ticket.setEngineer(assignedEngineer);
                 ticket.setCategory(assignedEngineer.getCategory());
-                assignedEngineer.setCurrentTickets(assignedEngineer.getCurrentTickets() + 1);
-                engineerRepository.save(assignedEngineer);
                 ticket.setStatus(TicketStatus.IN_PROGRESS);
             } else {
                 throw new RuntimeException("No available engineer found for this product category.");
@@ -135,46 +149,53 @@ public class TicketService {
             ticket.setEngineer(engineer);
             ticket.setCategory(engineer.getCategory());
             // Increment engineer's currentTickets
-            engineer.setCurrentTickets(engineer.getCurrentTickets() + 1);
-            engineerRepository.save(engineer);
+            if (!engineerService.tryReserveTicket(engineer)) {
+                throw new RuntimeException("Engineer has reached maximum ticket capacity");
+            }
         }
         // Set timestamps
         ticket.setCreatedAt(LocalDateTime.now());
         ticket.setUpdatedAt(LocalDateTime.now());
+        ticket.setHistory(null);
         Ticket savedTicket = ticketRepository.save(ticket);
+        // Carry over any history supplied with the request into the message store
+        importLegacyHistory(savedTicket, legacyHistory);
         // Add engineer welcome message to ticket history
         if (ticket.getEngineer() != null && ticket.getCustomer() != null) {
             Engineer engineer = ticket.getEngineer();
             String engineerName = engineer.getUser().getName();
             String customerName = customer.getUser().getName();
             String text = String.format("Hi %s, I am %s. I will be helping you to solve your problem, please let me have a look at the problem first.", customerName, engineerName);
-            ObjectMapper mapper = new ObjectMapper();
-            List<Map<String, Object>> ticketHistory = new ArrayList<>();
-            try {
-                if (savedTicket.getHistory() != null && !savedTicket.getHistory().isEmpty()) {
-                    ticketHistory = mapper.readValue(savedTicket.getHistory(), new TypeReference<List<Map<String, Object>>>() {});
-                }
-            } catch (Exception e) {
-                ticketHistory = new ArrayList<>();
+            appendMessage(savedTicket, "engineer", text, LocalDateTime.now());
+        }
+        return savedTicket;
+    }
+
+    /**
+     * Page through ticket summaries matching the given filters. Sorting is limited to
+     * ticket columns and always ends with the id so pages stay stable; without an
+     * explicit sort the newest tickets come first.
+     */
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryResponse> searchTickets(TicketSearchCriteria criteria, Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort tickets by " + order.getProperty());
             }
-            Map<String, Object> engineerMsg = new HashMap<>();
-            engineerMsg.put("role", "engineer");
-            engineerMsg.put("content", text);
-            engineerMsg.put("timestamp", java.time.LocalDateTime.now().toString());
-            ticketHistory.add(engineerMsg);
-            try {
-                savedTicket.setHistory(mapper.writeValueAsString(ticketHistory));
-                ticketRepository.save(savedTicket);
-            } catch (Exception e) {
-                // handle error
+        }
+        if (pageable.isPaged()) {
+            Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : DEFAULT_SORT;
+            if (sort.getOrderFor("id") == null) {
+                sort = sort.and(Sort.by("id"));
             }
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
         }
-        return savedTicket;
+        return ticketRepository.searchSummaries(TicketSpecifications.matching(criteria), pageable);
     }
 
     @Transactional(readOnly = true)
-    public List<Ticket> getAllTickets() {
-        return ticketRepository.findAll();
+    public Page<TicketSummaryResponse> getAllTickets(Pageable pageable) {
+        return searchTickets(new TicketSearchCriteria(), pageable);
     }
 
     @Transactional(readOnly = true)
@@ -183,43 +204,59 @@ public class TicketService {
     }
 
     @Transactional(readOnly = true)
-    public List<Ticket> getTicketsByCustomerId(Long customerId) {
-        return ticketRepository.findByCustomerId(customerId);
+    public Optional<Long> getTicketVersion(Long id) {
+        return ticketRepository.findVersionById(id);
     }
 
     @Transactional(readOnly = true)
-    public List<Ticket> getTicketsByEngineerId(Long engineerId) {
-        return ticketRepository.findByEngineerId(engineerId);
+    public Optional<TicketAccess> getTicketAccess(Long id) {
+        return ticketRepository.findAccessById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryResponse> getTicketsByCustomerId(Long customerId, Pageable pageable) {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setCustomerId(customerId);
+        return searchTickets(criteria, pageable);
     }
 
-    public List<Ticket> getTicketsByStatus(TicketStatus status) {
-        return ticketRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryResponse> getTicketsByEngineerId(Long engineerId, Pageable pageable) {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setEngineerId(engineerId);
+        return searchTickets(criteria, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryResponse> getTicketsByStatus(TicketStatus status, Pageable pageable) {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setStatus(List.of(status));
+        return searchTickets(criteria, pageable);
+    }
+
+    @RetryOnOptimisticLock
     @Transactional
     public Ticket assignTicket(Long ticketId, Long engineerId) {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
         Engineer newEngineer = engineerRepository.findById(engineerId)
                 .orElseThrow(() -> new RuntimeException("Engineer not found"));
-        if (newEngineer.getCurrentTickets() >= newEngineer.getMaxTickets()) {
+        if (!engineerService.tryReserveTicket(newEngineer)) {
             throw new RuntimeException("Engineer has reached maximum ticket capacity");
         }
         Engineer oldEngineer = ticket.getEngineer();
         if (oldEngineer != null && !oldEngineer.getId().equals(newEngineer.getId())) {
             // Decrement old engineer's ticket count
-            oldEngineer.setCurrentTickets(oldEngineer.getCurrentTickets() - 1);
-            engineerRepository.save(oldEngineer);
+            engineerService.releaseTicket(oldEngineer);
         }
         ticket.setEngineer(newEngineer);
         ticket.setCategory(newEngineer.getCategory());
         ticket.setStatus(TicketStatus.IN_PROGRESS);
         ticket.setUpdatedAt(LocalDateTime.now());
-        newEngineer.setCurrentTickets(newEngineer.getCurrentTickets() + 1);
-        engineerRepository.save(newEngineer);
         return ticketRepository.save(ticket);
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public Ticket updateTicketStatus(Long ticketId, TicketStatus status) {
         Ticket ticket = ticketRepository.findById(ticketId)
@@ -229,16 +266,14 @@ public class TicketService {
             ticket.setResolvedAt(LocalDateTime.now());
             if (ticket.getEngineer() != null) {
                 Engineer engineer = ticket.getEngineer();
-                engineer.setCurrentTickets(engineer.getCurrentTickets() - 1);
-                engineerRepository.save(engineer);
+                engineerService.releaseTicket(engineer);
                 // ticket.setEngineer(null); // <-- Do NOT remove engineer assignment
             }
         } else if (status == TicketStatus.CLOSED) {
             ticket.setStatus(TicketStatus.CLOSED);
             if (ticket.getEngineer() != null) {
                 Engineer engineer = ticket.getEngineer();
-                engineer.setCurrentTickets(engineer.getCurrentTickets() - 1);
-                engineerRepository.save(engineer);
+                engineerService.releaseTicket(engineer);
                 // ticket.setEngineer(null); // <-- Do NOT remove engineer assignment
             }
         } else if (status == TicketStatus.IN_PROGRESS) {
@@ -252,6 +287,7 @@ public class TicketService {
         return ticketRepository.save(ticket);
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public Ticket updateTicketUrgency(Long ticketId, String urgency) {
         Ticket ticket = ticketRepository.findById(ticketId)
@@ -263,6 +299,7 @@ public class TicketService {
         return ticketRepository.save(ticket);
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public Ticket updateTicket(Long id, Ticket ticketDetails) {
         return ticketRepository.findById(id)
@@ -270,7 +307,7 @@ public class TicketService {
                     // Validate and update ticket type if changed
                     if (ticketDetails.getType() != null && 
                         !ticketDetails.getType().getId().equals(existingTicket.getType().getId())) {
-                        TicketType type = ticketTypeRepository.findById(ticketDetails.getType().getId())
+                        TicketType type = ticketTypeService.getTicketTypeById(ticketDetails.getType().getId())
                                 .orElseThrow(() -> new RuntimeException("Ticket type not found"));
                         existingTicket.setType(type);
                     }
@@ -288,21 +325,32 @@ public class TicketService {
 
     @Transactional
     public void deleteTicket(Long id) {
+        ticketMessageRepository.deleteByTicketId(id);
         ticketRepository.deleteById(id);
     }
 
-    public List<Ticket> getTicketsByUrgency(CustomerRole urgency) {
-        return ticketRepository.findByUrgency(urgency);
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryResponse> getTicketsByUrgency(CustomerRole urgency, Pageable pageable) {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setUrgency(urgency.name());
+        return searchTickets(criteria, pageable);
     }
 
-    public List<Ticket> getTicketsByCategory(TeslaModel category) {
-        return ticketRepository.findByCategory(category);
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryResponse> getTicketsByCategory(TeslaModel category, Pageable pageable) {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setCategory(category);
+        return searchTickets(criteria, pageable);
     }
 
-    public List<Ticket> getTicketsByType(Long typeId) {
-        return ticketRepository.findByTypeId(typeId);
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryResponse> getTicketsByType(Long typeId, Pageable pageable) {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setTypeId(typeId);
+        return searchTickets(criteria, pageable);
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public Ticket escalateTicket(Long ticketId) {
         return ticketRepository.findById(ticketId)
@@ -317,34 +365,20 @@ public class TicketService {
                     if (nextLevel > 3) {
                         throw new RuntimeException("This ticket is already assigned to the highest level engineer and cannot be escalated further.");
                     }
-                    List<Engineer> nextLevelEngineers = engineerRepository.findByCategoryAndLevel(category, nextLevel)
-                        .stream()
-                        .filter(e -> e.getCurrentTickets() < e.getMaxTickets())
-                        .toList();
-                    if (nextLevelEngineers.isEmpty()) {
+                    Engineer newEngineer = reserveAvailableEngineer(category, nextLevel);
+                    if (newEngineer == null) {
                         // No available higher-level engineer, set status to ESCALATED and keep current engineer
                         ticket.setStatus(TicketStatus.ESCALATED);
                         ticket.setUpdatedAt(LocalDateTime.now());
                         return ticketRepository.save(ticket);
                     }
-                    // Select the engineer with the least current tickets
-                    Engineer newEngineer = nextLevelEngineers.get(0);
-                    for (Engineer eng : nextLevelEngineers) {
-                        if (eng.getCurrentTickets() < newEngineer.getCurrentTickets()) {
-                            newEngineer = eng;
-                        }
-                    }
                     // Decrement old engineer's ticket count
-                    currentEngineer.setCurrentTickets(currentEngineer.getCurrentTickets() - 1);
-                    engineerRepository.save(currentEngineer);
+                    engineerService.releaseTicket(currentEngineer);
                     // Update ticket with new engineer
                     ticket.setEngineer(newEngineer);
                     ticket.setCategory(newEngineer.getCategory());
                     ticket.setStatus(TicketStatus.IN_PROGRESS);
                     ticket.setUpdatedAt(LocalDateTime.now());
-                    // Increment new engineer's ticket count
-                    newEngineer.setCurrentTickets(newEngineer.getCurrentTickets() + 1);
-                    engineerRepository.save(newEngineer);
                     return ticketRepository.save(ticket);
                 })
                 .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + ticketId));
@@ -360,69 +394,168 @@ public class TicketService {
         return ticketRepository.findByEngineerId(engineerId);
     }
 
+    @RetryOnOptimisticLock
     @Transactional
-    public Ticket appendCustomerMessageToHistory(Long ticketId, User user, String content) {
+    public Ticket appendCustomerMessageToHistory(Long ticketId, String content) {
+        return appendMessageToHistory(ticketId, content, "customer");
+    }
+
+    @RetryOnOptimisticLock
+    @Transactional
+    public Ticket appendMessageToHistory(Long ticketId, String content, String role) {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
-        com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-        java.util.List<java.util.Map<String, Object>> history;
-        try {
-            if (ticket.getHistory() != null && !ticket.getHistory().isEmpty()) {
-                history = mapper.readValue(ticket.getHistory(), new com.fasterxml.jackson.core.type.TypeReference<java.util.List<java.util.Map<String, Object>>>() {});
-            } else {
-                history = new java.util.ArrayList<>();
-            }
-        } catch (Exception e) {
-            history = new java.util.ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        ticket.setUpdatedAt(now);
+        // Update lastResponseTime if engineer replied
+        if ("engineer".equalsIgnoreCase(role)) {
+            ticket.setLastResponseTime(now);
         }
-        java.util.Map<String, Object> msg = new java.util.HashMap<>();
-        msg.put("role", "customer");
-        msg.put("content", content);
-        msg.put("timestamp", java.time.LocalDateTime.now().toString());
-        history.add(msg);
-        try {
-            ticket.setHistory(mapper.writeValueAsString(history));
-        } catch (Exception e) {
-            // ignore
+        // Flush the versioned ticket update before reading the next sequence: it takes the
+        // row lock, and a concurrent writer fails the version check and is retried instead
+        // of colliding on the (ticket_id, seq) unique key.
+        ticketRepository.saveAndFlush(ticket);
+        appendMessage(ticket, role, content, now);
+        return ticket;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TicketMessage> getTicketMessages(Long ticketId) {
+        return ticketMessageRepository.findByTicketIdOrderBySequenceAsc(ticketId);
+    }
+
+    /**
+     * Cursor-paginated ticket history, with the same semantics as
+     * {@link SessionService#getSessionHistory(Long, Long, Long, Integer)}.
+     */
+    @Transactional(readOnly = true)
+    public TicketHistoryResponse getTicketHistory(Long ticketId, Long after, Long before, Integer limit) {
+        if (after == null && before == null && limit == null) {
+            return TicketHistoryResponse.fromMessages(ticketId, getTicketMessages(ticketId), false);
         }
-        ticket.setUpdatedAt(java.time.LocalDateTime.now());
-        return ticketRepository.save(ticket);
+        if (after != null && before != null) {
+            throw new IllegalArgumentException("after and before cannot be combined");
+        }
+        int pageSize = limit == null ? DEFAULT_HISTORY_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<TicketMessage> messages = after != null
+                ? ticketMessageRepository.findPageAfter(ticketId, after, page)
+                : ticketMessageRepository.findPageBefore(ticketId, before != null ? before : Long.MAX_VALUE, page);
+        boolean hasMore = messages.size() > pageSize;
+        messages = new ArrayList<>(hasMore ? messages.subList(0, pageSize) : messages);
+        if (after == null) {
+            Collections.reverse(messages);
+        }
+        return TicketHistoryResponse.fromMessages(ticketId, messages, hasMore);
     }
 
+    /**
+     * Move the legacy JSON history blob of a ticket into ticket_messages and clear the column.
+     * Runs in its own transaction so a malformed blob only affects that ticket.
+     */
     @Transactional
-    public Ticket appendMessageToHistory(Long ticketId, User user, String content, String role) {
+    public void backfillLegacyHistory(Long ticketId) {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
-        com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-        java.util.List<java.util.Map<String, Object>> history;
-        try {
-            if (ticket.getHistory() != null && !ticket.getHistory().isEmpty()) {
-                history = mapper.readValue(ticket.getHistory(), new com.fasterxml.jackson.core.type.TypeReference<java.util.List<java.util.Map<String, Object>>>() {});
-            } else {
-                history = new java.util.ArrayList<>();
+        if (ticket.getHistory() == null) {
+            return;
+        }
+        if (!ticket.getHistory().isEmpty()) {
+            importLegacyHistory(ticket, parseLegacyHistory(ticket.getHistory()));
+        }
+        ticket.setHistory(null);
+        ticketRepository.save(ticket);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> getTicketIdsWithLegacyHistory() {
+        return ticketRepository.findIdsWithLegacyHistory();
+    }
+
+    // Appending only reads the current max sequence through the (ticket_id, seq) index
+    // and inserts one row, so the cost no longer grows with the conversation length.
+    private TicketMessage appendMessage(Ticket ticket, String role, String content, LocalDateTime timestamp) {
+        long sequence = ticketMessageRepository.findMaxSequenceByTicketId(ticket.getId()) + 1;
+        trackResponseTimes(ticket, role, timestamp);
+        TicketMessage message = ticketMessageRepository.save(new TicketMessage(ticket, sequence, role, content, timestamp));
+        messageStreamService.ticketMessageAdded(ticket.getId(), message);
+        return message;
+    }
+
+    // Response time is measured from the first customer message to the first engineer reply after it.
+    private static void trackResponseTimes(Ticket ticket, String role, LocalDateTime timestamp) {
+        if ("customer".equalsIgnoreCase(role)) {
+            if (ticket.getFirstCustomerMessageAt() == null) {
+                ticket.setFirstCustomerMessageAt(timestamp);
+            }
+        } else if ("engineer".equalsIgnoreCase(role)) {
+            if (ticket.getFirstCustomerMessageAt() != null && ticket.getFirstResponseAt() == null
+                    && timestamp.isAfter(ticket.getFirstCustomerMessageAt())) {
+                ticket.setFirstResponseAt(timestamp);
             }
-        } catch (Exception e) {
-            history = new java.util.ArrayList<>();
         }
-        java.util.Map<String, Object> msg = new java.util.HashMap<>();
-        msg.put("role", role);
-        msg.put("content", content);
-        msg.put("timestamp", java.time.LocalDateTime.now().toString());
-        history.add(msg);
+    }
+
+    private static List<Map<String, Object>> parseLegacyHistory(String history) {
         try {
-            ticket.setHistory(mapper.writeValueAsString(history));
-        } catch (Exception e) {
-            // ignore
+            return HISTORY_MAPPER.readValue(history, new TypeReference<List<Map<String, Object>>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Ticket history is not a JSON array of messages", e);
         }
-        ticket.setUpdatedAt(java.time.LocalDateTime.now());
-        // Update lastResponseTime if engineer replied
-        if ("engineer".equalsIgnoreCase(role)) {
-            ticket.setLastResponseTime(java.time.LocalDateTime.now());
+    }
+
+    private void importLegacyHistory(Ticket ticket, List<Map<String, Object>> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        long sequence = ticketMessageRepository.findMaxSequenceByTicketId(ticket.getId());
+        List<TicketMessage> messages = new ArrayList<>();
+        for (Map<String, Object> entry : entries) {
+            String role = entry.get("role") != null ? entry.get("role").toString() : "customer";
+            String content = entry.get("content") != null ? entry.get("content").toString() : "";
+            LocalDateTime timestamp = parseLegacyTimestamp(entry.get("timestamp"), ticket.getCreatedAt());
+            trackResponseTimes(ticket, role, timestamp);
+            messages.add(new TicketMessage(ticket, ++sequence, role, content, timestamp));
+        }
+        ticketMessageRepository.saveAll(messages);
+    }
+
+    private static LocalDateTime parseLegacyTimestamp(Object value, LocalDateTime fallback) {
+        if (value != null) {
+            try {
+                return LocalDateTime.parse(value.toString());
+            } catch (DateTimeParseException e) {
+                // fall through to the fallback below
+            }
+        }
+        return fallback != null ? fallback : LocalDateTime.now();
+    }
+
+    // Take a ticket slot from the least loaded matching engineer. The capacity index can lag
+    // behind the database, so the slot is claimed with a conditional update and candidates
+    // that turn out to be stale or already full are skipped.
+    private Engineer reserveAvailableEngineer(TeslaModel category, int level) {
+        Set<Long> rejected = new HashSet<>();
+        while (true) {
+            Optional<Long> candidateId = engineerCapacityIndex.findLeastLoaded(category, level, rejected);
+            if (candidateId.isEmpty()) {
+                return null;
+            }
+            Engineer engineer = engineerRepository.findById(candidateId.get()).orElse(null);
+            if (engineer == null) {
+                engineerCapacityIndex.remove(candidateId.get());
+            } else if (engineer.getLevel() != level || (category != null && engineer.getCategory() != category)) {
+                engineerCapacityIndex.update(engineer);
+            } else if (engineerService.tryReserveTicket(engineer)) {
+                return engineer;
+            }
+            rejected.add(candidateId.get());
         }
-        return ticketRepository.save(ticket);
     }
 
     // Add a method to auto-close tickets with last update > 7 days
+    @RetryOnOptimisticLock
     @Transactional
     public void autoCloseOldTickets() {
         LocalDateTime threshold = LocalDateTime.now().minusDays(7);
@@ -432,8 +565,7 @@ public class TicketService {
         for (Ticket ticket : oldTickets) {
             if (ticket.getEngineer() != null) {
                 Engineer engineer = ticket.getEngineer();
-                engineer.setCurrentTickets(engineer.getCurrentTickets() - 1);
-                engineerRepository.save(engineer);
+                engineerService.releaseTicket(engineer);
                 // ticket.setEngineer(null); // <-- Do NOT remove engineer assignment
             }
             ticket.setStatus(TicketStatus.CLOSED);
@@ -481,6 +613,7 @@ public class TicketService {
         return ticketRepository.existsByEngineerIdAndSessionId(engineerId, sessionId);
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public Ticket updateTicketServility(Long ticketId, ServilityLevel level) {
         Ticket ticket = ticketRepository.findById(ticketId)
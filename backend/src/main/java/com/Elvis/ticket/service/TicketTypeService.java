@@ -12,9 +12,11 @@ import java.util.Optional;
 public class TicketTypeService {
 
     private final TicketTypeRepository ticketTypeRepository;
+    private final CatalogSnapshot<TicketType> catalog;
 
     public TicketTypeService(TicketTypeRepository ticketTypeRepository) {
         this.ticketTypeRepository = ticketTypeRepository;
+        this.catalog = new CatalogSnapshot<>(ticketTypeRepository::findAll, TicketType::getId);
     }
 
     @Transactional
@@ -22,17 +24,17 @@ public class TicketTypeService {
         if (ticketTypeRepository.existsByName(ticketType.getName())) {
             throw new RuntimeException("Ticket type with this name already exists");
         }
-        return ticketTypeRepository.save(ticketType);
+        TicketType saved = ticketTypeRepository.save(ticketType);
+        catalog.changed();
+        return saved;
     }
 
-    @Transactional(readOnly = true)
     public List<TicketType> getAllTicketTypes() {
-        return ticketTypeRepository.findAll();
+        return catalog.all();
     }
 
-    @Transactional(readOnly = true)
     public Optional<TicketType> getTicketTypeById(Long id) {
-        return ticketTypeRepository.findById(id);
+        return catalog.byId(id);
     }
 
     @Transactional
@@ -41,6 +43,7 @@ public class TicketTypeService {
                 .map(existingTicketType -> {
                     existingTicketType.setName(ticketTypeDetails.getName());
                     existingTicketType.setDescription(ticketTypeDetails.getDescription());
+                    catalog.changed();
                     return ticketTypeRepository.save(existingTicketType);
                 })
                 .orElseThrow(() -> new RuntimeException("Ticket type not found"));
@@ -49,5 +52,6 @@ public class TicketTypeService {
     @Transactional
     public void deleteTicketType(Long id) {
         ticketTypeRepository.deleteById(id);
+        catalog.changed();
     }
 } 
\ No newline at end of file
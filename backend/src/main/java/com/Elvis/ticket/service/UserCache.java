@@ -0,0 +1,91 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.model.User;
+import com.Elvis.ticket.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Users by email and by id. Nearly every request looks up the authenticated user by the
+ * email in its token, often more than once, so the detached entities are kept here instead
+ * of reading the users table each time. Cached users are shared between requests and must
+ * not be modified; updates load the user from the repository and then call {@link #evict}.
+ * Entries also expire after a while, which bounds how long a change made elsewhere (another
+ * instance, or a direct repository write) can go unnoticed. Unknown emails are not cached.
+ * Hit and miss counts are published as the "users.by-email" and "users.by-id" cache metrics.
+ */
+@Component
+public class UserCache {
+
+    @Value("${app.users.cache-size:10000}")
+    private long cacheSize;
+
+    @Value("${app.users.cache-ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    private Cache<String, User> byEmail;
+    private Cache<Long, User> byId;
+
+    public UserCache(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        byEmail = CaffeineCacheMetrics.monitor(meterRegistry, newCache(), "users.by-email");
+        byId = CaffeineCacheMetrics.monitor(meterRegistry, newCache(), "users.by-id");
+    }
+
+    private <K> Cache<K, User> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(byEmail.get(email, userRepository::findByEmail));
+    }
+
+    public Optional<User> findById(Long id) {
+        return Optional.ofNullable(byId.get(id, key -> userRepository.findById(key).orElse(null)));
+    }
+
+    /**
+     * Drops the user from both caches. Inside a transaction this happens once it completes, so
+     * a concurrent lookup cannot cache the row as it was before the change.
+     */
+    public void evict(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(id);
+                }
+            });
+        } else {
+            remove(id);
+        }
+    }
+
+    private void remove(Long id) {
+        byId.invalidate(id);
+        // Scanned rather than keyed, since the email may just have changed
+        byEmail.asMap().values().removeIf(user -> id.equals(user.getId()));
+    }
+}
@@ -21,6 +21,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
 
     @Autowired
     private PasswordResetTokenRepository tokenRepository;
@@ -28,9 +29,10 @@ public class UserService {
     @Autowired
     private EmailService emailService;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserCache userCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
     }
 
     @Transactional
@@ -43,9 +45,9 @@ public class UserService {
         return userRepository.save(user);
     }
 
-    @Transactional(readOnly = true)
+    // No transaction here: hits are served from the cache and a miss runs in the repository's own
     public Optional<User> getUserByEmail(String email) {
-        return Optional.ofNullable(userRepository.findByEmail(email));
+        return userCache.findByEmail(email);
     }
 
     @Transactional(readOnly = true)
@@ -98,6 +100,7 @@ public class UserService {
                     }
                     
                     User savedUser = userRepository.save(existingUser);
+                    userCache.evict(id);
                     System.out.println("Saved user - Name: " + savedUser.getName());
                     System.out.println("Saved user - Password: " + savedUser.getPassword());
                     return savedUser;
@@ -110,6 +113,7 @@ public class UserService {
             return false;
         }
         userRepository.deleteById(id);
+        userCache.evict(id);
         return true;
     }
 
@@ -132,6 +136,7 @@ public class UserService {
                 throw new RuntimeException("New password is required");
             }
             user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+            userCache.evict(id);
             return userRepository.save(user);
         } else {
             // Normal user must provide old and new password
@@ -143,13 +148,13 @@ public class UserService {
                 throw new RuntimeException("Current password is incorrect");
             }
             user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+            userCache.evict(id);
             return userRepository.save(user);
         }
     }
 
-    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        return userCache.findById(id);
     }
 
     @Transactional
@@ -186,6 +191,7 @@ public class UserService {
         User user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userCache.evict(user.getId());
 
         // Mark token as used
         resetToken.setUsed(true);
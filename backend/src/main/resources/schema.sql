@@ -1,4 +1,6 @@
 -- Drop existing tables if they exist
+DROP TABLE IF EXISTS ticket_messages;
+DROP TABLE IF EXISTS session_messages;
 DROP TABLE IF EXISTS tickets;
 DROP TABLE IF EXISTS sessions;
 DROP TABLE IF EXISTS customers;
@@ -40,6 +42,7 @@ CREATE TABLE engineers (
     level INT NOT NULL,
     max_tickets INT NOT NULL,
     current_tickets INT NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
     user_id BIGINT NOT NULL,
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
     CONSTRAINT chk_engineer_level CHECK (level > 0),
@@ -86,11 +89,24 @@ CREATE TABLE sessions (
     status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
     user_id BIGINT NOT NULL,
     ticket_session BOOLEAN NOT NULL DEFAULT FALSE,
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
     CONSTRAINT chk_session_times CHECK (end_time IS NULL OR end_time > start_time),
     CONSTRAINT chk_session_status CHECK (status IN ('ACTIVE', 'INACTIVE', 'CLOSED'))
 );
 
+-- Create session_messages table (append-only chat log, replaces sessions.history)
+CREATE TABLE session_messages (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    session_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    content LONGTEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (session_id) REFERENCES sessions(session_id) ON DELETE CASCADE,
+    CONSTRAINT uk_session_messages_session_seq UNIQUE (session_id, seq)
+);
+
 -- Create tickets table
 CREATE TABLE tickets (
     ticket_id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -102,12 +118,15 @@ CREATE TABLE tickets (
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     resolved_at TIMESTAMP,
     last_response_time TIMESTAMP,
+    first_customer_message_at TIMESTAMP,
+    first_response_at TIMESTAMP,
     customer_id BIGINT NOT NULL,
     engineer_id BIGINT,
     category VARCHAR(20) NOT NULL,
     type_id BIGINT NOT NULL,
     history LONGTEXT,
     session_id BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (customer_id) REFERENCES customers(customer_id) ON DELETE CASCADE,
     FOREIGN KEY (engineer_id) REFERENCES engineers(engineer_id) ON DELETE SET NULL,
     FOREIGN KEY (type_id) REFERENCES ticket_types(ticket_type_id) ON DELETE RESTRICT,
@@ -133,6 +152,18 @@ CREATE TABLE ticket_attachments (
     FOREIGN KEY (ticket_id) REFERENCES tickets(ticket_id) ON DELETE CASCADE
 );
 
+-- Create ticket_messages table (append-only ticket conversation, replaces tickets.history)
+CREATE TABLE ticket_messages (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    ticket_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    content LONGTEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (ticket_id) REFERENCES tickets(ticket_id) ON DELETE CASCADE,
+    CONSTRAINT uk_ticket_messages_ticket_seq UNIQUE (ticket_id, seq)
+);
+
 -- Create password reset tokens table
 CREATE TABLE password_reset_tokens (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
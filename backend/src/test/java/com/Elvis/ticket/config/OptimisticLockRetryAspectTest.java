@@ -0,0 +1,130 @@
+package com.Elvis.ticket.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringJUnitConfig(OptimisticLockRetryAspectTest.Config.class)
+class OptimisticLockRetryAspectTest {
+
+    @Autowired
+    private ConflictingService service;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        service.reset();
+    }
+
+    @Test
+    void conflictsAreRetriedEachInAFreshTransaction() {
+        service.conflictTimes(2);
+
+        assertEquals("saved", service.save());
+
+        // Two attempts rolled back and the third committed, so the retry wraps the transaction
+        assertEquals(List.of(TransactionSynchronization.STATUS_ROLLED_BACK, TransactionSynchronization.STATUS_ROLLED_BACK,
+                TransactionSynchronization.STATUS_COMMITTED), service.outcomes());
+    }
+
+    @Test
+    void givesUpAfterThreeAttempts() {
+        service.conflictTimes(5);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> service.save());
+        assertEquals(3, service.outcomes().size());
+    }
+
+    @Test
+    void doesNotRetryInsideAnOuterTransaction() {
+        service.conflictTimes(1);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> new TransactionTemplate(transactionManager).execute(status -> service.save()));
+        assertEquals(List.of(TransactionSynchronization.STATUS_ROLLED_BACK), service.outcomes());
+    }
+
+    @Test
+    void runsAheadOfTheTransactionInterceptor() {
+        // The transaction interceptor has the lowest precedence; the retry has to run outside it
+        assertEquals(Ordered.LOWEST_PRECEDENCE - 1, OptimisticLockRetryAspect.class.getAnnotation(Order.class).value());
+    }
+
+    static class ConflictingService {
+
+        private final List<Integer> outcomes = new ArrayList<>();
+        private int conflicts;
+
+        // Called through the proxy, which does not share the fields of the target
+        public void reset() {
+            outcomes.clear();
+            conflicts = 0;
+        }
+
+        public void conflictTimes(int conflicts) {
+            this.conflicts = conflicts;
+        }
+
+        public List<Integer> outcomes() {
+            return outcomes;
+        }
+
+        @RetryOnOptimisticLock
+        @Transactional
+        public String save() {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    outcomes.add(status);
+                }
+            });
+            if (conflicts-- > 0) {
+                throw new OptimisticLockingFailureException("Row was updated by another transaction");
+            }
+            return "saved";
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @EnableTransactionManagement(proxyTargetClass = true)
+    static class Config {
+
+        @Bean
+        OptimisticLockRetryAspect optimisticLockRetryAspect() {
+            return new OptimisticLockRetryAspect();
+        }
+
+        @Bean
+        ConflictingService conflictingService() {
+            return new ConflictingService();
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new DataSourceTransactionManager(new DriverManagerDataSource("jdbc:h2:mem:retry-aspect"));
+        }
+    }
+}
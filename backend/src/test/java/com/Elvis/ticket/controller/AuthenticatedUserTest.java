@@ -0,0 +1,84 @@
+package com.Elvis.ticket.controller;
+
+import com.Elvis.ticket.repository.CustomerRepository;
+import com.Elvis.ticket.repository.EngineerRepository;
+import com.Elvis.ticket.repository.TicketTypeRepository;
+import com.Elvis.ticket.support.ApiIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Identifies callers from the ids in their token: the customer and the assigned engineer
+ * find the ticket among their own and can read its conversation, other customers cannot.
+ */
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:authenticated-user")
+class AuthenticatedUserTest extends ApiIntegrationTest {
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EngineerRepository engineerRepository;
+
+    @Test
+    void tokenCarriesTheProfileIdsOfTheRole() throws Exception {
+        JsonNode claims = claims(login("cus@example.com"));
+        assertEquals("CUSTOMER", claims.get("role").asText());
+        assertEquals(customerRepository.findByEmail("cus@example.com").getId(), claims.get("cid").asLong());
+        assertFalse(claims.has("eid"));
+        assertFalse(claims.has("mid"));
+    }
+
+    @Test
+    void ownTicketsAndConversationsAreFoundByProfileId() throws Exception {
+        String customer = login("cus@example.com");
+        long sessionId = JSON.readTree(send("POST", "/api/sessions", customer, Map.of("title", "Frunk")).body())
+                .get("id").asLong();
+        JsonNode ticket = JSON.readTree(send("POST", "/api/tickets", customer, Map.of(
+                "title", "Frunk does not open",
+                "urgency", "LOW",
+                "category", "MODEL_3",
+                "type", Map.of("id", ticketTypeRepository.findAll().get(0).getId()),
+                "session", Map.of("id", sessionId))).body());
+        long ticketId = ticket.get("id").asLong();
+        String engineerEmail = ticket.get("engineer").get("email").asText();
+        String engineer = login(engineerEmail);
+        assertEquals(engineerRepository.findByEmail(engineerEmail).getId(), claims(engineer).get("eid").asLong());
+
+        for (String token : new String[]{customer, engineer}) {
+            assertTrue(ticketIds(get("/api/tickets/own?size=1000", token)).contains(ticketId));
+            assertTrue(ticketIds(get("/api/tickets?size=1000", token)).contains(ticketId));
+            assertEquals(200, get("/api/tickets/" + ticketId + "/history", token).statusCode());
+            assertEquals(200, get("/api/sessions/" + sessionId + "/history", token).statusCode());
+        }
+
+        String otherCustomer = login("vip@example.com");
+        assertFalse(ticketIds(get("/api/tickets/own?size=1000", otherCustomer)).contains(ticketId));
+        assertEquals(403, get("/api/tickets/" + ticketId + "/history", otherCustomer).statusCode());
+        assertEquals(403, get("/api/sessions/" + sessionId + "/history", otherCustomer).statusCode());
+    }
+
+    private static JsonNode claims(String token) throws Exception {
+        return JSON.readTree(Base64.getUrlDecoder().decode(token.split("\\.")[1]));
+    }
+
+    private static List<Long> ticketIds(HttpResponse<String> page) throws Exception {
+        assertEquals(200, page.statusCode());
+        List<Long> ids = new ArrayList<>();
+        JSON.readTree(page.body()).get("content").forEach(ticket -> ids.add(ticket.get("id").asLong()));
+        return ids;
+    }
+}
@@ -0,0 +1,179 @@
+package com.Elvis.ticket.controller;
+
+import com.Elvis.ticket.repository.TicketTypeRepository;
+import com.Elvis.ticket.security.AuthenticatedUser;
+import com.Elvis.ticket.support.ApiIntegrationTest;
+import com.Elvis.ticket.support.StatementCounter;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Revalidates tickets, sessions and their histories with If-None-Match, as a
+ * polling browser does, before and after a message is added.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditional-get",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.Elvis.ticket.support.StatementCounter"})
+class ConditionalGetTest extends ApiIntegrationTest {
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketController ticketController;
+
+    @Autowired
+    private SessionController sessionController;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void unchangedTicketIsNotModifiedUntilAMessageIsAdded() throws Exception {
+        String customer = login("cus@example.com");
+        long sessionId = JSON.readTree(send("POST", "/api/sessions", customer, Map.of("title", "Wipers")).body())
+                .get("id").asLong();
+        long ticketId = JSON.readTree(send("POST", "/api/tickets", customer, Map.of(
+                "title", "Wipers run in dry weather",
+                "urgency", "LOW",
+                "category", "MODEL_Y",
+                "type", Map.of("id", ticketTypeRepository.findAll().get(0).getId()),
+                "session", Map.of("id", sessionId))).body()).get("id").asLong();
+
+        for (String path : new String[]{"/api/tickets/" + ticketId, "/api/tickets/" + ticketId + "/history"}) {
+            HttpResponse<String> first = get(path, customer, null);
+            assertEquals(200, first.statusCode());
+            String etag = first.headers().firstValue("ETag").orElseThrow();
+            assertEquals("no-cache, private", first.headers().firstValue("Cache-Control").orElseThrow());
+
+            HttpResponse<String> unchanged = get(path, customer, etag);
+            assertEquals(304, unchanged.statusCode());
+            assertEquals(etag, unchanged.headers().firstValue("ETag").orElseThrow());
+            assertTrue(unchanged.body().isEmpty());
+
+            send("POST", "/api/tickets/" + ticketId + "/message", customer, Map.of("content", "Still happening"));
+            HttpResponse<String> changed = get(path, customer, etag);
+            assertEquals(200, changed.statusCode());
+            assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+            assertTrue(changed.body().contains("Still happening"));
+        }
+    }
+
+    @Test
+    void sessionVersionChangesWithEveryMessage() throws Exception {
+        String customer = login("cus@example.com");
+        long sessionId = JSON.readTree(send("POST", "/api/sessions", customer, Map.of("title", "Sentry")).body())
+                .get("id").asLong();
+
+        for (String path : new String[]{"/api/sessions/" + sessionId, "/api/sessions/" + sessionId + "/history"}) {
+            String etag = get(path, customer, null).headers().firstValue("ETag").orElseThrow();
+            assertEquals(304, get(path, customer, etag).statusCode());
+            assertEquals(304, get(path, customer, "W/" + etag).statusCode());
+
+            send("POST", "/api/sessions/" + sessionId + "/message", customer, Map.of("role", "user", "content", "Hello"));
+            assertEquals(200, get(path, customer, etag).statusCode());
+        }
+
+        // Access is checked before revalidating a conversation
+        String etag = get("/api/sessions/" + sessionId + "/history", customer, null).headers().firstValue("ETag").orElseThrow();
+        assertEquals(403, get("/api/sessions/" + sessionId + "/history", login("vip@example.com"), etag).statusCode());
+    }
+
+    @Test
+    void pagesOfAHistoryHaveTheirOwnTags() throws Exception {
+        String customer = login("cus@example.com");
+        long sessionId = JSON.readTree(send("POST", "/api/sessions", customer, Map.of("title", "Seats")).body())
+                .get("id").asLong();
+        send("POST", "/api/sessions/" + sessionId + "/message", customer, Map.of("role", "user", "content", "Seat heater"));
+        String history = "/api/sessions/" + sessionId + "/history";
+
+        String newest = get(history + "?limit=1", customer, null).headers().firstValue("ETag").orElseThrow();
+        assertEquals(304, get(history + "?limit=1", customer, newest).statusCode());
+        assertEquals(200, get(history, customer, newest).statusCode());
+        assertEquals(200, get(history + "?limit=2", customer, newest).statusCode());
+        assertEquals(200, get(history + "?limit=1&before=2", customer, newest).statusCode());
+        assertEquals(200, get("/api/sessions/" + sessionId, customer, newest).statusCode());
+    }
+
+    @Test
+    void sessionChangesWithATurnOfTheChatBackend() throws Exception {
+        String customer = login("cus@example.com");
+        long sessionId = JSON.readTree(send("POST", "/api/sessions", customer, Map.of("title", "Autopilot")).body())
+                .get("id").asLong();
+        String path = "/api/sessions/" + sessionId + "/history";
+        String etag = get(path, customer, null).headers().firstValue("ETag").orElseThrow();
+
+        // The statements chat_backend/backend.py runs to store a question and its answer
+        jdbcTemplate.update("UPDATE sessions SET last_activity = CURRENT_TIMESTAMP, version = version + 1 WHERE id = ?",
+                sessionId);
+        long nextSeq = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(seq), 0) FROM session_messages WHERE session_id = ?", Long.class, sessionId) + 1;
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO session_messages (session_id, seq, role, content, created_at) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                List.of(new Object[]{sessionId, nextSeq, "user", "Is it on?"},
+                        new Object[]{sessionId, nextSeq + 1, "assistant", "Yes"}));
+
+        HttpResponse<String> changed = get(path, customer, etag);
+        assertEquals(200, changed.statusCode());
+        assertTrue(changed.body().contains("Is it on?"));
+    }
+
+    @Test
+    void historiesAreRevalidatedWithoutLoadingTheConversation() throws Exception {
+        String customer = login("cus@example.com");
+        long sessionId = JSON.readTree(send("POST", "/api/sessions", customer, Map.of("title", "Horn")).body())
+                .get("id").asLong();
+        JsonNode ticket = JSON.readTree(send("POST", "/api/tickets", customer, Map.of(
+                "title", "Horn is quiet",
+                "urgency", "LOW",
+                "category", "MODEL_3",
+                "type", Map.of("id", ticketTypeRepository.findAll().get(0).getId()),
+                "session", Map.of("id", sessionId))).body());
+        long ticketId = ticket.get("id").asLong();
+        String engineer = login(ticket.get("engineer").get("email").asText());
+        String otherCustomer = login("vip@example.com");
+
+        for (String path : new String[]{"/api/tickets/" + ticketId + "/history", "/api/sessions/" + sessionId + "/history",
+                "/api/sessions/" + sessionId + "/history/ticket/" + ticketId}) {
+            String etag = get(path, engineer, null).headers().firstValue("ETag").orElseThrow();
+            assertEquals(304, get(path, engineer, etag).statusCode(), path);
+            assertEquals(304, get(path, customer, etag).statusCode(), path);
+            assertEquals(403, get(path, otherCustomer, etag).statusCode(), path);
+        }
+        assertEquals(404, get("/api/tickets/" + (ticketId + 1000) + "/history", customer, null).statusCode());
+        assertEquals(404, get("/api/sessions/" + (sessionId + 1000) + "/history", customer, null).statusCode());
+
+        // A matching tag is answered from the version and ownership columns alone
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin@example.com", "ADMIN", null, null, null);
+        String ticketTag = ticketController.getTicketHistory(ticketId, null, null, null, null, admin)
+                .getHeaders().getETag();
+        String sessionTag = sessionController.getSessionHistory(sessionId, null, null, null, null, admin)
+                .getHeaders().getETag();
+        StatementCounter.reset();
+        assertEquals(304, ticketController.getTicketHistory(ticketId, null, null, null, ticketTag, admin)
+                .getStatusCode().value());
+        assertEquals(304, sessionController.getSessionHistory(sessionId, null, null, null, sessionTag, admin)
+                .getStatusCode().value());
+        assertEquals(304, sessionController.getSessionHistoryForTicket(sessionId, ticketId, null, null, null, sessionTag, admin)
+                .getStatusCode().value());
+        assertEquals(3, StatementCounter.count());
+    }
+
+    private HttpResponse<String> get(String path, String token, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = request(path, token);
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return exchange(request);
+    }
+}
@@ -0,0 +1,140 @@
+package com.Elvis.ticket.controller;
+
+import com.Elvis.ticket.model.Session;
+import com.Elvis.ticket.model.SessionMessage;
+import com.Elvis.ticket.model.Ticket;
+import com.Elvis.ticket.model.TicketMessage;
+import com.Elvis.ticket.repository.SessionMessageRepository;
+import com.Elvis.ticket.repository.SessionRepository;
+import com.Elvis.ticket.repository.TicketMessageRepository;
+import com.Elvis.ticket.repository.TicketRepository;
+import com.Elvis.ticket.repository.TicketTypeRepository;
+import com.Elvis.ticket.support.ApiIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pages through ticket and session conversations of {@value #MESSAGES} messages with the
+ * after, before and limit cursor parameters.
+ */
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:history-pagination")
+class HistoryPaginationTest extends ApiIntegrationTest {
+
+    private static final int MESSAGES = 600;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketMessageRepository ticketMessageRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private SessionMessageRepository sessionMessageRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Test
+    void ticketHistoryPages() throws Exception {
+        String customer = login("cus@example.com");
+        long ticketId = JSON.readTree(send("POST", "/api/tickets", customer, Map.of(
+                "title", "Door handles stay in",
+                "urgency", "LOW",
+                "category", "MODEL_S",
+                "type", Map.of("id", ticketTypeRepository.findAll().get(0).getId()),
+                "session", Map.of("id", createSession(customer)))).body()).get("id").asLong();
+        // The welcome message is the first of the conversation
+        Ticket ticket = ticketRepository.findById(ticketId).orElseThrow();
+        List<TicketMessage> messages = new ArrayList<>();
+        for (long sequence = 2; sequence <= MESSAGES; sequence++) {
+            messages.add(new TicketMessage(ticket, sequence, "customer", "Message " + sequence, LocalDateTime.now()));
+        }
+        ticketMessageRepository.saveAll(messages);
+
+        assertPages("/api/tickets/" + ticketId + "/history", customer);
+    }
+
+    @Test
+    void sessionHistoryPages() throws Exception {
+        String customer = login("cus@example.com");
+        long sessionId = createSession(customer);
+        Session session = sessionRepository.findById(sessionId).orElseThrow();
+        List<SessionMessage> messages = new ArrayList<>();
+        for (long sequence = 2; sequence <= MESSAGES; sequence++) {
+            messages.add(new SessionMessage(session, sequence, "user", "Message " + sequence, LocalDateTime.now()));
+        }
+        sessionMessageRepository.saveAll(messages);
+
+        assertPages("/api/sessions/" + sessionId + "/history", customer);
+    }
+
+    private void assertPages(String history, String token) throws Exception {
+        JsonNode all = page(history, token);
+        assertEquals(range(1, MESSAGES), sequences(all));
+        assertFalse(all.get("hasMore").asBoolean());
+
+        // Oldest first after a sequence, 50 to a page by default
+        JsonNode first = page(history + "?after=0", token);
+        assertEquals(range(1, 50), sequences(first));
+        assertTrue(first.get("hasMore").asBoolean());
+        assertEquals(range(51, 60), sequences(page(history + "?after=50&limit=10", token)));
+
+        // Newest page before a sequence, returned in ascending order
+        assertEquals(range(MESSAGES - 49, MESSAGES), sequences(page(history + "?limit=50", token)));
+        JsonNode older = page(history + "?before=11&limit=5", token);
+        assertEquals(range(6, 10), sequences(older));
+        assertTrue(older.get("hasMore").asBoolean());
+        JsonNode oldest = page(history + "?before=6&limit=5", token);
+        assertEquals(range(1, 5), sequences(oldest));
+        assertFalse(oldest.get("hasMore").asBoolean());
+
+        // hasMore comes from the one extra row that is fetched
+        assertTrue(page(history + "?after=" + (MESSAGES - 11) + "&limit=10", token).get("hasMore").asBoolean());
+        JsonNode last = page(history + "?after=" + (MESSAGES - 10) + "&limit=10", token);
+        assertEquals(range(MESSAGES - 9, MESSAGES), sequences(last));
+        assertFalse(last.get("hasMore").asBoolean());
+        assertEquals(List.of(), sequences(page(history + "?after=" + MESSAGES, token)));
+
+        // Pages are capped at 500 messages
+        JsonNode capped = page(history + "?after=0&limit=10000", token);
+        assertEquals(range(1, 500), sequences(capped));
+        assertTrue(capped.get("hasMore").asBoolean());
+
+        assertEquals(400, get(history + "?after=5&before=20", token).statusCode());
+    }
+
+    private long createSession(String customer) throws Exception {
+        return JSON.readTree(send("POST", "/api/sessions", customer, Map.of("title", "Doors")).body())
+                .get("id").asLong();
+    }
+
+    private JsonNode page(String path, String token) throws Exception {
+        HttpResponse<String> response = get(path, token);
+        assertEquals(200, response.statusCode(), path);
+        return JSON.readTree(response.body());
+    }
+
+    private static List<Long> sequences(JsonNode page) {
+        List<Long> sequences = new ArrayList<>();
+        page.get("messages").forEach(message -> sequences.add(message.get("sequence").asLong()));
+        return sequences;
+    }
+
+    private static List<Long> range(long first, long last) {
+        return LongStream.rangeClosed(first, last).boxed().toList();
+    }
+}
@@ -0,0 +1,250 @@
+package com.Elvis.ticket.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Closed-loop HTTP load generator. Each virtual user runs its script in a loop on
+ * its own thread until the test ends; every request is timed and counted under
+ * an endpoint name, and requests finished during the warm-up are discarded.
+ */
+class LoadGenerator {
+
+    /**
+     * One iteration of a virtual user's workload; {@code user} is the index of the
+     * virtual user, so scripts can give each user its own account or data.
+     */
+    interface Script {
+        void run(LoadGenerator load, int user) throws Exception;
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long recordingStarted;
+    private volatile long recordingStopped;
+
+    LoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    /**
+     * Sends a request and records its latency under {@code endpoint}. Responses
+     * with a status of 400 or above and failed requests count as errors; the
+     * response is returned either way, or null when the request failed.
+     */
+    HttpResponse<String> send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // counted as an error below
+        }
+        if (recording) {
+            boolean error = response == null || response.statusCode() >= 400;
+            endpoints.computeIfAbsent(endpoint, name -> new EndpointStats()).record(System.nanoTime() - start, error);
+        }
+        return response;
+    }
+
+    HttpResponse<String> get(String endpoint, String path, String token) {
+        return send(endpoint, request(path).header("Authorization", "Bearer " + token).GET().build());
+    }
+
+    HttpResponse<String> post(String endpoint, String path, String token, Object body) throws Exception {
+        return send(endpoint, withBody("POST", path, token, body));
+    }
+
+    HttpResponse<String> put(String endpoint, String path, String token, Object body) throws Exception {
+        return send(endpoint, withBody("PUT", path, token, body));
+    }
+
+    private HttpRequest withBody(String method, String path, String token, Object body) throws Exception {
+        HttpRequest.Builder builder = request(path)
+                .method(method, HttpRequest.BodyPublishers.ofString(body == null ? "" : JSON.writeValueAsString(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Parses a successful response body, failing the iteration otherwise; later
+     * steps of a script usually depend on ids in the body.
+     */
+    static JsonNode json(HttpResponse<String> response) throws Exception {
+        if (response == null || response.statusCode() >= 400) {
+            throw new IllegalStateException("Request failed" + (response == null ? "" : " with " + response.statusCode()));
+        }
+        return JSON.readTree(response.body());
+    }
+
+    /**
+     * Logs in and returns the bearer token, failing the iteration when login fails.
+     */
+    String login(String email, String password) throws Exception {
+        HttpResponse<String> response = post("POST /api/auth/login", "/api/auth/login", null,
+                Map.of("email", email, "password", password));
+        return json(response).get("token").asText();
+    }
+
+    /**
+     * Runs {@code users} virtual users for the warm-up plus the measured duration.
+     */
+    void run(int users, Duration warmUp, Duration duration, Duration thinkTime, Script script) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        long end = System.nanoTime() + warmUp.plus(duration).toNanos();
+        AtomicLong failures = new AtomicLong();
+        AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            int user = i;
+            running.add(pool.submit(() -> {
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    try {
+                        script.run(this, user);
+                    } catch (InterruptedException e) {
+                        return null;
+                    } catch (Exception e) {
+                        // Iterations cut short by the end of the run are not failures
+                        if (Thread.currentThread().isInterrupted()) {
+                            return null;
+                        }
+                        failures.incrementAndGet();
+                        firstFailure.compareAndSet(null, e);
+                    }
+                    if (!thinkTime.isZero()) {
+                        Thread.sleep(thinkTime.toMillis());
+                    }
+                }
+                return null;
+            }));
+        }
+        Thread.sleep(warmUp.toMillis());
+        recordingStarted = System.nanoTime();
+        recording = true;
+        Thread.sleep(duration.toMillis());
+        recording = false;
+        recordingStopped = System.nanoTime();
+        pool.shutdownNow();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        if (failures.get() > 0) {
+            System.out.println(failures.get() + " script iterations ended with an exception, the first: " + firstFailure.get());
+        }
+    }
+
+    long requests() {
+        return endpoints.values().stream().mapToLong(EndpointStats::count).sum();
+    }
+
+    long errors() {
+        return endpoints.values().stream().mapToLong(EndpointStats::errors).sum();
+    }
+
+    void printReport(String title, PrintStream out) {
+        double seconds = (recordingStopped - recordingStarted) / 1e9;
+        out.println();
+        out.println("== " + title + " ==");
+        out.printf("%-32s %9s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        EndpointStats all = new EndpointStats();
+        endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    printRow(out, entry.getKey(), entry.getValue(), seconds);
+                    all.addAll(entry.getValue());
+                });
+        printRow(out, "TOTAL", all, seconds);
+    }
+
+    private static void printRow(PrintStream out, String name, EndpointStats stats, double seconds) {
+        long[] sorted = stats.sortedLatencies();
+        out.printf("%-32s %9d %9.1f %6.2f%% %9.1f %9.1f %9.1f %9.1f%n",
+                name, stats.count(), stats.count() / seconds,
+                stats.count() == 0 ? 0.0 : 100.0 * stats.errors() / stats.count(),
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Latencies in nanoseconds and error count of one endpoint.
+     */
+    private static final class EndpointStats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void record(long nanos, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized void addAll(EndpointStats other) {
+            long[] theirs = other.sortedLatencies();
+            for (long latency : theirs) {
+                record(latency, false);
+            }
+            errors += other.errors();
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
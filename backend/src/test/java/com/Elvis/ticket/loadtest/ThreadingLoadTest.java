@@ -0,0 +1,65 @@
+package com.Elvis.ticket.loadtest;
+
+import com.Elvis.ticket.support.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ActiveProfilesResolver;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the JDBC-bound read endpoints with more concurrent users than Tomcat has
+ * worker threads and prints throughput and latency percentiles per endpoint.
+ * Run it once per threading mode and compare the reports:
+ * <pre>
+ * mvn -Pjava21,load-test test -Dtest=ThreadingLoadTest -Dloadtest.threads=platform
+ * mvn -Pjava21,load-test test -Dtest=ThreadingLoadTest -Dloadtest.threads=virtual
+ * </pre>
+ * Tunable with -Dloadtest.users, -Dloadtest.warmup-seconds and -Dloadtest.duration-seconds.
+ */
+@ActiveProfiles(resolver = ThreadingLoadTest.ThreadingProfiles.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:threading-load;LOCK_TIMEOUT=30000",
+        "logging.level.com.Elvis.ticket=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.security.audit=WARN"
+})
+class ThreadingLoadTest extends ApiIntegrationTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 400);
+    private static final Duration WARM_UP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 30));
+
+    @Test
+    void readEndpointsUnderLoad() throws Exception {
+        LoadGenerator load = new LoadGenerator("http://localhost:" + port);
+        String token = load.login("admin@example.com", "admin123");
+
+        load.run(USERS, WARM_UP, DURATION, Duration.ZERO, (generator, user) -> {
+            generator.get("GET /api/tickets", "/api/tickets?page=0&size=20", token);
+            generator.get("GET /api/engineers", "/api/engineers", token);
+            generator.get("GET /api/customers", "/api/customers", token);
+            generator.get("GET /api/products", "/api/products", token);
+        });
+
+        load.printReport("threads=" + System.getProperty("loadtest.threads", "platform")
+                + ", java=" + Runtime.version().feature() + ", users=" + USERS, System.out);
+        assertTrue(load.requests() > 0);
+        assertTrue(load.errors() <= load.requests() / 100, "more than 1% of requests failed");
+    }
+
+    /**
+     * Adds the virtual-threads profile when run with -Dloadtest.threads=virtual.
+     */
+    static class ThreadingProfiles implements ActiveProfilesResolver {
+        @Override
+        public String[] resolve(Class<?> testClass) {
+            return "virtual".equals(System.getProperty("loadtest.threads"))
+                    ? new String[] {"test", "virtual-threads"}
+                    : new String[] {"test"};
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.Elvis.ticket.loadtest;
+
+import com.Elvis.ticket.model.Customer;
+import com.Elvis.ticket.model.CustomerRole;
+import com.Elvis.ticket.model.Engineer;
+import com.Elvis.ticket.model.TeslaModel;
+import com.Elvis.ticket.model.User;
+import com.Elvis.ticket.model.UserRole;
+import com.Elvis.ticket.repository.CustomerRepository;
+import com.Elvis.ticket.repository.EngineerRepository;
+import com.Elvis.ticket.repository.TicketTypeRepository;
+import com.Elvis.ticket.repository.UserRepository;
+import com.Elvis.ticket.service.EngineerCapacityIndex;
+import com.Elvis.ticket.support.ApiIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simulates customers and engineers working through support conversations
+ * against the application on the H2 test profile, and prints throughput, latency
+ * percentiles and error rates per endpoint. Each virtual user is a customer who
+ * repeatedly:
+ * <ol>
+ *   <li>logs in (on the first conversation, then at {@code relogin-rate}),</li>
+ *   <li>opens a chat session and exchanges {@code chat-messages} messages with the assistant,</li>
+ *   <li>at {@code ticket-rate} opens a ticket, which is auto-assigned to a level 1 engineer,</li>
+ *   <li>trades {@code replies} messages with the assigned engineer, who logs in on first use,</li>
+ *   <li>at {@code escalation-rate} has the engineer escalate the ticket to level 2,</li>
+ *   <li>has the ticket resolved by its engineer and ends the session,</li>
+ * </ol>
+ * pausing {@code think-ms} between steps. Customers and enough engineers are
+ * created before the run. For example:
+ * <pre>
+ * mvn -Pload-test test -Dtest=TicketingLoadTest -Dloadtest.users=200 -Dloadtest.escalation-rate=0.3
+ * </pre>
+ * All settings are system properties prefixed with {@code loadtest.}.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ticketing-load;LOCK_TIMEOUT=30000",
+        "logging.level.com.Elvis.ticket=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.security.audit=WARN"
+})
+class TicketingLoadTest extends ApiIntegrationTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 100);
+    private static final Duration WARM_UP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 60));
+    private static final long THINK_MS = Long.getLong("loadtest.think-ms", 200);
+    private static final int CHAT_MESSAGES = Integer.getInteger("loadtest.chat-messages", 3);
+    private static final double TICKET_RATE = rate("loadtest.ticket-rate", 0.5);
+    private static final int REPLIES = Integer.getInteger("loadtest.replies", 2);
+    private static final double ESCALATION_RATE = rate("loadtest.escalation-rate", 0.2);
+    private static final double RELOGIN_RATE = rate("loadtest.relogin-rate", 0.1);
+
+    private static final String PASSWORD = "password123";
+    // Per engineer; the default engineers per category and level keep auto-assignment from running dry
+    private static final int MAX_TICKETS = 20;
+
+    private static final TeslaModel[] CATEGORIES = TeslaModel.values();
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private EngineerRepository engineerRepository;
+    @Autowired private TicketTypeRepository ticketTypeRepository;
+    @Autowired private EngineerCapacityIndex engineerCapacityIndex;
+    @Autowired private PasswordEncoder passwordEncoder;
+
+    private final Map<Integer, String> customerTokens = new ConcurrentHashMap<>();
+    private final Map<String, String> engineerTokens = new ConcurrentHashMap<>();
+    private Long ticketTypeId;
+
+    @Test
+    void supportConversationsUnderLoad() throws Exception {
+        createUsers();
+        ticketTypeId = ticketTypeRepository.findAll().get(0).getId();
+
+        LoadGenerator load = new LoadGenerator("http://localhost:" + port);
+        load.run(USERS, WARM_UP, DURATION, Duration.ZERO, this::conversation);
+
+        load.printReport(String.format("users=%d, think=%dms, chat=%d, tickets=%.2f, replies=%d, escalations=%.2f, relogins=%.2f",
+                USERS, THINK_MS, CHAT_MESSAGES, TICKET_RATE, REPLIES, ESCALATION_RATE, RELOGIN_RATE), System.out);
+        assertTrue(load.requests() > 0);
+        assertTrue(load.errors() <= load.requests() / 100, "more than 1% of requests failed");
+    }
+
+    private void conversation(LoadGenerator load, int user) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String customer = customerEmail(user);
+        String token = customerTokens.get(user);
+        if (token == null || random.nextDouble() < RELOGIN_RATE) {
+            token = load.login(customer, PASSWORD);
+            customerTokens.put(user, token);
+            think();
+        }
+
+        TeslaModel category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        long sessionId = LoadGenerator.json(load.post("POST /api/sessions", "/api/sessions", token,
+                Map.of("title", category + " question"))).get("id").asLong();
+        for (int i = 0; i < CHAT_MESSAGES; i++) {
+            think();
+            load.post("POST /api/sessions/{id}/message", "/api/sessions/" + sessionId + "/message", token,
+                    Map.of("role", "user", "content", "My " + category + " will not charge past 80%, what can I do?"));
+            load.post("POST /api/sessions/{id}/message", "/api/sessions/" + sessionId + "/message", token,
+                    Map.of("role", "assistant", "content", "Please check the charge limit in the charging settings."));
+        }
+
+        if (random.nextDouble() < TICKET_RATE) {
+            think();
+            JsonNode ticket = LoadGenerator.json(load.post("POST /api/tickets", "/api/tickets", token, Map.of(
+                    "title", category + " will not charge past 80%",
+                    "urgency", "HIGH",
+                    "category", category.name(),
+                    "type", Map.of("id", ticketTypeId),
+                    "session", Map.of("id", sessionId))));
+            long ticketId = ticket.get("id").asLong();
+            String engineer = ticket.get("engineer").get("email").asText();
+            String ticketPath = "/api/tickets/" + ticketId;
+
+            for (int i = 0; i < REPLIES; i++) {
+                think();
+                load.post("POST /api/tickets/{id}/message", ticketPath + "/message", engineerToken(load, engineer),
+                        Map.of("content", "Could you send a photo of the charging screen?"));
+                think();
+                load.post("POST /api/tickets/{id}/message", ticketPath + "/message", token,
+                        Map.of("content", "Here it is, the limit is set to 100%."));
+            }
+            if (random.nextDouble() < ESCALATION_RATE) {
+                think();
+                JsonNode escalated = LoadGenerator.json(load.put("PUT /api/tickets/{id}/escalate",
+                        ticketPath + "/escalate", engineerToken(load, engineer), null));
+                engineer = escalated.get("engineer").get("email").asText();
+            }
+            think();
+            load.put("PUT /api/tickets/{id}/status", ticketPath + "/status", engineerToken(load, engineer), "RESOLVED");
+        }
+
+        think();
+        load.put("PUT /api/sessions/{id}/end", "/api/sessions/" + sessionId + "/end", token, null);
+    }
+
+    private String engineerToken(LoadGenerator load, String email) throws Exception {
+        String token = engineerTokens.get(email);
+        if (token == null) {
+            token = load.login(email, PASSWORD);
+            engineerTokens.put(email, token);
+        }
+        return token;
+    }
+
+    private static void think() throws InterruptedException {
+        if (THINK_MS > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(THINK_MS / 2, THINK_MS * 3 / 2 + 1));
+        }
+    }
+
+    private void createUsers() {
+        // BCrypt is deliberately slow; every load test account shares one hash
+        String password = passwordEncoder.encode(PASSWORD);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < USERS; i++) {
+            User user = userRepository.save(user("Load Customer " + i, customerEmail(i), UserRole.CUSTOMER, password, now));
+            Customer customer = new Customer();
+            customer.setUser(user);
+            customer.setEmail(user.getEmail());
+            customer.setRole(CustomerRole.STANDARD.name());
+            customerRepository.save(customer);
+        }
+
+        // Open tickets at any time are bounded by the users, so size level 1 for all of them in one category
+        int perLevel = Math.max(1, (int) Math.ceil((double) USERS / MAX_TICKETS));
+        for (TeslaModel category : CATEGORIES) {
+            for (int level = 1; level <= 3; level++) {
+                for (int i = 0; i < perLevel; i++) {
+                    String email = "load-" + category.name().toLowerCase() + "-l" + level + "-" + i + "@example.com";
+                    User user = userRepository.save(user("Load Engineer " + email, email, UserRole.ENGINEER, password, now));
+                    Engineer engineer = new Engineer();
+                    engineer.setUser(user);
+                    engineer.setEmail(email);
+                    engineer.setCategory(category);
+                    engineer.setLevel(level);
+                    engineer.setMaxTickets(MAX_TICKETS);
+                    engineer.setCurrentTickets(0);
+                    engineerRepository.save(engineer);
+                }
+            }
+        }
+        engineerCapacityIndex.reconcile();
+    }
+
+    private static User user(String name, String email, UserRole role, String password, LocalDateTime now) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword(password);
+        user.setRole(role.name());
+        user.setCreatedAt(now);
+        return user;
+    }
+
+    private static String customerEmail(int user) {
+        return "load-customer-" + user + "@example.com";
+    }
+
+    private static double rate(String property, double defaultValue) {
+        String value = System.getProperty(property);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
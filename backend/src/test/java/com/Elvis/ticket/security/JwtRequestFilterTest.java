@@ -0,0 +1,105 @@
+package com.Elvis.ticket.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The two JWT filters run in turn on every request: the token is verified by the first
+ * and the second only steps in when the request is still unauthenticated.
+ */
+class JwtRequestFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private final JwtTokenProvider tokenProvider = mock(JwtTokenProvider.class);
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final AuthenticatedUserResolver authenticatedUserResolver = mock(AuthenticatedUserResolver.class);
+    private final SecurityAuditLogger auditLogger = mock(SecurityAuditLogger.class);
+    private final JwtAuthenticationFilter authenticationFilter = new JwtAuthenticationFilter();
+    private final JwtRequestFilter requestFilter = new JwtRequestFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(authenticationFilter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(authenticationFilter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(authenticationFilter, "auditLogger", auditLogger);
+        ReflectionTestUtils.setField(authenticationFilter, "authenticatedUserResolver", authenticatedUserResolver);
+        ReflectionTestUtils.setField(requestFilter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(requestFilter, "userDetailsService", userDetailsService);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenIsVerifiedOncePerRequest() throws Exception {
+        Claims claims = Jwts.claims().setSubject("cus@example.com");
+        claims.put("authorities", List.of("ROLE_CUSTOMER"));
+        AuthenticatedUser user = new AuthenticatedUser(7L, "cus@example.com", "CUSTOMER", 3L, null, null);
+        when(tokenProvider.getVerifiedClaims(TOKEN)).thenReturn(Optional.of(claims));
+        when(authenticatedUserResolver.fromClaims(claims)).thenReturn(user);
+
+        filter(request());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertSame(user, authentication.getPrincipal());
+        assertEquals("ROLE_CUSTOMER", authentication.getAuthorities().iterator().next().getAuthority());
+        verify(tokenProvider, times(1)).getVerifiedClaims(TOKEN);
+        verify(auditLogger).authenticated();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void requestFilterAuthenticatesWhenTheFirstFilterDidNot() throws Exception {
+        when(tokenProvider.getVerifiedClaims(TOKEN)).thenReturn(Optional.empty());
+
+        filter(request());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        // Rejected by both filters; nobody is looked up for an invalid token
+        verify(tokenProvider, times(2)).getVerifiedClaims(TOKEN);
+        verifyNoInteractions(userDetailsService);
+
+        Claims claims = Jwts.claims().setSubject("cus@example.com");
+        when(tokenProvider.getVerifiedClaims(TOKEN)).thenReturn(Optional.of(claims));
+        when(tokenProvider.validateToken(eq(TOKEN), any())).thenReturn(true);
+        when(userDetailsService.loadUserByUsername("cus@example.com"))
+                .thenReturn(User.withUsername("cus@example.com").password("unused").roles("CUSTOMER").build());
+
+        requestFilter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals("cus@example.com", SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    private void filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        authenticationFilter.doFilter(request, response,
+                new MockFilterChain(new HttpServlet() { }, requestFilter));
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tickets");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        return request;
+    }
+}
@@ -0,0 +1,91 @@
+package com.Elvis.ticket.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac-sha-256";
+
+    private final SecurityAuditLogger auditLogger = mock(SecurityAuditLogger.class);
+    private JwtTokenProvider tokenProvider;
+    private JwtParser parser;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = providerExpiringAfter(60000);
+    }
+
+    @Test
+    void repeatedTokensAreVerifiedOnce() {
+        String token = issue();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("cus@example.com", tokenProvider.getVerifiedClaims(token).orElseThrow().getSubject());
+        }
+        verify(parser, times(1)).parseClaimsJws(token);
+        verifyNoInteractions(auditLogger);
+    }
+
+    @Test
+    void cachedTokensAreRejectedOnceTheyExpire() throws Exception {
+        tokenProvider = providerExpiringAfter(1000);
+        String token = issue();
+        assertTrue(tokenProvider.validateToken(token));
+
+        Thread.sleep(1500);
+
+        // The entry expires with the token, so it is verified again and the parser rejects it
+        assertTrue(tokenProvider.getVerifiedClaims(token).isEmpty());
+        verify(parser, times(2)).parseClaimsJws(token);
+        verify(auditLogger).tokenRejected(any(ExpiredJwtException.class));
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        String token = issue();
+        assertTrue(tokenProvider.validateToken(token));
+
+        // Same signature over a different subject
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("cus@example.com", "admin@example.com");
+        String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+
+        assertTrue(tokenProvider.getVerifiedClaims(forged).isEmpty());
+        assertTrue(tokenProvider.getVerifiedClaims(token.substring(0, token.length() - 2) + "xx").isEmpty());
+        verify(auditLogger, times(2)).tokenRejected(any(SignatureException.class));
+    }
+
+    private JwtTokenProvider providerExpiringAfter(int expirationInMs) {
+        JwtTokenProvider provider = new JwtTokenProvider(auditLogger);
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", expirationInMs);
+        ReflectionTestUtils.setField(provider, "claimsCacheSize", 100L);
+        provider.init();
+        parser = spy((JwtParser) ReflectionTestUtils.getField(provider, "parser"));
+        ReflectionTestUtils.setField(provider, "parser", parser);
+        return provider;
+    }
+
+    private String issue() {
+        UserDetails user = User.withUsername("cus@example.com").password("unused").roles("CUSTOMER").build();
+        String token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        clearInvocations(auditLogger);
+        return token;
+    }
+}
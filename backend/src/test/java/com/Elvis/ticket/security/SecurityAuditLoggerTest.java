@@ -0,0 +1,89 @@
+package com.Elvis.ticket.security;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityAuditLoggerTest {
+
+    private final Logger audit = (Logger) LoggerFactory.getLogger("security.audit");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final SecurityAuditLogger auditLogger = new SecurityAuditLogger(2);
+    private Level previousLevel;
+
+    @BeforeEach
+    void attachAppender() {
+        previousLevel = audit.getLevel();
+        audit.setLevel(Level.INFO);
+        appender.start();
+        audit.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        audit.detachAppender(appender);
+        audit.setLevel(previousLevel);
+    }
+
+    @Test
+    void rejectionDetailsAreLimitedPerInterval() {
+        for (int i = 0; i < 5; i++) {
+            auditLogger.tokenRejected(new MalformedJwtException("Bad token " + i));
+        }
+
+        List<String> details = messages(Level.WARN);
+        assertEquals(List.of(
+                "event=token_rejected reason=MalformedJwtException message=\"Bad token 0\"",
+                "event=token_rejected reason=MalformedJwtException message=\"Bad token 1\""), details);
+
+        // The summary starts a new interval with a fresh budget
+        auditLogger.logSummary();
+        auditLogger.tokenRejected(new MalformedJwtException("Bad token 5"));
+        assertEquals(3, messages(Level.WARN).size());
+    }
+
+    @Test
+    void summaryCountsAuthenticationsAndRejectionsByReason() {
+        for (int i = 0; i < 4; i++) {
+            auditLogger.authenticated();
+        }
+        auditLogger.tokenRejected(new MalformedJwtException("Bad token"));
+        auditLogger.tokenRejected(new ExpiredJwtException(null, null, "Expired"));
+        auditLogger.tokenRejected(new MalformedJwtException("Bad token"));
+
+        auditLogger.logSummary();
+
+        assertEquals(List.of("event=auth_summary authenticated=4 "
+                        + "rejected={ExpiredJwtException=1, MalformedJwtException=2} suppressed_details=1"),
+                messages(Level.INFO));
+    }
+
+    @Test
+    void quietIntervalsWriteNoSummary() {
+        auditLogger.authenticated();
+        auditLogger.logSummary();
+        appender.list.clear();
+
+        auditLogger.logSummary();
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    private List<String> messages(Level level) {
+        return appender.list.stream()
+                .filter(event -> event.getLevel() == level)
+                .map(ILoggingEvent::getFormattedMessage)
+                .toList();
+    }
+}
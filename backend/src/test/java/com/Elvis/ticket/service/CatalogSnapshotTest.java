@@ -0,0 +1,66 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.model.TicketType;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private final List<TicketType> table = new ArrayList<>(List.of(type(1L, "Hardware"), type(2L, "Software")));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CatalogSnapshot<TicketType> catalog = new CatalogSnapshot<>(() -> {
+        loads.incrementAndGet();
+        return new ArrayList<>(table);
+    }, TicketType::getId);
+
+    @Test
+    void loadsTheTableOnceForAllReads() {
+        assertEquals(2, catalog.all().size());
+        assertEquals("Software", catalog.byId(2L).orElseThrow().getName());
+        assertTrue(catalog.byId(3L).isEmpty());
+        assertEquals(1, loads.get());
+        assertThrows(UnsupportedOperationException.class, () -> catalog.all().add(type(3L, "Billing")));
+    }
+
+    @Test
+    void changeOutsideATransactionIsSeenByTheNextRead() {
+        catalog.all();
+        table.add(type(3L, "Billing"));
+        catalog.changed();
+
+        assertEquals("Billing", catalog.byId(3L).orElseThrow().getName());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void changeInsideATransactionIsSeenOnceItCompletes() {
+        catalog.all();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            table.remove(0);
+            catalog.changed();
+            assertEquals(2, catalog.all().size());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1, catalog.all().size());
+        assertTrue(catalog.byId(1L).isEmpty());
+    }
+
+    private static TicketType type(Long id, String name) {
+        TicketType type = new TicketType();
+        type.setId(id);
+        type.setName(name);
+        return type;
+    }
+}
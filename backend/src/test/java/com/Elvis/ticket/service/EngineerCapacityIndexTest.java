@@ -0,0 +1,137 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.dto.EngineerCapacity;
+import com.Elvis.ticket.model.Engineer;
+import com.Elvis.ticket.model.TeslaModel;
+import com.Elvis.ticket.repository.EngineerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EngineerCapacityIndexTest {
+
+    private final EngineerRepository engineerRepository = mock(EngineerRepository.class);
+    private final List<EngineerCapacity> engineers = new ArrayList<>();
+    private EngineerCapacityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(engineerRepository.findAllCapacities()).thenAnswer(invocation -> List.copyOf(engineers));
+        index = new EngineerCapacityIndex(engineerRepository);
+    }
+
+    @Test
+    void picksTheLeastLoadedEngineerWithTheLowestIdOnTies() {
+        engineers.add(capacity(4, TeslaModel.MODEL_S, 1, 2, 3));
+        engineers.add(capacity(3, TeslaModel.MODEL_S, 1, 1, 3));
+        engineers.add(capacity(2, TeslaModel.MODEL_S, 1, 1, 3));
+        engineers.add(capacity(1, TeslaModel.MODEL_S, 1, 3, 3));
+        engineers.add(capacity(5, TeslaModel.MODEL_S, 2, 0, 4));
+
+        assertEquals(Optional.of(2L), index.findLeastLoaded(TeslaModel.MODEL_S, 1, Set.of()));
+        assertEquals(Optional.of(5L), index.findLeastLoaded(TeslaModel.MODEL_S, 2, Set.of()));
+        assertEquals(Optional.empty(), index.findLeastLoaded(TeslaModel.MODEL_X, 1, Set.of()));
+    }
+
+    @Test
+    void skipsExcludedEngineers() {
+        engineers.add(capacity(1, TeslaModel.MODEL_3, 2, 0, 4));
+        engineers.add(capacity(2, TeslaModel.MODEL_3, 2, 1, 4));
+
+        assertEquals(Optional.of(2L), index.findLeastLoaded(TeslaModel.MODEL_3, 2, Set.of(1L)));
+        assertEquals(Optional.empty(), index.findLeastLoaded(TeslaModel.MODEL_3, 2, Set.of(1L, 2L)));
+    }
+
+    @Test
+    void nullCategorySearchesEveryCategory() {
+        engineers.add(capacity(1, TeslaModel.MODEL_S, 2, 3, 4));
+        engineers.add(capacity(2, TeslaModel.CYBERTRUCK, 2, 1, 4));
+        engineers.add(capacity(3, TeslaModel.MODEL_Y, 2, 1, 4));
+
+        assertEquals(Optional.of(2L), index.findLeastLoaded(null, 2, Set.of()));
+        assertEquals(Optional.of(3L), index.findLeastLoaded(null, 2, Set.of(2L)));
+    }
+
+    @Test
+    void updatesApplyOnlyOnceTheTransactionCommits() {
+        engineers.add(capacity(1, TeslaModel.MODEL_X, 1, 0, 3));
+        engineers.add(capacity(2, TeslaModel.MODEL_X, 1, 1, 3));
+        assertEquals(Optional.of(1L), index.findLeastLoaded(TeslaModel.MODEL_X, 1, Set.of()));
+
+        // Rolled back: the index keeps what it had
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> index.update(engineer(1, TeslaModel.MODEL_X, 1, 3, 3)));
+        assertEquals(Optional.of(1L), index.findLeastLoaded(TeslaModel.MODEL_X, 1, Set.of()));
+
+        // Committed: engineer 1 is full and no longer offered
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            index.update(engineer(1, TeslaModel.MODEL_X, 1, 3, 3));
+            assertEquals(Optional.of(1L), index.findLeastLoaded(TeslaModel.MODEL_X, 1, Set.of()));
+        });
+        assertEquals(Optional.of(2L), index.findLeastLoaded(TeslaModel.MODEL_X, 1, Set.of()));
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> index.remove(2L));
+        assertEquals(Optional.empty(), index.findLeastLoaded(TeslaModel.MODEL_X, 1, Set.of()));
+        verify(engineerRepository, times(1)).findAllCapacities();
+    }
+
+    @Test
+    void reconcileCountsTheEngineersThatDrifted() {
+        engineers.add(capacity(1, TeslaModel.MODEL_S, 1, 0, 3));
+        engineers.add(capacity(2, TeslaModel.MODEL_S, 1, 1, 3));
+        engineers.add(capacity(3, TeslaModel.MODEL_S, 1, 2, 3));
+        index.findLeastLoaded(TeslaModel.MODEL_S, 1, Set.of());
+        assertEquals(0, index.reconcile());
+
+        // One changed behind the index's back, one was deleted and one is new
+        engineers.set(0, capacity(1, TeslaModel.MODEL_S, 1, 3, 3));
+        engineers.remove(2);
+        engineers.add(capacity(4, TeslaModel.MODEL_S, 1, 0, 3));
+        assertEquals(3, index.reconcile());
+        assertEquals(Optional.of(4L), index.findLeastLoaded(TeslaModel.MODEL_S, 1, Set.of()));
+        assertEquals(0, index.reconcile());
+    }
+
+    private static void inTransaction(int status, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                    sync.afterCommit();
+                }
+                sync.afterCompletion(status);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Engineer engineer(long id, TeslaModel category, int level, int currentTickets, int maxTickets) {
+        Engineer engineer = new Engineer();
+        engineer.setId(id);
+        engineer.setCategory(category);
+        engineer.setLevel(level);
+        engineer.setCurrentTickets(currentTickets);
+        engineer.setMaxTickets(maxTickets);
+        return engineer;
+    }
+
+    private static EngineerCapacity capacity(long id, TeslaModel category, int level, int currentTickets, int maxTickets) {
+        return new EngineerCapacity() {
+            public Long getId() { return id; }
+            public TeslaModel getCategory() { return category; }
+            public int getLevel() { return level; }
+            public int getCurrentTickets() { return currentTickets; }
+            public int getMaxTickets() { return maxTickets; }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.dto.LogAggregationResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogAggregatorTest {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime START = LocalDateTime.of(2025, 5, 18, 0, 0);
+    private static final String FILE = "app.log";
+
+    @TempDir
+    Path dir;
+
+    private LogService logService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Ten hours with one entry every 10 seconds; every 6th is a WARN, every 60th an ERROR with a stack trace
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 10 * 360; i++) {
+            String level = i % 60 == 0 ? "ERROR" : i % 6 == 0 ? "WARN " : "INFO ";
+            String logger = i % 2 == 0 ? "c.E.ticket.service.TicketService" : "o.s.web.servlet.DispatcherServlet";
+            log.append(START.plusSeconds(i * 10L).format(TIMESTAMP_FORMAT)).append(' ').append(level).append(' ')
+                    .append(logger).append(" - Entry ").append(i).append('\n');
+            if (i % 60 == 0) {
+                log.append("java.lang.IllegalStateException: 2025-05-18 00:00:00 INFO  not a header\n")
+                        .append("\tat com.Elvis.ticket.Foo.bar(Foo.java:42)\n");
+            }
+        }
+        Files.writeString(dir.resolve(FILE), log);
+
+        logService = new LogService();
+        ReflectionTestUtils.setField(logService, "logDirectory", dir.toString());
+    }
+
+    @Test
+    void countsLevelsPerHourAndLogger() {
+        LogAggregationResponse response = logService.aggregate(FILE, null, null, "hour", 20);
+
+        assertEquals(3600, response.getTotal());
+        assertEquals(60, response.getCounts().get("ERROR"));
+        assertEquals(540, response.getCounts().get("WARN"));
+        assertEquals(0, response.getCounts().get("DEBUG"));
+        assertEquals(10, response.getBuckets().size());
+        assertEquals(START.plusHours(3), response.getBuckets().get(3).getStart());
+        assertEquals(6, response.getBuckets().get(3).getCounts().get("ERROR"));
+
+        assertEquals(2, response.getLoggers().size());
+        LogAggregationResponse.LoggerCounts service = response.getLoggers().get(0);
+        assertEquals("c.E.ticket.service.TicketService", service.getLogger());
+        assertEquals(1800, service.getTotal());
+        // Every WARN and ERROR is on an even entry
+        assertEquals(60, service.getCounts().get("ERROR"));
+        assertEquals(0, response.getLoggers().get(1).getCounts().get("WARN"));
+    }
+
+    @Test
+    void limitsToTheTimeWindowPerMinute() {
+        LocalDateTime from = START.plusHours(2).plusSeconds(30);
+        LocalDateTime to = START.plusHours(2).plusMinutes(5);
+        LogAggregationResponse response = logService.aggregate(FILE, from, to, "minute", 1);
+
+        // 02:00:30 up to 02:04:50 inclusive
+        assertEquals(27, response.getTotal());
+        assertEquals(5, response.getBuckets().size());
+        assertEquals(START.plusHours(2), response.getBuckets().get(0).getStart());
+        assertEquals(3, response.getBuckets().get(0).getCounts().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(1, response.getLoggers().size());
+    }
+
+    @Test
+    void rejectsUnknownIntervals() {
+        assertThrows(IllegalArgumentException.class, () -> logService.aggregate(FILE, null, null, "week", 20));
+    }
+}
@@ -0,0 +1,201 @@
+package com.Elvis.ticket.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogFileIndexTest {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime START = LocalDateTime.of(2025, 5, 18, 0, 0);
+    private static final int WARN = 1 << 3;
+    private static final int ERROR = 1 << 4;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void blocksStartAtAnEntryAndDescribeItsLines() throws IOException {
+        Path log = write("app.log", entries(0, 4000));
+
+        LogFileIndex.Snapshot snapshot = index(log).refresh();
+
+        assertTrue(snapshot.blocks().size() > 3);
+        assertEquals(0, snapshot.blocks().get(0).offset());
+        assertEquals(Files.size(log), snapshot.length());
+        byte[] content = Files.readAllBytes(log);
+        for (int i = 0; i < snapshot.blocks().size(); i++) {
+            LogFileIndex.Block block = snapshot.blocks().get(i);
+            // Rebuilt from the lines it covers, the block must match exactly, starting with a header
+            assertEquals(describe(content, block.offset(), snapshot.blockEnd(i)), block, "block " + i);
+            assertTrue(i == 0 || block.offset() - snapshot.blocks().get(i - 1).offset() >= LogFileIndex.BLOCK_SIZE);
+        }
+    }
+
+    @Test
+    void growingFilesAreIndexedFromTheirLastBlock() throws IOException {
+        Path log = write("app.log", entries(0, 1500));
+        LogFileIndex index = index(log);
+        LogFileIndex.Snapshot before = index.refresh();
+
+        // A partly written line is left for the next refresh
+        append(log, entries(1500, 3000) + START.format(TIMESTAMP_FORMAT) + " INFO  com.exa");
+        LogFileIndex.Snapshot grown = index.refresh();
+        assertEquals(Files.size(log) - " INFO  com.exa".length() - 19, grown.length());
+        assertEquals(before.blocks().subList(0, before.blocks().size() - 1),
+                grown.blocks().subList(0, before.blocks().size() - 1));
+
+        append(log, "mple.Job - Finished\n");
+        LogFileIndex.Snapshot completed = index.refresh();
+        assertEquals(Files.size(log), completed.length());
+        assertEquals(index(copy(log)).refresh(), completed);
+    }
+
+    @Test
+    void rotatedFilesAreReindexed() throws IOException {
+        Path log = write("app.log", entries(0, 3000));
+        LogFileIndex index = index(log);
+        index.refresh();
+
+        // Truncated: shorter than what was indexed
+        write("app.log", entries(5000, 5100));
+        assertEquals(index(copy(log)).refresh(), index.refresh());
+
+        // Replaced by a longer file with different first bytes
+        write("app.log", entries(6000, 9000));
+        LogFileIndex.Snapshot rotated = index.refresh();
+        assertEquals(index(copy(log)).refresh(), rotated);
+        assertEquals(epochSecond(START.plusMinutes(6000)), rotated.blocks().get(0).firstSecond());
+    }
+
+    @Test
+    void savedIndexIsReusedAfterARestart() throws IOException {
+        Path log = write("app.log", entries(0, 3000));
+        LogFileIndex.Snapshot saved = index(log).refresh();
+        assertTrue(Files.exists(dir.resolve("app.log.idx")));
+
+        // Rewritten in place past the fingerprinted head: only a rescan would see the WARN
+        rewriteInPlace(log, "Finished job 2999", "WARN", "INFO ");
+
+        LogFileIndex.Snapshot restarted = index(log).refresh();
+        assertEquals(saved, restarted);
+        assertEquals(0, restarted.blocks().stream().mapToInt(LogFileIndex.Block::levels).reduce(0, (a, b) -> a | b) & WARN);
+    }
+
+    @Test
+    void indexesInAnotherFormatAreIgnored() throws IOException {
+        Path log = write("app.log", entries(0, 3000));
+        index(log).refresh();
+        rewriteInPlace(log, "Finished job 2999", "WARN", "INFO ");
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve("app.log.idx").toFile(), "rw")) {
+            file.seek(4);
+            file.writeInt(LogFileIndex.FORMAT_VERSION + 1);
+        }
+
+        LogFileIndex.Snapshot rebuilt = index(log).refresh();
+
+        assertEquals(WARN, rebuilt.blocks().get(rebuilt.blocks().size() - 1).levels() & WARN);
+    }
+
+    @Test
+    void blocksAreSkippedByLevelAndTime() {
+        LogFileIndex.Block block = new LogFileIndex.Block(0, 100, 200, (1 << 2) | ERROR);
+
+        assertTrue(block.mayContain(0, 0, Long.MAX_VALUE));
+        assertTrue(block.mayContain(ERROR, 0, Long.MAX_VALUE));
+        assertTrue(block.mayContain(WARN | ERROR, 150, 151));
+        assertFalse(block.mayContain(WARN, 0, Long.MAX_VALUE));
+
+        // The window is [from, to): an entry at the last second matches, one at "to" does not
+        assertTrue(block.mayContain(0, 200, 300));
+        assertFalse(block.mayContain(0, 201, 300));
+        assertTrue(block.mayContain(0, 0, 101));
+        assertFalse(block.mayContain(0, 0, 100));
+    }
+
+    private LogFileIndex index(Path log) {
+        return new LogFileIndex(log, dir.resolve(log.getFileName() + ".idx"));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content);
+    }
+
+    private static void append(Path log, String content) throws IOException {
+        Files.writeString(log, content, StandardOpenOption.APPEND);
+    }
+
+    private Path copy(Path log) throws IOException {
+        return Files.copy(log, dir.resolve("copy-" + System.nanoTime() + ".log"));
+    }
+
+    /**
+     * Replaces the level of the entry containing {@code marker}, keeping the file length.
+     */
+    private static void rewriteInPlace(Path log, String marker, String level, String previous) throws IOException {
+        String content = Files.readString(log);
+        int entry = content.lastIndexOf('\n', content.indexOf(marker)) + 1;
+        int at = content.indexOf(previous, entry);
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            file.seek(content.substring(0, at).getBytes(StandardCharsets.UTF_8).length);
+            file.write(String.format("%-5s", level).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * One entry per minute; every tenth is an error with a few lines of stack trace.
+     */
+    private static String entries(int fromMinute, int toMinute) {
+        StringBuilder log = new StringBuilder();
+        for (int minute = fromMinute; minute < toMinute; minute++) {
+            boolean error = minute % 10 == 0;
+            log.append(START.plusMinutes(minute).format(TIMESTAMP_FORMAT)).append(error ? " ERROR" : " INFO ")
+                    .append(" com.example.Job - Finished job ").append(minute).append('\n');
+            if (error) {
+                for (int frame = 0; frame < 4; frame++) {
+                    log.append("\tat com.example.Job.step").append(frame).append("(Job.java:").append(frame).append(")\n");
+                }
+            }
+        }
+        return log.toString();
+    }
+
+    private static LogFileIndex.Block describe(byte[] content, long from, long to) {
+        LogLineParser parser = new LogLineParser();
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        int levels = 0;
+        int lineStart = (int) from;
+        for (int i = (int) from; i < to; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            boolean header = parser.parse(content, lineStart, i);
+            if (lineStart == from) {
+                assertTrue(header, "block at " + from + " starts with a continuation line");
+            }
+            if (header) {
+                first = Math.min(first, parser.epochSecond());
+                last = Math.max(last, parser.epochSecond());
+                levels |= 1 << parser.level();
+            }
+            lineStart = i + 1;
+        }
+        return new LogFileIndex.Block(from, first, last, levels);
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
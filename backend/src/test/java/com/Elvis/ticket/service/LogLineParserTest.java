@@ -0,0 +1,108 @@
+package com.Elvis.ticket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogLineParserTest {
+
+    // The regular expression the log viewer used before the parser replaced it
+    private static final Pattern REFERENCE = Pattern.compile(
+            "(\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2})\\s+" +
+            "(INFO|DEBUG|WARN|ERROR|TRACE)\\s+" +
+            "([\\w\\.\\$]+)\\s+-\\s+" +
+            "(.*)");
+
+    // Logback never writes impossible dates, so the parser rejects them rather than adjusting them
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss").withResolverStyle(ResolverStyle.STRICT);
+
+    private static final List<String> LINES = List.of(
+            "2025-05-18 15:22:25 INFO  o.h.validator.internal.util.Version - HV000001: Hibernate Validator 8.0.1.Final",
+            "2024-02-29 00:00:00 ERROR com.Elvis.ticket.service.TicketService - Failed: x - y",
+            "2025-12-31 23:59:59 DEBUG a$B_c.d9 - ",
+            "2025-01-01 12:00:00\tWARN\tlogger\t-\tmessage with tabs",
+            "1969-07-20 20:17:40 TRACE moon - é ünïcödé",
+            "2025-05-18 15:22:25 INFO  com.x.Y -no space after dash",
+            "2025-05-18 15:22:25 INFO  com.x.Y- no space before dash",
+            "2025-05-18 15:22:25 INFOcom.x.Y - no space after level",
+            "2025-05-18 15:22:25 FATAL com.x.Y - unknown level",
+            "2025-05-18 15:22:25 info  com.x.Y - lower-case level",
+            "2025-05-18 15:22:25 INFO  com.x-y.Z - dash in logger",
+            "2025-05-18 15:22:25  INFO com.x.Y - two spaces before level",
+            "2025-13-18 15:22:25 INFO  com.x.Y - month out of range",
+            "2025-02-29 15:22:25 INFO  com.x.Y - not a leap year",
+            "2025-05-18 24:00:00 INFO  com.x.Y - hour out of range",
+            "2025-05-18T15:22:25 INFO  com.x.Y - ISO separator",
+            "2025-5-18 15:22:25 INFO  com.x.Y - short month",
+            "\tat com.Elvis.ticket.Foo.bar(Foo.java:42)",
+            "java.lang.IllegalStateException: boom",
+            "",
+            "2025-05-18 15:22:25");
+
+    @Test
+    void acceptsTheSameHeadersAsTheRegularExpression() {
+        LogLineParser parser = new LogLineParser();
+        for (String line : LINES) {
+            Matcher matcher = REFERENCE.matcher(line);
+            LocalDateTime expected = matcher.matches() ? parseTimestamp(matcher.group(1)) : null;
+
+            assertEquals(expected != null, parser.parse(line), line);
+            if (expected == null) {
+                continue;
+            }
+            assertEquals(expected, parser.timestamp(), line);
+            assertEquals(matcher.group(2), parser.levelName(), line);
+            assertEquals(matcher.group(3), line.substring(parser.loggerStart(), parser.loggerEnd()), line);
+            assertEquals(matcher.group(4), line.substring(parser.messageStart()), line);
+        }
+    }
+
+    @Test
+    void parsesRawBytesLikeDecodedText() {
+        LogLineParser fromText = new LogLineParser();
+        LogLineParser fromBytes = new LogLineParser();
+        for (String line : LINES) {
+            byte[] bytes = ("xx" + line + "yy").getBytes(StandardCharsets.UTF_8);
+            int end = bytes.length - 2;
+
+            boolean parsed = fromText.parse(line + "yy");
+            assertEquals(parsed, fromBytes.parse(bytes, 2, end), line);
+            if (parsed) {
+                assertEquals(fromText.epochSecond(), fromBytes.epochSecond(), line);
+                assertEquals(fromText.level(), fromBytes.level(), line);
+                assertEquals(line.substring(fromText.loggerStart(), fromText.loggerEnd()),
+                        new String(bytes, 2 + fromBytes.loggerStart(), fromBytes.loggerEnd() - fromBytes.loggerStart(),
+                                StandardCharsets.UTF_8), line);
+            }
+        }
+    }
+
+    @Test
+    void containsIgnoreCaseMatchesLowerCasedContains() {
+        String text = "Failed to assign Ticket #42 to ENGINEER ölaf";
+        for (String needle : List.of("ticket", "TICKET #4", "engineer ÖLAF", "f", "", "olaf", "42 to", "missing", text + "!")) {
+            assertEquals(text.toLowerCase().contains(needle.toLowerCase()),
+                    LogLineParser.containsIgnoreCase(text, 0, text.length(), needle), needle);
+        }
+        assertFalse(LogLineParser.containsIgnoreCase(text, 0, 10, "ticket"));
+        assertTrue(LogLineParser.containsIgnoreCase(text, 17, 23, "ticket"));
+    }
+
+    private static LocalDateTime parseTimestamp(String timestamp) {
+        try {
+            return LocalDateTime.parse(timestamp, TIMESTAMP_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.dto.LogSearchEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogSearchServiceTest {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime START = LocalDateTime.of(2025, 5, 18, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private LogSearchService searchService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Three days of rotated logs, one entry per minute; the oldest day is compressed
+        writeGzip("log-2025-05-18_00-00-00.log.gz", day(0));
+        Files.writeString(dir.resolve("log-2025-05-19_00-00-00.log"), day(1));
+        Files.writeString(dir.resolve("log-2025-05-20_00-00-00.log"), day(2));
+        Files.writeString(dir.resolve("notes.txt"), "not a log");
+
+        LogService logService = new LogService();
+        ReflectionTestUtils.setField(logService, "logDirectory", dir.toString());
+        searchService = new LogSearchService(logService, 2, 100, 1000);
+        ReflectionTestUtils.setField(searchService, "logDirectory", dir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchService.shutdown();
+    }
+
+    @Test
+    void mergesAllFilesNewestFirst() {
+        List<LogSearchEntry> entries = searchService.search(null, "ERROR", null, null, null, 1000);
+
+        // Every 60th minute is an error: 24 per day
+        assertEquals(72, entries.size());
+        for (int i = 1; i < entries.size(); i++) {
+            assertTrue(entries.get(i - 1).getTimestamp().isAfter(entries.get(i).getTimestamp()));
+        }
+        assertEquals("log-2025-05-20_00-00-00.log", entries.get(0).getFile());
+        assertEquals("log-2025-05-18_00-00-00.log.gz", entries.get(71).getFile());
+        assertEquals(START, entries.get(71).getTimestamp());
+        assertTrue(entries.get(71).getMessage().endsWith("\n\tat com.example.Job.run(Job.java:1)"));
+    }
+
+    @Test
+    void stopsAtLimitWithTheNewestEntries() {
+        List<LogSearchEntry> entries = searchService.search(null, null, null, null, null, 5);
+
+        assertEquals(5, entries.size());
+        assertEquals(START.plusDays(3).minusMinutes(1), entries.get(0).getTimestamp());
+        assertEquals(START.plusDays(3).minusMinutes(5), entries.get(4).getTimestamp());
+    }
+
+    @Test
+    void limitsTheTimeWindowAndFiles() {
+        LocalDateTime from = START.plusHours(23);
+        LocalDateTime to = START.plusHours(25);
+        List<LogSearchEntry> entries = searchService.search(null, null, "job 1", from, to, 1000);
+
+        // Minutes ending in 1 within two hours spanning the compressed and the next file
+        assertEquals(12, entries.size());
+        assertTrue(entries.stream().allMatch(e -> !e.getTimestamp().isBefore(from) && e.getTimestamp().isBefore(to)));
+        assertEquals(2, entries.stream().map(LogSearchEntry::getFile).distinct().count());
+
+        List<LogSearchEntry> oneFile = searchService.search(List.of("log-2025-05-19_00-00-00.log"), null, "job 1", from, to, 1000);
+        assertEquals(6, oneFile.size());
+    }
+
+    private static String day(int day) {
+        StringBuilder log = new StringBuilder();
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            LocalDateTime time = START.plusDays(day).plusMinutes(minute);
+            String level = minute % 60 == 0 ? "ERROR" : "INFO ";
+            log.append(time.format(TIMESTAMP_FORMAT)).append(' ').append(level)
+                    .append(" com.example.Job - Finished job ").append(minute % 10).append('\n');
+            if (minute % 60 == 0) {
+                log.append("\tat com.example.Job.run(Job.java:1)\n");
+            }
+        }
+        return log.toString();
+    }
+
+    private void writeGzip(String name, String content) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(dir.resolve(name)))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
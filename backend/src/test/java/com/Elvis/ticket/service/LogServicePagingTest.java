@@ -0,0 +1,99 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.dto.LogPageResponse;
+import com.Elvis.ticket.model.LogEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogServicePagingTest {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String FILE = "app.log";
+
+    @TempDir
+    Path dir;
+
+    private LogService logService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Large enough for several index blocks; every 7th entry carries a stack trace
+        StringBuilder log = new StringBuilder();
+        LocalDateTime start = LocalDateTime.of(2025, 5, 18, 0, 0);
+        for (int i = 0; i < 5000; i++) {
+            String level = i % 7 == 0 ? "ERROR" : "INFO ";
+            log.append(start.plusSeconds(i).format(TIMESTAMP_FORMAT)).append(' ').append(level)
+                    .append(" c.E.ticket.service.TicketService - Entry ").append(i).append('\n');
+            if (i % 7 == 0) {
+                log.append("java.lang.IllegalStateException: entry ").append(i).append('\n')
+                        .append("\tat com.Elvis.ticket.Foo.bar(Foo.java:42)\n");
+            }
+        }
+        Files.writeString(dir.resolve(FILE), log);
+
+        logService = new LogService();
+        ReflectionTestUtils.setField(logService, "logDirectory", dir.toString());
+        ReflectionTestUtils.setField(logService, "maxEntries", 100_000);
+        ReflectionTestUtils.setField(logService, "maxPageSize", 1000);
+    }
+
+    @Test
+    void pagesCoverEveryEntryOnceNewestFirst() {
+        assertPagesMatchFullRead(null, null, 97);
+        assertPagesMatchFullRead("ERROR", "illegalstate", 40);
+    }
+
+    @Test
+    void rejectsForeignCursors() {
+        assertThrows(IllegalArgumentException.class,
+                () -> logService.getLogPage(FILE, null, null, null, null, "not a cursor!", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> logService.getLogPage(FILE, null, null, null, null, "LTE", 10));
+    }
+
+    @Test
+    void capsThePlainListAndPageSize() {
+        ReflectionTestUtils.setField(logService, "maxEntries", 50);
+        ReflectionTestUtils.setField(logService, "maxPageSize", 20);
+
+        assertEquals(50, logService.getLogContent(FILE, null, null, null, null, null).size());
+        assertEquals(20, logService.getLogPage(FILE, null, null, null, null, null, 500).getEntries().size());
+    }
+
+    @Test
+    void nonPositiveLimitsReturnNothing() throws IOException {
+        assertTrue(logService.getLogContent(FILE, null, null, null, null, 0).isEmpty());
+        assertTrue(logService.getLogContent(FILE, null, null, null, null, -5).isEmpty());
+        assertTrue(logService.readNewestFirst(dir.resolve(FILE).toFile(), LogFilter.of(null, null, null, null), 0,
+                () -> Long.MIN_VALUE).isEmpty());
+
+        ReflectionTestUtils.setField(logService, "maxEntries", 0);
+        assertTrue(logService.getLogContent(FILE, null, null, null, null, null).isEmpty());
+    }
+
+    private void assertPagesMatchFullRead(String level, String search, int size) {
+        List<LogEntry> expected = logService.getLogContent(FILE, level, search, null, null, null);
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            LogPageResponse page = logService.getLogPage(FILE, level, search, null, null, cursor, size);
+            assertTrue(page.getEntries().size() <= size);
+            page.getEntries().forEach(entry -> paged.add(entry.getTimestamp() + entry.getMessage()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected.stream().map(entry -> entry.getTimestamp() + entry.getMessage()).toList(), paged);
+    }
+}
@@ -0,0 +1,213 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.model.LogEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogTailerTest {
+
+    @TempDir
+    Path dir;
+
+    private final ExecutorService sender = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        sender.shutdownNow();
+    }
+
+    @Test
+    void sendsOnlyEntriesWrittenAfterItStarted() throws Exception {
+        Path log = Files.writeString(dir.resolve("app.log"), line("00", "INFO", "Before the viewer"));
+        LogTailer tailer = new LogTailer(log);
+        RecordingEmitter viewer = subscribe(tailer, null);
+
+        append(log, line("01", "INFO", "First") + line("02", "WARN", "Second"));
+        tailer.poll();
+        // The last entry waits for a poll without new data, in case continuation lines follow
+        viewer.awaitEntries(1);
+        tailer.poll();
+
+        assertEquals(List.of("First", "Second"), viewer.awaitEntries(2));
+    }
+
+    @Test
+    void continuationLinesWrittenLaterStayWithTheirEntry() throws Exception {
+        Path log = Files.writeString(dir.resolve("app.log"), "");
+        LogTailer tailer = new LogTailer(log);
+        RecordingEmitter viewer = subscribe(tailer, null);
+
+        append(log, line("01", "ERROR", "Job failed") + "java.lang.IllegalStateException: boom\n");
+        tailer.poll();
+        append(log, "\tat com.example.Job.run(Job.java:1)\n" + line("02", "INFO", "Retrying"));
+        tailer.poll();
+        tailer.poll();
+
+        assertEquals(List.of("Job failed\njava.lang.IllegalStateException: boom\n\tat com.example.Job.run(Job.java:1)",
+                "Retrying"), viewer.awaitEntries(2));
+    }
+
+    @Test
+    void truncatedFilesAreFollowedFromTheStart() throws Exception {
+        Path log = Files.writeString(dir.resolve("app.log"), line("00", "INFO", "Old entry").repeat(20));
+        LogTailer tailer = new LogTailer(log);
+        RecordingEmitter viewer = subscribe(tailer, null);
+
+        Files.writeString(log, line("05", "INFO", "After rotation"));
+        tailer.poll();
+        tailer.poll();
+
+        assertEquals(List.of("After rotation"), viewer.awaitEntries(1));
+    }
+
+    @Test
+    void eachViewerGetsTheEntriesMatchingItsFilter() throws Exception {
+        Path log = Files.writeString(dir.resolve("app.log"), "");
+        LogTailer tailer = new LogTailer(log);
+        RecordingEmitter all = subscribe(tailer, null);
+        RecordingEmitter errors = subscribe(tailer, "ERROR");
+
+        append(log, line("01", "INFO", "Started") + line("02", "ERROR", "Failed") + line("03", "INFO", "Stopped"));
+        tailer.poll();
+        tailer.poll();
+
+        assertEquals(List.of("Started", "Failed", "Stopped"), all.awaitEntries(3));
+        assertEquals(List.of("Failed"), errors.awaitEntries(1));
+    }
+
+    @Test
+    void blockedViewerIsDroppedWithoutHoldingUpThePollOrOthers() throws Exception {
+        Path log = Files.writeString(dir.resolve("app.log"), "");
+        LogTailer tailer = new LogTailer(log);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter blocked = new RecordingEmitter(release);
+        LogTailer.Subscriber blockedSubscriber = new LogTailer.Subscriber(blocked, LogFilter.of(null, null, null, null), 5, sender);
+        tailer.add(blockedSubscriber);
+        RecordingEmitter fast = subscribe(tailer, null);
+
+        try {
+            StringBuilder entries = new StringBuilder();
+            for (int i = 0; i < 20; i++) {
+                entries.append(line(String.format("%02d", i), "INFO", "Entry " + i));
+            }
+            append(log, entries.toString());
+            long start = System.nanoTime();
+            tailer.poll();
+            tailer.poll();
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+            assertEquals(20, fast.awaitEntries(20).size());
+            assertTrue(blockedSubscriber.isClosed());
+        } finally {
+            release.countDown();
+        }
+        assertTrue(blocked.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, blocked.entries.size());
+        assertTrue(tailer.hasSubscribers());
+    }
+
+    @Test
+    void viewersOfAFileShareOneTailer() throws Exception {
+        Path log = Files.writeString(dir.resolve("app.log"), "");
+        Files.writeString(dir.resolve("other.log"), "");
+        LogStreamService service = new LogStreamService();
+        ReflectionTestUtils.setField(service, "logDirectory", dir.toString());
+        ReflectionTestUtils.setField(service, "streamTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(service, "heartbeatIntervalMs", 60000L);
+        ReflectionTestUtils.setField(service, "queueCapacity", 100);
+        ReflectionTestUtils.setField(service, "sendTimeoutMs", 60000L);
+        List<RecordingEmitter> emitters = List.of(new RecordingEmitter(null), new RecordingEmitter(null), new RecordingEmitter(null));
+        Iterator<RecordingEmitter> next = emitters.iterator();
+        service.emitterFactory = timeout -> next.next();
+
+        try {
+            service.subscribe("app.log", null, null);
+            service.subscribe("app.log", "all", null);
+            service.subscribe("other.log", null, null);
+            Map<?, ?> tailers = (Map<?, ?>) ReflectionTestUtils.getField(service, "tailers");
+            assertEquals(2, tailers.size());
+
+            append(log, line("01", "INFO", "Shared"));
+            service.poll();
+            service.poll();
+
+            assertEquals(List.of("Shared"), emitters.get(0).awaitEntries(1));
+            assertEquals(List.of("Shared"), emitters.get(1).awaitEntries(1));
+            assertEquals(List.of(), emitters.get(2).entries);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private RecordingEmitter subscribe(LogTailer tailer, String level) {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        tailer.add(new LogTailer.Subscriber(emitter, LogFilter.of(level, null, null, null), 100, sender));
+        return emitter;
+    }
+
+    private static String line(String second, String level, String message) {
+        return "2025-05-18 10:00:" + second + " " + String.format("%-5s", level) + " com.example.Job - " + message + "\n";
+    }
+
+    private static void append(Path log, String content) throws IOException {
+        Files.writeString(log, content, StandardOpenOption.APPEND);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final List<String> entries = new CopyOnWriteArrayList<>();
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            builder.build().stream()
+                    .filter(part -> part.getData() instanceof LogEntry)
+                    .forEach(part -> entries.add(((LogEntry) part.getData()).getMessage()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+
+        List<String> awaitEntries(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (entries.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(count, entries.size());
+            return List.copyOf(entries);
+        }
+    }
+}
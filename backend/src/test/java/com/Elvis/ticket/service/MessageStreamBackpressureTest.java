@@ -0,0 +1,114 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.model.SessionMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageStreamBackpressureTest {
+
+    private final MessageStreamService service = new MessageStreamService();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final StubEmitter slow = new StubEmitter(release);
+    private final StubEmitter fast = new StubEmitter(null);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "streamTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(service, "queueCapacity", 5);
+        ReflectionTestUtils.setField(service, "sendTimeoutMs", 60000L);
+        Iterator<StubEmitter> emitters = List.of(slow, fast).iterator();
+        service.emitterFactory = timeout -> emitters.next();
+        service.subscribeToSession(1L, List::of);
+        service.subscribeToSession(1L, List::of);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void clientThatFallsBehindIsDroppedWithoutHoldingUpOthers() throws Exception {
+        // Four times the queue capacity, at a pace the fast client keeps up with
+        for (int i = 1; i <= 20; i++) {
+            service.sessionMessageAdded(1L, message(i));
+            fast.awaitSends(i);
+        }
+
+        release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, slow.sends.get());
+    }
+
+    @Test
+    void writeStuckPastTheSendTimeoutIsDroppedByTheHeartbeat() throws Exception {
+        ReflectionTestUtils.setField(service, "sendTimeoutMs", 1L);
+        service.sessionMessageAdded(1L, message(1));
+        assertTrue(slow.started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+
+        service.heartbeat();
+        release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+
+        service.sessionMessageAdded(1L, message(2));
+        fast.awaitSends(3);
+        assertEquals(1, slow.sends.get());
+    }
+
+    private static SessionMessage message(long sequence) {
+        return new SessionMessage(null, sequence, "assistant", "Message " + sequence, LocalDateTime.now());
+    }
+
+    private static final class StubEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final AtomicInteger sends = new AtomicInteger();
+
+        StubEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            started.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sends.incrementAndGet();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+
+        void awaitSends(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sends.get() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(count, sends.get());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.repository.TicketTypeRepository;
+import com.Elvis.ticket.support.ApiIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Opens ticket and session message streams over HTTP with a JWT, as the frontend
+ * does, and checks that appended messages arrive as events after commit.
+ */
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:message-stream")
+class MessageStreamServiceTest extends ApiIntegrationTest {
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sessionStreamReplaysMissedMessagesThenPushesNewOnes() throws Exception {
+        String customer = login("cus@example.com");
+        long sessionId = sendForJson("POST", "/api/sessions", customer, Map.of("title", "Charging")).get("id").asLong();
+
+        // The session starts with the assistant's welcome message as sequence 1
+        BlockingQueue<String> events = open("/api/sessions/" + sessionId + "/stream?after=0", customer);
+        assertTrue(nextEvent(events).startsWith("1 "));
+
+        sendForJson("POST", "/api/sessions/" + sessionId + "/message", customer, Map.of("role", "user", "content", "It stops at 80%"));
+        String event = nextEvent(events);
+        assertTrue(event.startsWith("2 "));
+        assertEquals("It stops at 80%", JSON.readTree(event.substring(2)).get("content").asText());
+
+        assertEquals(403, status("/api/sessions/" + sessionId + "/stream", login("vip@example.com")));
+        assertEquals(403, status("/api/sessions/" + sessionId + "/stream", null));
+    }
+
+    @Test
+    void ticketStreamPushesCustomerAndEngineerMessages() throws Exception {
+        String customer = login("cus@example.com");
+        long sessionId = sendForJson("POST", "/api/sessions", customer, Map.of("title", "Range")).get("id").asLong();
+        JsonNode ticket = sendForJson("POST", "/api/tickets", customer, Map.of(
+                "title", "Range drops overnight",
+                "urgency", "HIGH",
+                "category", "MODEL_3",
+                "type", Map.of("id", ticketTypeRepository.findAll().get(0).getId()),
+                "session", Map.of("id", sessionId)));
+        long ticketId = ticket.get("id").asLong();
+        String engineer = login(ticket.get("engineer").get("email").asText());
+
+        BlockingQueue<String> events = open("/api/tickets/" + ticketId + "/stream", engineer);
+        sendForJson("POST", "/api/tickets/" + ticketId + "/message", customer, Map.of("content", "Lost 20 km last night"));
+        sendForJson("POST", "/api/tickets/" + ticketId + "/message", engineer, Map.of("content", "Is sentry mode on?"));
+
+        // Sequence 1 is the engineer's welcome message, sent before the stream was opened
+        JsonNode first = JSON.readTree(nextEvent(events).substring(2));
+        JsonNode second = JSON.readTree(nextEvent(events).substring(2));
+        assertEquals(2, first.get("sequence").asLong());
+        assertEquals("customer", first.get("role").asText());
+        assertEquals(3, second.get("sequence").asLong());
+        assertEquals("engineer", second.get("role").asText());
+    }
+
+    @Test
+    void sessionStreamPushesTurnsStoredByTheChatBackendOnceNotified() throws Exception {
+        String customer = login("cus@example.com");
+        long sessionId = sendForJson("POST", "/api/sessions", customer, Map.of("title", "Climate")).get("id").asLong();
+        BlockingQueue<String> events = open("/api/sessions/" + sessionId + "/stream", customer);
+
+        // The statements chat_backend/backend.py runs to store a question and its answer
+        jdbcTemplate.update("UPDATE sessions SET last_activity = CURRENT_TIMESTAMP, version = version + 1 WHERE id = ?",
+                sessionId);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO session_messages (session_id, seq, role, content, created_at) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                List.of(new Object[]{sessionId, 2, "user", "Cabin is cold"},
+                        new Object[]{sessionId, 3, "assistant", "Try defrost mode"}));
+        assertEquals(204, status("POST", "/api/sessions/" + sessionId + "/stream/notify?after=1", customer));
+
+        assertEquals("Cabin is cold", JSON.readTree(nextEvent(events).substring(2)).get("content").asText());
+        assertEquals("Try defrost mode", JSON.readTree(nextEvent(events).substring(2)).get("content").asText());
+        assertEquals(403, status("POST", "/api/sessions/" + sessionId + "/stream/notify?after=1", login("vip@example.com")));
+    }
+
+    private JsonNode sendForJson(String method, String path, String token, Object body) throws Exception {
+        return JSON.readTree(super.send(method, path, token, body).body());
+    }
+
+    private int status(String path, String token) throws Exception {
+        return status("GET", path, token);
+    }
+
+    private int status(String method, String path, String token) throws Exception {
+        return exchange(request(path, token)
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(10))).statusCode();
+    }
+
+    /**
+     * Opens an event stream and queues each event as "id data".
+     */
+    private BlockingQueue<String> open(String path, String token) throws Exception {
+        HttpRequest request = request(path, token).header("Accept", "text/event-stream").build();
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        CompletableFuture.runAsync(() -> {
+            String[] id = {null};
+            response.body().forEach(line -> {
+                if (line.startsWith("id:")) {
+                    id[0] = line.substring(3);
+                } else if (line.startsWith("data:")) {
+                    events.add(id[0] + " " + line.substring(5));
+                }
+            });
+        });
+        return events;
+    }
+
+    private static String nextEvent(BlockingQueue<String> events) throws InterruptedException {
+        String event = events.poll(10, TimeUnit.SECONDS);
+        assertNotNull(event, "no event within 10 seconds");
+        return event;
+    }
+}
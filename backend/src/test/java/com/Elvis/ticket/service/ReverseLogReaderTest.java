@@ -0,0 +1,80 @@
+package com.Elvis.ticket.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReverseLogReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void returnsLinesNewestFirstAcrossChunkBoundaries() throws IOException {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            // Mix short lines, empty lines, multi-byte characters and lines longer than a chunk
+            int length = i % 997 == 0 ? 150_000 : random.nextInt(120);
+            lines.add(i + " é" + "x".repeat(length));
+            if (i % 50 == 0) {
+                lines.add("");
+            }
+        }
+        Path file = write(String.join("\n", lines) + "\n");
+
+        List<String> expected = new ArrayList<>(lines);
+        Collections.reverse(expected);
+        assertEquals(expected, readAll(file, -1));
+    }
+
+    @Test
+    void handlesMissingTrailingNewlineAndCrLf() throws IOException {
+        Path file = write("first\r\nsecond\r\nthird");
+        assertEquals(List.of("third", "second", "first"), readAll(file, -1));
+    }
+
+    @Test
+    void emptyFileHasNoLines() throws IOException {
+        assertEquals(List.of(), readAll(write(""), -1));
+    }
+
+    @Test
+    void startsBeforeEndOffsetAndReportsLineOffsets() throws IOException {
+        Path file = write("aa\nbbb\ncccc\n");
+        try (ReverseLogReader reader = new ReverseLogReader(file, 7)) {
+            assertEquals("bbb", reader.readLine());
+            assertEquals(3, reader.lineOffset());
+            assertEquals("aa", reader.readLine());
+            assertEquals(0, reader.lineOffset());
+            assertNull(reader.readLine());
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = dir.resolve("test.log");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<String> readAll(Path file, long endOffset) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (ReverseLogReader reader = new ReverseLogReader(file, endOffset)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,141 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.config.HistoryBackfillRunner;
+import com.Elvis.ticket.dto.SessionHistoryResponse;
+import com.Elvis.ticket.support.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Session conversations in session_messages: numbering, concurrent appends and the
+ * migration of legacy history blobs.
+ */
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:session-messages;LOCK_TIMEOUT=30000")
+class SessionMessageLogTest extends ApiIntegrationTest {
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private HistoryBackfillRunner historyBackfillRunner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void conversationOpensWithTheAssistantsWelcome() throws Exception {
+        long sessionId = createSession(login("cus@example.com"));
+
+        List<SessionHistoryResponse.Message> messages = history(sessionId);
+        assertEquals(1, messages.size());
+        assertEquals(1, messages.get(0).getSequence());
+        assertEquals("assistant", messages.get(0).getRole());
+    }
+
+    @Test
+    void concurrentAppendsGetConsecutiveSequences() throws Exception {
+        long sessionId = createSession(login("cus@example.com"));
+        int appends = 50;
+
+        // Without the session row lock taken first, appends reading the same MAX(seq)
+        // would collide on the (session_id, seq) unique key
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < appends; i++) {
+            String content = "Message " + i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                return sessionService.addMessageToHistory(sessionId, "user", content);
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertEquals(LongStream.rangeClosed(1, appends + 1).boxed().toList(), sequences(sessionId));
+    }
+
+    @Test
+    void legacyHistoryIsBackfilledAfterTheStoredMessages() throws Exception {
+        long sessionId = createSession(login("cus@example.com"));
+        jdbcTemplate.update("UPDATE sessions SET history = ? WHERE id = ?", "["
+                + "{\"role\":\"user\",\"content\":\"Autopilot disengages\",\"timestamp\":\"2024-03-04T08:00:00\"},"
+                + "{\"role\":\"assistant\",\"content\":\"Clean the cameras\"}]", sessionId);
+
+        assertTrue(sessionService.getSessionIdsWithLegacyHistory().contains(sessionId));
+        sessionService.backfillLegacyHistory(sessionId);
+        // A second run finds nothing left to migrate
+        sessionService.backfillLegacyHistory(sessionId);
+
+        List<SessionHistoryResponse.Message> messages = history(sessionId);
+        assertEquals(List.of(1L, 2L, 3L), sequences(sessionId));
+        assertEquals("Autopilot disengages", messages.get(1).getContent());
+        assertEquals(LocalDateTime.parse("2024-03-04T08:00:00").toString(), messages.get(1).getTimestamp());
+        assertEquals("assistant", messages.get(2).getRole());
+        assertFalse(sessionService.getSessionIdsWithLegacyHistory().contains(sessionId));
+    }
+
+    @Test
+    void malformedLegacyHistoryIsLeftInPlace() throws Exception {
+        long sessionId = createSession(login("cus@example.com"));
+        jdbcTemplate.update("UPDATE sessions SET history = ? WHERE id = ?", "{not json", sessionId);
+
+        assertThrows(RuntimeException.class, () -> sessionService.backfillLegacyHistory(sessionId));
+
+        assertTrue(sessionService.getSessionIdsWithLegacyHistory().contains(sessionId));
+        assertEquals(List.of(1L), sequences(sessionId));
+    }
+
+    @Test
+    void updatingASessionLeavesItsConversationAlone() throws Exception {
+        String customer = login("cus@example.com");
+        long sessionId = createSession(customer);
+        send("POST", "/api/sessions/" + sessionId + "/message", customer, Map.of("role", "user", "content", "Slow charging"));
+
+        // The full conversation as a client would send back the session it read
+        send("PUT", "/api/sessions/" + sessionId, customer, Map.of(
+                "id", sessionId,
+                "title", "Slow charging",
+                "status", "ACTIVE",
+                "history", "[{\"role\":\"assistant\",\"content\":\"Welcome\"},{\"role\":\"user\",\"content\":\"Slow charging\"}]"));
+        historyBackfillRunner.run(new DefaultApplicationArguments());
+
+        assertEquals("Slow charging", sessionService.getSessionById(sessionId).orElseThrow().getTitle());
+        assertFalse(sessionService.getSessionIdsWithLegacyHistory().contains(sessionId));
+        assertEquals(List.of(1L, 2L), sequences(sessionId));
+    }
+
+    private long createSession(String customer) throws Exception {
+        return JSON.readTree(send("POST", "/api/sessions", customer, Map.of("title", "Charging")).body())
+                .get("id").asLong();
+    }
+
+    private List<SessionHistoryResponse.Message> history(long sessionId) {
+        return sessionService.getSessionHistory(sessionId).getMessages();
+    }
+
+    private List<Long> sequences(long sessionId) {
+        return history(sessionId).stream()
+                .map(SessionHistoryResponse.Message::getSequence)
+                .toList();
+    }
+}
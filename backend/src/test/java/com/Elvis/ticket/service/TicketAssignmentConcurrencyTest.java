@@ -0,0 +1,126 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.model.*;
+import com.Elvis.ticket.repository.CustomerRepository;
+import com.Elvis.ticket.repository.EngineerRepository;
+import com.Elvis.ticket.repository.TicketRepository;
+import com.Elvis.ticket.repository.TicketTypeRepository;
+import com.Elvis.ticket.repository.UserRepository;
+import com.Elvis.ticket.support.ApiIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Creates tickets from many threads at once and checks that engineer ticket
+ * counters never exceed maxTickets and match the tickets actually assigned.
+ */
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:assignment-concurrency;LOCK_TIMEOUT=30000")
+class TicketAssignmentConcurrencyTest extends ApiIntegrationTest {
+
+    private static final int TICKETS = 200;
+    private static final int THREADS = 32;
+    private static final int LEVEL_1_MAX_TICKETS = 20;
+
+    @Autowired private TicketService ticketService;
+    @Autowired private SessionService sessionService;
+    @Autowired private EngineerRepository engineerRepository;
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private TicketTypeRepository ticketTypeRepository;
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    void parallelTicketCreationNeverOverbooksEngineers() throws Exception {
+        List<Engineer> levelOne = engineerRepository.findByLevel(1);
+        String admin = login("admin@example.com");
+        for (Engineer engineer : levelOne) {
+            // The current ticket count is ignored by the update; the counters are checked
+            // against the assigned tickets below
+            send("PUT", "/api/engineers/" + engineer.getId(), admin, Map.of(
+                    "category", engineer.getCategory(),
+                    "level", engineer.getLevel(),
+                    "maxTickets", LEVEL_1_MAX_TICKETS,
+                    "currentTickets", LEVEL_1_MAX_TICKETS));
+        }
+        int capacity = levelOne.size() * LEVEL_1_MAX_TICKETS;
+        assertTrue(capacity < TICKETS, "the burst must exceed total level 1 capacity");
+
+        Customer customer = customerRepository.findByEmail("cus@example.com");
+        TicketType type = ticketTypeRepository.findAll().get(0);
+        Session session = new Session();
+        session.setUser(userRepository.findByEmail("cus@example.com"));
+        session = sessionService.createSession(session);
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        TeslaModel[] categories = TeslaModel.values();
+        Long sessionId = session.getId();
+        for (int i = 0; i < TICKETS; i++) {
+            TeslaModel category = categories[i % categories.length];
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    ticketService.createTicket(newTicket(customer.getId(), type.getId(), sessionId, category));
+                    created.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if ("No available engineer found for this product category.".equals(e.getMessage())) {
+                        rejected.incrementAndGet();
+                    } else {
+                        unexpected.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertTrue(unexpected.isEmpty(), () -> "unexpected failures: " + unexpected);
+        assertEquals(capacity, created.get());
+        assertEquals(TICKETS - capacity, rejected.get());
+        for (Engineer engineer : engineerRepository.findAll()) {
+            int assigned = ticketRepository.findByEngineerId(engineer.getId()).size();
+            assertTrue(engineer.getCurrentTickets() <= engineer.getMaxTickets(),
+                    () -> "engineer " + engineer.getId() + " overbooked: " + engineer.getCurrentTickets() + "/" + engineer.getMaxTickets());
+            assertEquals(assigned, engineer.getCurrentTickets(), "ticket counter of engineer " + engineer.getId());
+        }
+    }
+
+    private static Ticket newTicket(Long customerId, Long typeId, Long sessionId, TeslaModel category) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        TicketType type = new TicketType();
+        type.setId(typeId);
+        Session session = new Session();
+        session.setId(sessionId);
+        Ticket ticket = new Ticket();
+        ticket.setTitle("Concurrent ticket");
+        ticket.setUrgency("LOW");
+        ticket.setCategory(category);
+        ticket.setCustomer(customer);
+        ticket.setType(type);
+        ticket.setSession(session);
+        return ticket;
+    }
+}
@@ -0,0 +1,183 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.model.Ticket;
+import com.Elvis.ticket.model.TicketMessage;
+import com.Elvis.ticket.repository.TicketMessageRepository;
+import com.Elvis.ticket.repository.TicketRepository;
+import com.Elvis.ticket.repository.TicketTypeRepository;
+import com.Elvis.ticket.support.ApiIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ticket conversations in ticket_messages: numbering, the welcome message, the
+ * migration of legacy history blobs and the history exposed by the API.
+ */
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:ticket-messages")
+class TicketMessageStoreTest extends ApiIntegrationTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketMessageRepository ticketMessageRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void conversationOpensWithTheEngineersWelcome() throws Exception {
+        String customer = login("cus@example.com");
+        JsonNode ticket = createTicket(customer, null);
+
+        List<TicketMessage> messages = ticketMessageRepository.findByTicketIdOrderBySequenceAsc(ticket.get("id").asLong());
+        assertEquals(1, messages.size());
+        assertEquals(1, messages.get(0).getSequence());
+        assertEquals("engineer", messages.get(0).getRole());
+        assertTrue(messages.get(0).getContent().startsWith("Hi Carol White, I am "));
+    }
+
+    @Test
+    void messagesAreNumberedAfterTheHighestSequence() throws Exception {
+        String customer = login("cus@example.com");
+        JsonNode ticket = createTicket(customer, null);
+        long ticketId = ticket.get("id").asLong();
+        String engineer = login(ticket.get("engineer").get("email").asText());
+
+        send("POST", "/api/tickets/" + ticketId + "/message", customer, Map.of("content", "The frunk does not open"));
+        send("POST", "/api/tickets/" + ticketId + "/message", engineer, Map.of("content", "Try the release in the app"));
+        assertEquals(List.of(1L, 2L, 3L), sequences(ticketId));
+
+        // A gap in the numbering, as left by a migrated conversation, is continued from the top
+        Ticket stored = ticketRepository.findById(ticketId).orElseThrow();
+        ticketMessageRepository.save(new TicketMessage(stored, 10, "customer", "Still stuck", LocalDateTime.now()));
+        send("POST", "/api/tickets/" + ticketId + "/message", engineer, Map.of("content", "Booking a service visit"));
+        assertEquals(List.of(1L, 2L, 3L, 10L, 11L), sequences(ticketId));
+
+        Ticket answered = ticketRepository.findById(ticketId).orElseThrow();
+        assertNotNull(answered.getFirstCustomerMessageAt());
+        assertNotNull(answered.getFirstResponseAt());
+    }
+
+    @Test
+    void ticketHistoryIsReadFromTheMessageStore() throws Exception {
+        String customer = login("cus@example.com");
+        long ticketId = createTicket(customer, null).get("id").asLong();
+        send("POST", "/api/tickets/" + ticketId + "/message", customer, Map.of("content", "Wipers stopped working"));
+        // Left in the legacy column, a blob is not part of the conversation until it is backfilled
+        jdbcTemplate.update("UPDATE tickets SET history = ? WHERE id = ?",
+                "[{\"role\":\"customer\",\"content\":\"Not migrated\"}]", ticketId);
+
+        JsonNode history = JSON.readTree(JSON.readTree(get("/api/tickets/" + ticketId, customer).body())
+                .get("history").asText());
+        assertEquals(2, history.size());
+        assertEquals("engineer", history.get(0).get("role").asText());
+        assertEquals("customer", history.get(1).get("role").asText());
+        assertEquals("Wipers stopped working", history.get(1).get("content").asText());
+    }
+
+    @Test
+    void legacyHistoryIsBackfilledAfterTheStoredMessages() throws Exception {
+        String customer = login("cus@example.com");
+        long ticketId = createTicket(customer, null).get("id").asLong();
+        jdbcTemplate.update("UPDATE tickets SET history = ? WHERE id = ?", "["
+                + "{\"role\":\"customer\",\"content\":\"Seat heater is cold\",\"timestamp\":\"2024-01-02T10:00:00\"},"
+                + "{\"role\":\"engineer\",\"content\":\"Resetting it remotely\",\"timestamp\":\"2024-01-02T10:05:00\"}]",
+                ticketId);
+
+        assertTrue(ticketService.getTicketIdsWithLegacyHistory().contains(ticketId));
+        ticketService.backfillLegacyHistory(ticketId);
+        // A second run finds nothing left to migrate
+        ticketService.backfillLegacyHistory(ticketId);
+
+        List<TicketMessage> messages = ticketMessageRepository.findByTicketIdOrderBySequenceAsc(ticketId);
+        assertEquals(List.of(1L, 2L, 3L), sequences(ticketId));
+        assertEquals("Seat heater is cold", messages.get(1).getContent());
+        assertEquals(LocalDateTime.parse("2024-01-02T10:05:00"), messages.get(2).getCreatedAt());
+        assertFalse(ticketService.getTicketIdsWithLegacyHistory().contains(ticketId));
+        assertEquals(LocalDateTime.parse("2024-01-02T10:05:00"),
+                ticketRepository.findById(ticketId).orElseThrow().getFirstResponseAt());
+    }
+
+    @Test
+    void historySentWithANewTicketIsImportedBeforeTheWelcome() throws Exception {
+        String customer = login("cus@example.com");
+        long ticketId = createTicket(customer, "[{\"role\":\"customer\",\"content\":\"Asked the assistant first\"}]")
+                .get("id").asLong();
+
+        List<TicketMessage> messages = ticketMessageRepository.findByTicketIdOrderBySequenceAsc(ticketId);
+        assertEquals(List.of(1L, 2L), sequences(ticketId));
+        assertEquals("Asked the assistant first", messages.get(0).getContent());
+        assertEquals("engineer", messages.get(1).getRole());
+        assertFalse(ticketService.getTicketIdsWithLegacyHistory().contains(ticketId));
+    }
+
+    @Test
+    void malformedHistoryIsRejectedWithoutCreatingTheTicket() throws Exception {
+        String customer = login("cus@example.com");
+        long tickets = ticketRepository.count();
+
+        Map<String, Object> body = ticketBody(customer, "not a list of messages");
+        HttpResponse<String> response = exchange(request("/api/tickets", customer)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body))));
+
+        assertEquals(400, response.statusCode());
+        assertEquals(tickets, ticketRepository.count());
+    }
+
+    @Test
+    void deletingATicketDeletesItsMessages() throws Exception {
+        String customer = login("cus@example.com");
+        long ticketId = createTicket(customer, null).get("id").asLong();
+        send("POST", "/api/tickets/" + ticketId + "/message", customer, Map.of("content", "Please close this"));
+
+        send("DELETE", "/api/tickets/" + ticketId, login("admin@example.com"), Map.of());
+
+        assertFalse(ticketRepository.existsById(ticketId));
+        assertTrue(ticketMessageRepository.findByTicketIdOrderBySequenceAsc(ticketId).isEmpty());
+    }
+
+    private JsonNode createTicket(String customer, String history) throws Exception {
+        return JSON.readTree(send("POST", "/api/tickets", customer, ticketBody(customer, history)).body());
+    }
+
+    private Map<String, Object> ticketBody(String customer, String history) throws Exception {
+        long sessionId = JSON.readTree(send("POST", "/api/sessions", customer, Map.of("title", "Help")).body())
+                .get("id").asLong();
+        Map<String, Object> body = new HashMap<>(Map.of(
+                "title", "Something is wrong",
+                "urgency", "LOW",
+                "category", "MODEL_Y",
+                "type", Map.of("id", ticketTypeRepository.findAll().get(0).getId()),
+                "session", Map.of("id", sessionId)));
+        if (history != null) {
+            body.put("history", history);
+        }
+        return body;
+    }
+
+    private List<Long> sequences(long ticketId) {
+        return ticketMessageRepository.findByTicketIdOrderBySequenceAsc(ticketId).stream()
+                .map(TicketMessage::getSequence)
+                .toList();
+    }
+}
@@ -0,0 +1,168 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.dto.TicketSearchCriteria;
+import com.Elvis.ticket.dto.TicketSummaryResponse;
+import com.Elvis.ticket.model.ServilityLevel;
+import com.Elvis.ticket.model.TeslaModel;
+import com.Elvis.ticket.model.TicketStatus;
+import com.Elvis.ticket.repository.TicketTypeRepository;
+import com.Elvis.ticket.support.ApiIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ticket search: filters combined with AND, the sorts that are allowed, the default
+ * order and its id tiebreaker, and the totals from the count query.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:ticket-search")
+class TicketSearchTest extends ApiIntegrationTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.parse("2024-05-01T09:00:00");
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    private long customerId;
+
+    @BeforeAll
+    void createTickets() throws Exception {
+        String customer = login("cus@example.com");
+        // Three tickets share the first day and two the second, so only the id orders them
+        ids.add(createTicket(customer, TeslaModel.MODEL_S, TicketStatus.OPEN, ServilityLevel.LOW, DAY));
+        ids.add(createTicket(customer, TeslaModel.MODEL_S, TicketStatus.IN_PROGRESS, ServilityLevel.HIGH, DAY));
+        ids.add(createTicket(customer, TeslaModel.MODEL_S, TicketStatus.RESOLVED, ServilityLevel.HIGH, DAY));
+        ids.add(createTicket(customer, TeslaModel.MODEL_X, TicketStatus.OPEN, ServilityLevel.HIGH, DAY.plusDays(1)));
+        ids.add(createTicket(customer, TeslaModel.MODEL_X, TicketStatus.IN_PROGRESS, ServilityLevel.HIGH, DAY.plusDays(1)));
+        ids.add(createTicket(customer, TeslaModel.MODEL_X, TicketStatus.OPEN, ServilityLevel.LOW, DAY.plusDays(2)));
+        customerId = JSON.readTree(get("/api/users/profile", customer).body()).get("customerId").asLong();
+    }
+
+    @Test
+    void filtersAreCombined() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setStatus(List.of(TicketStatus.OPEN, TicketStatus.IN_PROGRESS));
+        criteria.setServilityLevel(ServilityLevel.HIGH);
+        assertEquals(List.of(ids.get(1), ids.get(3), ids.get(4)), search(criteria, Sort.by("id")));
+
+        criteria.setCategory(TeslaModel.MODEL_X);
+        criteria.setCustomerId(customerId);
+        criteria.setCreatedFrom(DAY.plusDays(1));
+        criteria.setCreatedTo(DAY.plusDays(2));
+        assertEquals(List.of(ids.get(3), ids.get(4)), search(criteria, Sort.by("id")));
+
+        criteria.setCustomerId(customerId + 1000);
+        assertEquals(List.of(), search(criteria, Sort.by("id")));
+    }
+
+    @Test
+    void newestFirstByDefaultWithTheIdAsTiebreaker() {
+        assertEquals(List.of(ids.get(5), ids.get(3), ids.get(4), ids.get(0), ids.get(1), ids.get(2)),
+                search(new TicketSearchCriteria(), Sort.unsorted()));
+        assertEquals(List.of(ids.get(0), ids.get(1), ids.get(2), ids.get(3), ids.get(4), ids.get(5)),
+                search(new TicketSearchCriteria(), Sort.by("createdAt")));
+    }
+
+    @Test
+    void pagesOverEqualTimestampsNeitherRepeatNorSkipTickets() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            ticketService.searchTickets(new TicketSearchCriteria(), PageRequest.of(page, 2, sort))
+                    .forEach(ticket -> paged.add(ticket.getId()));
+        }
+        assertEquals(search(new TicketSearchCriteria(), sort), paged);
+    }
+
+    @Test
+    void totalsComeFromTheCountQuery() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria();
+        criteria.setCategory(TeslaModel.MODEL_S);
+
+        Page<TicketSummaryResponse> first = ticketService.searchTickets(criteria, PageRequest.of(0, 2));
+        assertEquals(2, first.getContent().size());
+        assertEquals(3, first.getTotalElements());
+        assertEquals(2, first.getTotalPages());
+        assertFalse(first.isLast());
+
+        Page<TicketSummaryResponse> last = ticketService.searchTickets(criteria, PageRequest.of(1, 2));
+        assertEquals(1, last.getContent().size());
+        assertEquals(3, last.getTotalElements());
+        assertTrue(last.isLast());
+    }
+
+    @Test
+    void searchApiRejectsUnknownSorts() throws Exception {
+        String admin = login("admin@example.com");
+        assertEquals(200, get("/api/tickets/search?sort=updatedAt,desc", admin).statusCode());
+        assertEquals(400, get("/api/tickets/search?sort=history", admin).statusCode());
+        assertEquals(400, get("/api/tickets/search?sort=customer.user.password,asc", admin).statusCode());
+    }
+
+    @Test
+    void managersSearchWithinTheirOwnCategory() throws Exception {
+        String manager = login("ms@example.com");
+
+        HttpResponse<String> response = get("/api/tickets/manager/category?status=OPEN&status=RESOLVED", manager);
+        assertEquals(200, response.statusCode());
+        assertEquals(List.of(ids.get(0), ids.get(2)), pageIds(response));
+
+        // A category in the query does not widen the manager's view
+        response = get("/api/tickets/manager/category?category=MODEL_X&servilityLevel=HIGH", manager);
+        assertEquals(200, response.statusCode());
+        assertEquals(List.of(ids.get(1), ids.get(2)), pageIds(response));
+    }
+
+    private long createTicket(String customer, TeslaModel category, TicketStatus status, ServilityLevel level,
+                              LocalDateTime createdAt) throws Exception {
+        long sessionId = JSON.readTree(send("POST", "/api/sessions", customer, Map.of("title", "Help")).body())
+                .get("id").asLong();
+        long id = JSON.readTree(send("POST", "/api/tickets", customer, Map.of(
+                "title", "Charge port stuck",
+                "urgency", "LOW",
+                "category", category.name(),
+                "type", Map.of("id", ticketTypeRepository.findAll().get(0).getId()),
+                "session", Map.of("id", sessionId))).body()).get("id").asLong();
+        jdbcTemplate.update("UPDATE tickets SET status = ?, servility_level = ?, created_at = ? WHERE id = ?",
+                status.name(), level.name(), createdAt, id);
+        return id;
+    }
+
+    private List<Long> search(TicketSearchCriteria criteria, Sort sort) {
+        Pageable pageable = PageRequest.of(0, 50, sort);
+        return ticketService.searchTickets(criteria, pageable).map(TicketSummaryResponse::getId).getContent();
+    }
+
+    private static List<Long> pageIds(HttpResponse<String> response) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode ticket : JSON.readTree(response.body()).get("content")) {
+            ids.add(ticket.get("id").asLong());
+        }
+        return ids.stream().sorted().toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.dto.TicketSummaryResponse;
+import com.Elvis.ticket.repository.TicketTypeRepository;
+import com.Elvis.ticket.support.ApiIntegrationTest;
+import com.Elvis.ticket.support.StatementCounter;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ticket lists are read as summaries in one query: the fields the list views show,
+ * without the conversation, and no per-ticket lookups.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ticket-summaries",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.Elvis.ticket.support.StatementCounter"})
+class TicketSummaryProjectionTest extends ApiIntegrationTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Test
+    void summariesCarryTheListFieldsAndResponseTimes() throws Exception {
+        String customer = login("cus@example.com");
+        JsonNode created = createTicket(customer, "MODEL_3");
+        long ticketId = created.get("id").asLong();
+        String engineer = login(created.get("engineer").get("email").asText());
+
+        send("POST", "/api/tickets/" + ticketId + "/message", customer, Map.of("content", "Trunk light flickers"));
+        send("POST", "/api/tickets/" + ticketId + "/message", engineer, Map.of("content", "Replacing the bulb"));
+
+        HttpResponse<String> response = get("/api/tickets/own?size=50", customer);
+        assertEquals(200, response.statusCode());
+        JsonNode summary = null;
+        for (JsonNode ticket : JSON.readTree(response.body()).get("content")) {
+            if (ticket.get("id").asLong() == ticketId) {
+                summary = ticket;
+            }
+        }
+        assertNotNull(summary);
+        assertFalse(summary.has("history"));
+        assertEquals("Mirror fogs up", summary.get("title").asText());
+        assertEquals("MODEL_3", summary.get("category").asText());
+        assertEquals(created.get("type").get("id").asLong(), summary.get("type").get("id").asLong());
+        assertEquals(created.get("session_id").asLong(), summary.get("session_id").asLong());
+        assertEquals("cus@example.com", summary.get("customer").get("email").asText());
+        assertEquals("Carol White", summary.get("customer").get("name").asText());
+        assertEquals(created.get("engineer").get("email").asText(), summary.get("engineer").get("email").asText());
+
+        // Kept by trackResponseTimes: the customer wrote first and the engineer answered later
+        LocalDateTime firstCustomerMessageAt = LocalDateTime.parse(summary.get("firstCustomerMessageAt").asText());
+        LocalDateTime firstResponseAt = LocalDateTime.parse(summary.get("firstResponseAt").asText());
+        assertFalse(firstResponseAt.isBefore(firstCustomerMessageAt));
+    }
+
+    @Test
+    void aPageOfSummariesIsOneQueryPlusTheCount() throws Exception {
+        String customer = login("cus@example.com");
+        for (String category : new String[]{"MODEL_S", "MODEL_X", "MODEL_Y", "CYBERTRUCK"}) {
+            createTicket(customer, category);
+        }
+
+        StatementCounter.reset();
+        Page<TicketSummaryResponse> page = ticketService.getAllTickets(PageRequest.of(0, 3));
+        int statements = StatementCounter.count();
+
+        assertEquals(3, page.getContent().size());
+        assertTrue(page.getTotalElements() >= 4);
+        page.getContent().forEach(ticket -> {
+            assertNotNull(ticket.getCustomer());
+            assertNotNull(ticket.getEngineer());
+            assertNotNull(ticket.getType().getName());
+        });
+        // The page and its count; customers, engineers and types come with the page
+        assertEquals(2, statements);
+    }
+
+    private JsonNode createTicket(String customer, String category) throws Exception {
+        long sessionId = JSON.readTree(send("POST", "/api/sessions", customer, Map.of("title", "Help")).body())
+                .get("id").asLong();
+        return JSON.readTree(send("POST", "/api/tickets", customer, Map.of(
+                "title", "Mirror fogs up",
+                "urgency", "LOW",
+                "category", category,
+                "type", Map.of("id", ticketTypeRepository.findAll().get(0).getId()),
+                "session", Map.of("id", sessionId))).body());
+    }
+}
@@ -0,0 +1,89 @@
+package com.Elvis.ticket.service;
+
+import com.Elvis.ticket.model.User;
+import com.Elvis.ticket.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final User user = new User();
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        user.setId(7L);
+        user.setEmail("cus@example.com");
+        when(userRepository.findByEmail("cus@example.com")).thenReturn(user);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        userCache = new UserCache(userRepository, meterRegistry);
+        ReflectionTestUtils.setField(userCache, "cacheSize", 100L);
+        ReflectionTestUtils.setField(userCache, "cacheTtlMs", 60000L);
+        userCache.init();
+    }
+
+    @Test
+    void repeatedLookupsReadTheRepositoryOnce() {
+        for (int i = 0; i < 3; i++) {
+            assertSame(user, userCache.findByEmail("cus@example.com").orElseThrow());
+            assertSame(user, userCache.findById(7L).orElseThrow());
+        }
+        verify(userRepository, times(1)).findByEmail("cus@example.com");
+        verify(userRepository, times(1)).findById(7L);
+        assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "users.by-email").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void unknownEmailsAreNotCached() {
+        assertTrue(userCache.findByEmail("nobody@example.com").isEmpty());
+        assertTrue(userCache.findByEmail("nobody@example.com").isEmpty());
+        verify(userRepository, times(2)).findByEmail("nobody@example.com");
+    }
+
+    @Test
+    void evictDropsTheUserEvenUnderAnEmailItNoLongerHas() {
+        userCache.findByEmail("cus@example.com");
+        userCache.findById(7L);
+        User renamed = new User();
+        renamed.setId(7L);
+        renamed.setEmail("renamed@example.com");
+        when(userRepository.findById(7L)).thenReturn(Optional.of(renamed));
+        when(userRepository.findByEmail("cus@example.com")).thenReturn(null);
+
+        userCache.evict(7L);
+
+        assertTrue(userCache.findByEmail("cus@example.com").isEmpty());
+        assertEquals("renamed@example.com", userCache.findById(7L).orElseThrow().getEmail());
+    }
+
+    @Test
+    void evictInsideATransactionWaitsForItToComplete() {
+        userCache.findByEmail("cus@example.com");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userCache.evict(7L);
+            userCache.findByEmail("cus@example.com");
+            verify(userRepository, times(1)).findByEmail("cus@example.com");
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        userCache.findByEmail("cus@example.com");
+        verify(userRepository, times(2)).findByEmail("cus@example.com");
+    }
+}
@@ -0,0 +1,73 @@
+package com.Elvis.ticket.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Base of the tests that run the whole application on a random port with the seeded users,
+ * and call its API over HTTP as the frontend does. Subclasses name their own in-memory
+ * database, e.g.
+ * {@code @TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:my-test")}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(locations = {"classpath:application-test.properties", "classpath:integration-test.properties"})
+public abstract class ApiIntegrationTest {
+
+    protected static final ObjectMapper JSON = new ObjectMapper();
+
+    protected final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    protected int port;
+
+    /**
+     * Logs in a seeded user and returns the bearer token.
+     */
+    protected String login(String email) throws Exception {
+        String password = email.startsWith("admin") ? "admin123" : "password123";
+        return JSON.readTree(send("POST", "/api/auth/login", null, Map.of("email", email, "password", password)).body())
+                .get("token").asText();
+    }
+
+    /**
+     * Sends a JSON body and fails unless the response is successful.
+     */
+    protected HttpResponse<String> send(String method, String path, String token, Object body) throws Exception {
+        HttpResponse<String> response = exchange(request(path, token)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body))));
+        assertTrue(response.statusCode() < 300, path + " returned " + response.statusCode());
+        return response;
+    }
+
+    protected HttpResponse<String> get(String path, String token) throws Exception {
+        return exchange(request(path, token));
+    }
+
+    /**
+     * A request to the API, with the bearer token unless it is null.
+     */
+    protected HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    protected HttpResponse<String> exchange(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -55,6 +55,9 @@ LOCK_FILE = os.path.join(CHROMA_DIR, ".lock")
 COLLECTION_NAME = "techcare_docs"
 MAX_BATCH_SIZE = 5000  # Safe value below Chroma's limit of 5461
 
+# Spring backend, told about stored chat turns so its session streams can push them
+SPRING_API_URL = os.environ.get("SPRING_API_URL", "http://localhost:8082")
+
 # Global State
 vectorstore = None
 qa_chain = None
@@ -417,6 +420,19 @@ Answer (in plain text only):"""
 # API Endpoints (All Original Endpoints)
 # --------------------------
 
+def notify_session_stream(session_id, after_seq):
+    """Ask the Spring backend to push the turns after after_seq to open session streams"""
+    try:
+        requests.post(
+            f"{SPRING_API_URL}/api/sessions/{session_id}/stream/notify",
+            params={"after": after_seq},
+            headers={"Authorization": request.headers.get("Authorization", "")},
+            timeout=2
+        )
+    except requests.RequestException as e:
+        # Streams are a convenience; clients still see the turns when they reload the history
+        print(f"⚠️ Could not notify session stream: {e}")
+
 @chatapi_bp.route('/query', methods=['POST'])
 @token_required
 def query(current_user_email):
@@ -440,14 +456,22 @@ def query(current_user_email):
 
         # Get or create session
         cursor.execute(
-            "SELECT id, history FROM sessions WHERE user_id = %s AND end_time IS NULL",
+            "SELECT id FROM sessions WHERE user_id = %s AND end_time IS NULL",
             (user_id,)
         )
         session = cursor.fetchone()
 
         if session:
-            session_id, history_json = session
-            chat_history = json.loads(history_json) if history_json else []
+            session_id = session[0]
+            # Conversation lives in the append-only session_messages table
+            cursor.execute(
+                "SELECT role, content, created_at FROM session_messages WHERE session_id = %s ORDER BY seq",
+                (session_id,)
+            )
+            chat_history = [
+                {"role": role, "content": content, "timestamp": created_at.isoformat()}
+                for role, content, created_at in cursor.fetchall()
+            ]
         else:
             cursor.execute(
                 "INSERT INTO sessions (user_id, start_time, last_activity, title) VALUES (%s, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, %s)",
@@ -499,12 +523,26 @@ def query(current_user_email):
             "timestamp": datetime.now().isoformat()
         })
 
-        # Update session
+        # Update session: lock the row via last_activity and bump its version, which the
+        # Spring backend serves as the session ETag, then append the two new turns
+        cursor.execute(
+            "UPDATE sessions SET last_activity = CURRENT_TIMESTAMP, version = version + 1 WHERE id = %s",
+            (session_id,)
+        )
         cursor.execute(
-            "UPDATE sessions SET history = %s, last_activity = CURRENT_TIMESTAMP WHERE id = %s",
-            (json.dumps(chat_history), session_id)
+            "SELECT COALESCE(MAX(seq), 0) FROM session_messages WHERE session_id = %s",
+            (session_id,)
+        )
+        next_seq = cursor.fetchone()[0] + 1
+        cursor.executemany(
+            "INSERT INTO session_messages (session_id, seq, role, content, created_at) VALUES (%s, %s, %s, %s, %s)",
+            [
+                (session_id, next_seq + i, msg["role"], msg["content"], msg["timestamp"])
+                for i, msg in enumerate(chat_history[-2:])
+            ]
         )
         connection.commit()
+        notify_session_stream(session_id, next_seq - 1)
 
         return jsonify({
             "session_id": session_id,
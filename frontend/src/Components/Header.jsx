@@ -165,13 +165,10 @@ const Header = (props) => {
     const fetchSeverity = async () => {
       if (currentUser && currentUser.role === 'MANAGER') {
         try {
-          const tickets = await ticketAPI.getTicketsByManagerCategory();
-          const counts = { LOW: 0, MEDIUM: 0, HIGH: 0, CRITICAL: 0 };
-          tickets.forEach(t => {
-            if (t.servilityLevel && counts.hasOwnProperty(t.servilityLevel)) {
-              counts[t.servilityLevel] += 1;
-            }
-          });
+          const levels = ['LOW', 'MEDIUM', 'HIGH', 'CRITICAL'];
+          const totals = await Promise.all(levels.map(level =>
+            ticketAPI.countTicketsByManagerCategory({ servilityLevel: level })));
+          const counts = Object.fromEntries(levels.map((level, i) => [level, totals[i]]));
           setSeverityCounts(counts);
           const highCritical = counts.HIGH + counts.CRITICAL;
           const prev = parseInt(localStorage.getItem('highCriticalCount') || '0',10);
@@ -24,6 +24,9 @@ ChartJS.register(
   ArcElement
 );
 
+// Tickets the charts and averages are computed from
+const RECENT_TICKETS = 500;
+
 const AdminDashboard = () => {
   const [tickets, setTickets] = useState([]);
   const [loading, setLoading] = useState(true);
@@ -42,14 +45,19 @@ const AdminDashboard = () => {
   useEffect(() => {
     const fetchData = async () => {
       try {
-        const response = await ticketAPI.getTickets();
+        // Totals are counted by the server; the charts and averages use the most recent tickets
+        const [page, resolvedCount, inProgressCount, openCount] = await Promise.all([
+          ticketAPI.getTickets({ size: RECENT_TICKETS, sort: 'createdAt,desc' }),
+          ticketAPI.countTickets({ status: 'RESOLVED' }),
+          ticketAPI.countTickets({ status: 'IN_PROGRESS' }),
+          ticketAPI.countTickets({ status: 'OPEN' }),
+        ]);
+        const response = page.content;
         setTickets(response);
         
         // Calculate statistics
         const now = new Date();
         const resolvedTickets = response.filter(t => t.status === 'RESOLVED');
-        const inProgressTickets = response.filter(t => t.status === 'IN_PROGRESS');
-        const openTickets = response.filter(t => t.status === 'OPEN');
         
         // Calculate average resolve time (in minutes) only for resolved tickets
         const resolveTimes = resolvedTickets
@@ -60,26 +68,11 @@ const AdminDashboard = () => {
             return (resolved - created) / (1000 * 60); // Convert to minutes
           });
 
-        // Calculate average response time (in minutes) for tickets with both a customer and engineer message
-        const responseTimes = response.map(ticket => {
-          if (!ticket.history) return null;
-          let historyArr;
-          try {
-            historyArr = JSON.parse(ticket.history);
-          } catch {
-            return null;
-          }
-          if (!Array.isArray(historyArr)) return null;
-          // Find first customer message
-          const firstCustomerMsg = historyArr.find(msg => msg.role === 'customer');
-          if (!firstCustomerMsg) return null;
-          const firstCustomerTime = new Date(firstCustomerMsg.timestamp);
-          // Find first engineer reply after the first customer message
-          const firstEngineerMsg = historyArr.find(msg => msg.role === 'engineer' && new Date(msg.timestamp) > firstCustomerTime);
-          if (!firstEngineerMsg) return null;
-          const firstEngineerTime = new Date(firstEngineerMsg.timestamp);
-          return (firstEngineerTime - firstCustomerTime) / (1000 * 60); // minutes
-        }).filter(rt => rt !== null && !isNaN(rt) && rt >= 0);
+        // Calculate average response time (in minutes): first customer message to the first engineer reply after it
+        const responseTimes = response
+          .filter(ticket => ticket.firstCustomerMessageAt && ticket.firstResponseAt)
+          .map(ticket => (new Date(ticket.firstResponseAt) - new Date(ticket.firstCustomerMessageAt)) / (1000 * 60))
+          .filter(rt => !isNaN(rt) && rt >= 0);
 
         // Calculate weekly ticket counts
         const last7Days = Array.from({ length: 7 }, (_, i) => {
@@ -137,10 +130,10 @@ const AdminDashboard = () => {
             (responseTimes.reduce((a, b) => a + b, 0) / responseTimes.length).toFixed(1) : 0,
           avgResolveTime: resolveTimes.length ?
             (resolveTimes.reduce((a, b) => a + b, 0) / resolveTimes.length).toFixed(1) : 0,
-          totalTickets: response.length,
-          resolvedTickets: resolvedTickets.length,
-          inProgressTickets: inProgressTickets.length,
-          openTickets: openTickets.length
+          totalTickets: page.totalElements,
+          resolvedTickets: resolvedCount,
+          inProgressTickets: inProgressCount,
+          openTickets: openCount
         });
 
         setWeeklyData(weeklyCounts);
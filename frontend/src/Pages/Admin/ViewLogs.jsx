@@ -15,6 +15,10 @@ const ViewLogs = () => {
     search: '',
     limit: 100
   });
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [live, setLive] = useState(false);
+  const [streamVersion, setStreamVersion] = useState(0);
   const navigate = useNavigate();
 
   // Check if user is admin
@@ -53,27 +57,62 @@ const ViewLogs = () => {
     }
   }, [selectedFile]);
 
+  // While live, prepend entries as the server pushes them, keeping at most `limit`
+  useEffect(() => {
+    if (!live || !selectedFile) return undefined;
+    const close = logService.streamLogs(
+      selectedFile,
+      filter,
+      (entry) => setLogs(prev => [entry, ...prev].slice(0, Number(filter.limit))),
+      () => setError('Live log stream disconnected.')
+    );
+    return close;
+  }, [live, selectedFile, streamVersion]);
+
   const fetchLogs = async () => {
     if (!selectedFile) return;
     
     try {
       setLoading(true);
-      const data = await logService.getLogsFromFile(selectedFile, {
+      const page = await logService.getLogPage(selectedFile, {
         level: filter.level === 'all' ? '' : filter.level,
         search: filter.search,
         limit: filter.limit
       });
-      setLogs(data);
+      setLogs(page.entries);
+      setNextCursor(page.nextCursor);
       setError(null);
     } catch (err) {
       console.error('Error fetching logs:', err);
       setError('Failed to load logs. Please try again later.');
       setLogs([]);
+      setNextCursor(null);
     } finally {
       setLoading(false);
     }
   };
 
+  // Append the next, older page of entries
+  const loadMore = async () => {
+    if (!nextCursor) return;
+
+    try {
+      setLoadingMore(true);
+      const page = await logService.getLogPage(selectedFile, {
+        level: filter.level === 'all' ? '' : filter.level,
+        search: filter.search,
+        limit: filter.limit
+      }, nextCursor);
+      setLogs(prev => [...prev, ...page.entries]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error('Error fetching more logs:', err);
+      setError('Failed to load more logs. Please try again later.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleFileChange = (e) => {
     setSelectedFile(e.target.value);
   };
@@ -88,6 +127,7 @@ const ViewLogs = () => {
 
   const applyFilters = () => {
     fetchLogs();
+    setStreamVersion(v => v + 1);
   };
 
   const clearFilters = () => {
@@ -222,6 +262,14 @@ const ViewLogs = () => {
               >
                 Clear Filters
               </button>
+              <label className="live-toggle">
+                <input
+                  type="checkbox"
+                  checked={live}
+                  onChange={(e) => setLive(e.target.checked)}
+                />
+                Live
+              </label>
             </div>
           </div>
         </div>
@@ -263,6 +311,17 @@ const ViewLogs = () => {
               </tbody>
             </table>
           )}
+          {nextCursor && !live && logs.length > 0 && (
+            <div className="load-more">
+              <button
+                className="admin-btn-secondary"
+                onClick={loadMore}
+                disabled={loadingMore}
+              >
+                {loadingMore ? 'Loading...' : 'Load older entries'}
+              </button>
+            </div>
+          )}
         </div>
       </div>
     </div>
@@ -47,14 +47,13 @@ const AssignedTickets = () => {
         const profileData = await profileResponse.json();
         const engineerId = profileData.engineerId;
         setEngineerLevel(profileData.engineerLevel);
-        // Fetch tickets assigned to this engineer
-        const ticketsResponse = await fetch(`/api/tickets/engineer/${engineerId}`, {
-          headers: { 'Authorization': `Bearer ${localStorage.getItem('token')}` }
-        });
-        if (!ticketsResponse.ok) throw new Error('Failed to fetch assigned tickets');
-        const data = await ticketsResponse.json();
+        // Fetch open tickets assigned to this engineer; capacity keeps them to one page
+        const { content: data } = await ticketAPI.searchTickets({
+          engineerId,
+          status: ['OPEN', 'IN_PROGRESS', 'ESCALATED'],
+        }, { size: 100 });
         setTicketList(data);
-        if (data && data.length > 0) {
+        if (data.length > 0) {
           setActiveTicket(data[0].id);
         }
       } catch (err) {
@@ -96,6 +95,40 @@ const AssignedTickets = () => {
   const currentTicket = filteredTickets.length > 0 ?
     (filteredTickets.find(ticket => ticket.id === activeTicket) || filteredTickets[0]) : {};
 
+  // Ticket lists no longer include the conversation; load it for the selected ticket
+  useEffect(() => {
+    if (!currentTicket.id || currentTicket.history !== undefined) return;
+    const ticketId = currentTicket.id;
+    const fetchTicketHistory = async () => {
+      try {
+        const detail = await ticketAPI.getTicketById(ticketId);
+        setTicketList((prev) => prev.map(t => t.id === ticketId ? { ...t, history: detail.history } : t));
+      } catch {
+        setTicketList((prev) => prev.map(t => t.id === ticketId ? { ...t, history: null } : t));
+      }
+    };
+    fetchTicketHistory();
+  }, [currentTicket.id, currentTicket.history]);
+
+  // Append messages pushed by the server, skipping ones already shown after sending a reply.
+  // Sequences are contiguous from 1, so the loaded history length is the last sequence seen.
+  useEffect(() => {
+    if (!currentTicket.id || currentTicket.history === undefined) return;
+    const ticketId = currentTicket.id;
+    const appendMessage = (message) => {
+      setTicketList((prev) => prev.map(t => {
+        if (t.id !== ticketId) return t;
+        const history = parseHistory(t.history);
+        if (history.some(m => m.role === message.role && m.content === message.content && m.timestamp === message.timestamp)) return t;
+        const entry = { role: message.role, content: message.content, timestamp: message.timestamp };
+        return { ...t, history: JSON.stringify([...history, entry]) };
+      }));
+    };
+    return ticketAPI.streamTicketMessages(ticketId, parseHistory(currentTicket.history).length, appendMessage);
+    // Subscribe once per ticket when its history has loaded, not on every new message
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [currentTicket.id, currentTicket.history === undefined]);
+
   // Helper to parse ticket history JSON
   const parseHistory = (history) => {
     if (!history) return [];
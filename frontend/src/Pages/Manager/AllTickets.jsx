@@ -6,6 +6,7 @@ import { useNavigate } from 'react-router-dom';
 
 const AllTickets = () => {
   const [tickets, setTickets] = useState([]);
+  const [totalPages, setTotalPages] = useState(0);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [searchTerm, setSearchTerm] = useState('');
@@ -17,12 +18,17 @@ const AllTickets = () => {
   const [editingTicketId, setEditingTicketId] = useState(null);
   const [editingUrgency, setEditingUrgency] = useState('');
 
+  // The server pages, sorts and filters by status; only the search term is applied to the loaded page
   useEffect(() => {
     const fetchTickets = async () => {
       try {
         setLoading(true);
-        const data = await ticketAPI.getTicketsByManagerCategory();
-        setTickets(data);
+        const data = await ticketAPI.getTicketsByManagerCategory(
+          filterStatus === 'all' ? {} : { status: filterStatus },
+          { page: currentPage - 1, size: ticketsPerPage, sort: `${sortConfig.key},${sortConfig.direction}` }
+        );
+        setTickets(data.content);
+        setTotalPages(data.totalPages);
         setLoading(false);
       } catch (err) {
         setError('Failed to fetch tickets');
@@ -31,10 +37,10 @@ const AllTickets = () => {
       }
     };
     fetchTickets();
-  }, []);
+  }, [currentPage, ticketsPerPage, sortConfig, filterStatus]);
 
-  // Filter tickets based on search term and status
-  const filteredTickets = tickets.filter(ticket => {
+  // Filter the loaded page by the search term
+  const currentTickets = tickets.filter(ticket => {
     const matchesSearch =
       ticket.title.toLowerCase().includes(searchTerm.toLowerCase()) ||
       (
@@ -49,9 +55,7 @@ const AllTickets = () => {
       ) ||
       ticket.id.toString().includes(searchTerm);
     
-    const matchesStatus = filterStatus === 'all' || ticket.status.toLowerCase() === filterStatus.toLowerCase();
-    
-    return matchesSearch && matchesStatus;
+    return matchesSearch;
   });
 
   const handleSort = (key) => {
@@ -61,54 +65,9 @@ const AllTickets = () => {
       }
       return { key, direction: 'asc' };
     });
+    setCurrentPage(1);
   };
 
-  const sortedTickets = React.useMemo(() => {
-    const sortable = [...filteredTickets];
-    sortable.sort((a, b) => {
-      let aValue = a[sortConfig.key];
-      let bValue = b[sortConfig.key];
-      // Special handling for nested/complex fields
-      if (sortConfig.key === 'engineer') {
-        aValue = a.engineer ? (typeof a.engineer === 'object' ? a.engineer.name : a.engineer) : '';
-        bValue = b.engineer ? (typeof b.engineer === 'object' ? b.engineer.name : b.engineer) : '';
-      }
-      if (sortConfig.key === 'urgency') {
-        aValue = a.urgency || '';
-        bValue = b.urgency || '';
-      }
-      if (sortConfig.key === 'status') {
-        aValue = a.status || '';
-        bValue = b.status || '';
-      }
-      if (sortConfig.key === 'title') {
-        aValue = a.title || '';
-        bValue = b.title || '';
-      }
-      if (sortConfig.key === 'id') {
-        aValue = a.id;
-        bValue = b.id;
-      }
-      if (sortConfig.key === 'createdAt') {
-        aValue = new Date(a.createdAt).getTime();
-        bValue = new Date(b.createdAt).getTime();
-      }
-      if (sortConfig.key === 'servilityLevel') {
-        aValue = a.servilityLevel || '';
-        bValue = b.servilityLevel || '';
-      }
-      if (aValue < bValue) return sortConfig.direction === 'asc' ? -1 : 1;
-      if (aValue > bValue) return sortConfig.direction === 'asc' ? 1 : -1;
-      return 0;
-    });
-    return sortable;
-  }, [filteredTickets, sortConfig]);
-
-  // Pagination on sorted tickets
-  const indexOfLastTicket = currentPage * ticketsPerPage;
-  const indexOfFirstTicket = indexOfLastTicket - ticketsPerPage;
-  const currentTickets = sortedTickets.slice(indexOfFirstTicket, indexOfLastTicket);
-
   const getSortIndicator = (key) => {
     if (sortConfig.key !== key) return '';
     return sortConfig.direction === 'asc' ? ' ▲' : ' ▼';
@@ -142,7 +101,7 @@ const AllTickets = () => {
     setEditingUrgency('');
   };
 
-  if (loading) return <div className="alltickets-empty-state">Loading tickets...</div>;
+  if (loading && tickets.length === 0) return <div className="alltickets-empty-state">Loading tickets...</div>;
   if (error) return <div className="alltickets-empty-state">Error: {error}</div>;
 
   return (
@@ -205,7 +164,7 @@ const AllTickets = () => {
               <tr>
                 <th onClick={() => handleSort('id')} style={{ cursor: 'pointer' }}>Ticket ID{getSortIndicator('id')}</th>
                 <th onClick={() => handleSort('title')} style={{ cursor: 'pointer' }}>Title{getSortIndicator('title')}</th>
-                <th onClick={() => handleSort('engineer')} style={{ cursor: 'pointer' }}>Assigned To{getSortIndicator('engineer')}</th>
+                <th>Assigned To</th>
                 <th onClick={() => handleSort('urgency')} style={{ cursor: 'pointer' }}>Priority{getSortIndicator('urgency')}</th>
                 <th onClick={() => handleSort('status')} style={{ cursor: 'pointer' }}>Status{getSortIndicator('status')}</th>
                 <th onClick={() => handleSort('servilityLevel')} style={{ cursor: 'pointer' }}>Severity{getSortIndicator('servilityLevel')}</th>
@@ -267,7 +226,7 @@ const AllTickets = () => {
       </div>
 
       <div className="alltickets-pagination">
-        {Array.from({ length: Math.ceil(sortedTickets.length / ticketsPerPage) }).map((_, index) => (
+        {Array.from({ length: totalPages }).map((_, index) => (
           <button
             key={index}
             className={`alltickets-pagination-button ${currentPage === index + 1 ? 'active' : ''}`}
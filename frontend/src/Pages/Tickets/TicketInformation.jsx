@@ -6,6 +6,8 @@ import { sessionAPI } from '../../Services/api';
 import ChatbotHistory from './ChatbotHistory';
 // import { format } from 'date-fns'; // Uncomment if date-fns is available
 
+const TICKETS_PER_PAGE = 20;
+
 const TicketInformation = () => {
   const [ticketList, setTicketList] = useState([]);
   const [loading, setLoading] = useState(true);
@@ -28,16 +30,19 @@ const TicketInformation = () => {
   const [statusFilter, setStatusFilter] = useState('ALL');
   const [sortOrder, setSortOrder] = useState('DESC'); // 'ASC' or 'DESC'
   const [showEmergencyToast, setShowEmergencyToast] = useState(true);
+  const [nextPage, setNextPage] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   
   useEffect(() => {
     const fetchTickets = async () => {
       setLoading(true);
       setError(null);
       try {
-        const data = await ticketAPI.getTicketsOwn();
-        setTicketList(data);
-        if (data && data.length > 0) {
-          setActiveTicket(data[0].id);
+        const data = await ticketAPI.getTicketsOwn({ page: 0, size: TICKETS_PER_PAGE, sort: 'createdAt,desc' });
+        setTicketList(data.content);
+        setNextPage(data.last ? null : 1);
+        if (data.content.length > 0) {
+          setActiveTicket(data.content[0].id);
         }
       } catch (err) {
         setError('Failed to fetch tickets.');
@@ -48,6 +53,20 @@ const TicketInformation = () => {
     fetchTickets();
   }, []);
 
+  // Older tickets are loaded a page at a time on request
+  const loadMoreTickets = async () => {
+    setLoadingMore(true);
+    try {
+      const data = await ticketAPI.getTicketsOwn({ page: nextPage, size: TICKETS_PER_PAGE, sort: 'createdAt,desc' });
+      setTicketList((prev) => [...prev, ...data.content.filter(t => !prev.some(p => p.id === t.id))]);
+      setNextPage(data.last ? null : nextPage + 1);
+    } catch (err) {
+      setError('Failed to fetch tickets.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     setSortOrder('DESC');
   }, []);
@@ -71,6 +90,40 @@ const TicketInformation = () => {
   // Get the active ticket data
   const currentTicket = ticketList.find(ticket => ticket.id === activeTicket) || ticketList[0] || {};
 
+  // Ticket lists no longer include the conversation; load it for the selected ticket
+  useEffect(() => {
+    if (!currentTicket.id || currentTicket.history !== undefined) return;
+    const ticketId = currentTicket.id;
+    const fetchTicketHistory = async () => {
+      try {
+        const detail = await ticketAPI.getTicketById(ticketId);
+        setTicketList((prev) => prev.map(t => t.id === ticketId ? { ...t, history: detail.history } : t));
+      } catch {
+        setTicketList((prev) => prev.map(t => t.id === ticketId ? { ...t, history: null } : t));
+      }
+    };
+    fetchTicketHistory();
+  }, [currentTicket.id, currentTicket.history]);
+
+  // Append messages pushed by the server, skipping ones already shown after sending a reply.
+  // Sequences are contiguous from 1, so the loaded history length is the last sequence seen.
+  useEffect(() => {
+    if (!currentTicket.id || currentTicket.history === undefined) return;
+    const ticketId = currentTicket.id;
+    const appendMessage = (message) => {
+      setTicketList((prev) => prev.map(t => {
+        if (t.id !== ticketId) return t;
+        const history = parseHistory(t.history);
+        if (history.some(m => m.role === message.role && m.content === message.content && m.timestamp === message.timestamp)) return t;
+        const entry = { role: message.role, content: message.content, timestamp: message.timestamp };
+        return { ...t, history: JSON.stringify([...history, entry]) };
+      }));
+    };
+    return ticketAPI.streamTicketMessages(ticketId, parseHistory(currentTicket.history).length, appendMessage);
+    // Subscribe once per ticket when its history has loaded, not on every new message
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [currentTicket.id, currentTicket.history === undefined]);
+
   useEffect(() => {
     const fetchSession = async () => {
       setSession(null);
@@ -325,6 +378,11 @@ const TicketInformation = () => {
                       </div>
                     ))}
                   </div>
+                  {nextPage !== null && (
+                    <button className="customer-load-more-btn" onClick={loadMoreTickets} disabled={loadingMore}>
+                      {loadingMore ? 'Loading...' : 'Load older tickets'}
+                    </button>
+                  )}
                 </div>
               )}
               
@@ -142,22 +142,91 @@ export const userService = {
   },
 };
 
+// Ticket list endpoints are paged; fetch one page ({ content, totalElements, totalPages, number, last })
+// with an optional sort such as 'createdAt,desc'
+const fetchTicketPage = async (url, params = {}, { page = 0, size = 20, sort } = {}) => {
+  const response = await api.get(url, {
+    params: { ...params, page, size, ...(sort ? { sort } : {}) },
+    paramsSerializer: { indexes: null },
+  });
+  return response.data;
+};
+
+// Reads a Server-Sent Events stream with fetch, since EventSource cannot send the
+// Authorization header. Calls onData with each event's parsed JSON data and returns
+// a function that closes the stream.
+const streamEvents = (url, label, onData, onError) => {
+  const controller = new AbortController();
+  const token = localStorage.getItem('token');
+  fetch(url, {
+    headers: token ? { Authorization: `Bearer ${token}` } : {},
+    signal: controller.signal,
+  })
+    .then(async (response) => {
+      if (!response.ok) {
+        throw new Error(`Stream of ${label} failed with status ${response.status}`);
+      }
+      const reader = response.body.getReader();
+      const decoder = new TextDecoder();
+      let buffer = '';
+      while (true) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true });
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+          const event = buffer.slice(0, boundary);
+          buffer = buffer.slice(boundary + 2);
+          const data = event
+            .split('\n')
+            .filter(line => line.startsWith('data:'))
+            .map(line => line.slice(5))
+            .join('\n');
+          if (data) onData(JSON.parse(data));
+        }
+      }
+    })
+    .catch((error) => {
+      if (error.name !== 'AbortError') {
+        console.error(`Error streaming ${label}:`, error);
+        if (onError) onError(error);
+      }
+    });
+  return () => controller.abort();
+};
+
 // Ticket management services
 export const ticketAPI = {
   // Get all tickets
-  getTickets: async () => {
+  getTickets: async (paging) => {
     try {
-      const response = await api.get('/tickets');
-      return response.data;
+      return await fetchTicketPage('/tickets', {}, paging);
     } catch (error) {
       throw error.response ? error.response.data : error;
     }
   },
 
-  getTicketsOwn: async () => {
+  getTicketsOwn: async (paging) => {
     try {
-      const response = await api.get('/tickets/own');
-      return response.data;
+      return await fetchTicketPage('/tickets/own', {}, paging);
+    } catch (error) {
+      throw error.response ? error.response.data : error;
+    }
+  },
+
+  // Search tickets with combined filters (status, category, servilityLevel, engineerId, customerId, createdFrom, createdTo)
+  searchTickets: async (filters = {}, paging) => {
+    try {
+      return await fetchTicketPage('/tickets/search', filters, paging);
+    } catch (error) {
+      throw error.response ? error.response.data : error;
+    }
+  },
+
+  // Count the tickets matching the search filters without loading them
+  countTickets: async (filters = {}) => {
+    try {
+      return (await fetchTicketPage('/tickets/search', filters, { size: 1 })).totalElements;
     } catch (error) {
       throw error.response ? error.response.data : error;
     }
@@ -256,11 +325,25 @@ export const ticketAPI = {
     }
   },
 
-  // Get tickets by manager category
-  getTicketsByManagerCategory: async () => {
+  // Stream messages added to a ticket; pass the last sequence seen to receive anything missed since
+  streamTicketMessages: (id, after, onMessage, onError) => {
+    const query = after != null ? `?after=${after}` : '';
+    return streamEvents(`/api/tickets/${id}/stream${query}`, 'ticket messages', onMessage, onError);
+  },
+
+  // Get tickets by manager category, optionally narrowed by the search filters
+  getTicketsByManagerCategory: async (filters = {}, paging) => {
     try {
-      const response = await api.get('/tickets/manager/category');
-      return response.data;
+      return await fetchTicketPage('/tickets/manager/category', filters, paging);
+    } catch (error) {
+      throw error.response ? error.response.data : error;
+    }
+  },
+
+  // Count the tickets in the manager's category matching the search filters
+  countTicketsByManagerCategory: async (filters = {}) => {
+    try {
+      return (await fetchTicketPage('/tickets/manager/category', filters, { size: 1 })).totalElements;
     } catch (error) {
       throw error.response ? error.response.data : error;
     }
@@ -444,6 +527,12 @@ export const sessionAPI = {
       throw error.response ? error.response.data : error;
     }
   },
+
+  // Stream messages added to a session; pass the last sequence seen to receive anything missed since
+  streamSessionMessages: (id, after, onMessage, onError) => {
+    const query = after != null ? `?after=${after}` : '';
+    return streamEvents(`/api/sessions/${id}/stream${query}`, 'session messages', onMessage, onError);
+  },
 };
 
 // Engineer management services
@@ -504,6 +593,70 @@ export const logService = {
       throw error.response ? error.response.data : error;
     }
   },
+
+  // One page of a log file, newest first; pass the previous page's nextCursor for older entries
+  getLogPage: async (fileName, filters = {}, cursor = null) => {
+    try {
+      const params = new URLSearchParams();
+      if (filters.level && filters.level !== 'all') params.append('level', filters.level);
+      if (filters.search) params.append('search', filters.search);
+      if (filters.limit) params.append('size', filters.limit);
+      if (cursor) params.append('cursor', cursor);
+
+      const response = await api.get(`/logs/file/${encodeURIComponent(fileName)}/page?${params.toString()}`);
+      return response.data;
+    } catch (error) {
+      console.error("Error fetching log page:", error);
+      throw error.response ? error.response.data : error;
+    }
+  },
+
+  // Search all log files (or filters.files) at once; entries carry the file they came from
+  searchLogs: async (filters = {}) => {
+    try {
+      const params = new URLSearchParams();
+      (filters.files || []).forEach(file => params.append('files', file));
+      if (filters.level && filters.level !== 'all') params.append('level', filters.level);
+      if (filters.search) params.append('search', filters.search);
+      if (filters.from) params.append('from', filters.from);
+      if (filters.to) params.append('to', filters.to);
+      if (filters.limit) params.append('limit', filters.limit);
+
+      const response = await api.get(`/logs/search?${params.toString()}`);
+      return response.data;
+    } catch (error) {
+      console.error("Error searching logs:", error);
+      throw error.response ? error.response.data : error;
+    }
+  },
+
+  // Entry counts per level by minute or hour and by logger, for charting error rates
+  getLogAggregation: async (fileName, filters = {}) => {
+    try {
+      const params = new URLSearchParams();
+      if (filters.from) params.append('from', filters.from);
+      if (filters.to) params.append('to', filters.to);
+      if (filters.interval) params.append('interval', filters.interval);
+      if (filters.topLoggers) params.append('topLoggers', filters.topLoggers);
+
+      const response = await api.get(`/logs/aggregate/${encodeURIComponent(fileName)}?${params.toString()}`);
+      return response.data;
+    } catch (error) {
+      console.error("Error aggregating logs:", error);
+      throw error.response ? error.response.data : error;
+    }
+  },
+
+  // Follow new entries of a log file as they are written (Server-Sent Events).
+  // EventSource cannot send the Authorization header, so the stream is read with fetch.
+  // Returns a function that closes the stream.
+  streamLogs: (fileName, filters = {}, onEntry, onError) => {
+    const params = new URLSearchParams();
+    if (filters.level && filters.level !== 'all') params.append('level', filters.level);
+    if (filters.search) params.append('search', filters.search);
+
+    return streamEvents(`/api/logs/stream/${encodeURIComponent(fileName)}?${params.toString()}`, 'logs', onEntry, onError);
+  },
 };
 
 // Chatbot services